@@ -0,0 +1,7 @@
+-- Rank-based ordering (kanbee.ordering.mode=rank)
+-- Las claves existentes se rellenan al arrancar en modo rank (RankRebalancer)
+ALTER TABLE board_lists ADD COLUMN IF NOT EXISTS rank_key VARCHAR(128);
+ALTER TABLE cards ADD COLUMN IF NOT EXISTS rank_key VARCHAR(128);
+
+CREATE INDEX IF NOT EXISTS idx_board_lists_rank ON board_lists(board_id, rank_key);
+CREATE INDEX IF NOT EXISTS idx_cards_rank ON cards(list_id, rank_key);
@@ -0,0 +1,2 @@
+-- Versión de contenido por board (ETag / If-None-Match en GET /api/v1/boards/{id})
+ALTER TABLE boards ADD COLUMN IF NOT EXISTS revision BIGINT NOT NULL DEFAULT 0;
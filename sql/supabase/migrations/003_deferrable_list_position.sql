@@ -0,0 +1,12 @@
+-- Reordenación en bloque (PUT /api/v1/boards/{id}/lists/order): una permutación de posiciones en un
+-- único UPDATE choca fila a fila con una unicidad no diferible. DEFERRABLE INITIALLY IMMEDIATE
+-- mantiene la comprobación por sentencia para el resto de escrituras.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_constraint
+               WHERE conname = 'uq_board_lists_board_position' AND NOT condeferrable) THEN
+        ALTER TABLE board_lists DROP CONSTRAINT uq_board_lists_board_position;
+        ALTER TABLE board_lists ADD CONSTRAINT uq_board_lists_board_position
+            UNIQUE (board_id, position) DEFERRABLE INITIALLY IMMEDIATE;
+    END IF;
+END $$;
@@ -0,0 +1,18 @@
+-- Log de cambios por board (GET /api/v1/boards/{id}/changes?since=<revision>)
+CREATE TABLE IF NOT EXISTS board_changes (
+    id         BIGSERIAL PRIMARY KEY,
+    board_id   UUID      NOT NULL,
+    revision   BIGINT    NOT NULL,
+    kind       SMALLINT  NOT NULL,
+    entity_id  BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS idx_board_changes_board_revision ON board_changes(board_id, revision);
+CREATE INDEX IF NOT EXISTS idx_board_changes_created_at ON board_changes(created_at);
+
+-- Los cambios anteriores al log no están registrados: el primer delta de esos boards es completo.
+-- Idempotente: solo toca boards sin entradas en el log y sin poda previa
+ALTER TABLE boards ADD COLUMN IF NOT EXISTS change_log_floor BIGINT NOT NULL DEFAULT 0;
+UPDATE boards b SET change_log_floor = b.revision
+WHERE b.change_log_floor = 0
+  AND NOT EXISTS (SELECT 1 FROM board_changes c WHERE c.board_id = b.id);
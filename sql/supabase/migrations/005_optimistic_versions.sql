@@ -0,0 +1,4 @@
+-- Bloqueo optimista (@Version) en boards, listas y tarjetas; los desplazamientos masivos también la incrementan
+ALTER TABLE boards ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE board_lists ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE cards ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
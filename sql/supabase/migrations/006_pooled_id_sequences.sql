@@ -0,0 +1,18 @@
+-- Ids de listas y tarjetas por secuencia con optimizador pooled (allocationSize = 50 en las entidades):
+-- Hibernate reserva 50 ids por nextval y puede agrupar los INSERT en lotes JDBC.
+-- Aplicar ANTES de desplegar la versión que la usa: si no, ddl-auto crea las secuencias empezando en 1.
+-- Los ids existentes se conservan; las secuencias siguen tras el mayor y pasan a ser el default de la columna
+-- (también para inserciones en SQL), en lugar de la identidad/serial anterior.
+CREATE SEQUENCE IF NOT EXISTS board_lists_seq INCREMENT BY 50;
+ALTER SEQUENCE board_lists_seq INCREMENT BY 50;
+SELECT setval('board_lists_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM board_lists),
+                                          (SELECT last_value FROM board_lists_seq), 1));
+ALTER TABLE board_lists ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE board_lists ALTER COLUMN id SET DEFAULT nextval('board_lists_seq');
+
+CREATE SEQUENCE IF NOT EXISTS cards_seq INCREMENT BY 50;
+ALTER SEQUENCE cards_seq INCREMENT BY 50;
+SELECT setval('cards_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM cards),
+                                    (SELECT last_value FROM cards_seq), 1));
+ALTER TABLE cards ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE cards ALTER COLUMN id SET DEFAULT nextval('cards_seq');
@@ -0,0 +1,9 @@
+-- Búsqueda de texto en tarjetas (GET /api/v1/boards/{boardId}/cards/search): columna tsvector generada a partir
+-- del título (peso A) y la descripción (peso B) con índice GIN. Configuración 'simple': sin stemming ni
+-- stopwords, los boards mezclan idiomas. Sin esta migración la API busca con LIKE (kanbee.search.mode).
+ALTER TABLE cards ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_cards_search_vector ON cards USING GIN (search_vector);
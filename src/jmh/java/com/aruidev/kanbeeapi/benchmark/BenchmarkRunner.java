@@ -0,0 +1,27 @@
+package com.aruidev.kanbeeapi.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Lanza los benchmarks de kanbee con GCProfiler (gc.alloc.rate.norm = bytes por operación).
+// Resultados en target/jmh-result.json para comparar entre versiones.
+// Uso: ./mvnw -Pbenchmarks test-compile exec:exec [-Djmh.args=<regex>]
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*";
+        Options options = new OptionsBuilder()
+                .include("com\\.aruidev\\.kanbeeapi\\..*" + include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
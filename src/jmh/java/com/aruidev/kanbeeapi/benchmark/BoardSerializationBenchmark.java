@@ -0,0 +1,37 @@
+package com.aruidev.kanbeeapi.benchmark;
+
+import com.aruidev.kanbeeapi.dto.BoardResponseDTO;
+import com.aruidev.kanbeeapi.service.mapper.EntityDtoMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Serialización Jackson de BoardResponseDTO con el ObjectMapper que configura Spring MVC
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardSerializationBenchmark {
+
+    @Param({"10", "100", "10000"})
+    private int cards;
+
+    private ObjectMapper objectMapper;
+    private BoardResponseDTO board;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        board = EntityDtoMapper.toBoardResponse(SyntheticBoards.board(cards), true);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(board);
+    }
+}
@@ -0,0 +1,37 @@
+package com.aruidev.kanbeeapi.benchmark;
+
+import com.aruidev.kanbeeapi.dto.BoardResponseDTO;
+import com.aruidev.kanbeeapi.entity.Board;
+import com.aruidev.kanbeeapi.service.mapper.EntityDtoMapper;
+import com.aruidev.kanbeeapi.service.ordering.OrderingMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// EntityDtoMapper.toBoardResponse con listas y tarjetas (GET /boards/{id}?expand=cards sin caché)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityDtoMapperBenchmark {
+
+    @Param({"10", "100", "10000"})
+    private int cards;
+
+    @Param({"POSITION", "RANK"})
+    private OrderingMode mode;
+
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        board = SyntheticBoards.board(cards);
+    }
+
+    @Benchmark
+    public BoardResponseDTO toBoardResponse() {
+        return EntityDtoMapper.toBoardResponse(board, true, mode);
+    }
+}
@@ -0,0 +1,56 @@
+package com.aruidev.kanbeeapi.benchmark;
+
+import com.aruidev.kanbeeapi.entity.Board;
+import com.aruidev.kanbeeapi.entity.BoardList;
+import com.aruidev.kanbeeapi.entity.Card;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Boards en memoria con ids y timestamps rellenos, como los devolvería Hibernate
+public final class SyntheticBoards {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private SyntheticBoards() {}
+
+    // totalCards repartidas en listas de hasta 100 tarjetas
+    public static Board board(int totalCards) {
+        Board board = new Board("Synthetic board " + totalCards);
+        set(board, "id", UUID.randomUUID());
+        stamp(board);
+        int lists = Math.max(1, (totalCards + 99) / 100);
+        long cardId = 1;
+        for (int l = 0; l < lists; l++) {
+            BoardList list = new BoardList("List " + l, l);
+            set(list, "id", (long) l + 1);
+            stamp(list);
+            board.addBoardList(list);
+            int cards = Math.min(100, totalCards - l * 100);
+            // Orden inverso: el mapper tiene que ordenar de verdad
+            for (int c = cards - 1; c >= 0; c--) {
+                Card card = new Card("Card " + l + "-" + c, "Description of card " + c + " in list " + l, c);
+                set(card, "id", cardId++);
+                stamp(card);
+                list.addCard(card);
+            }
+        }
+        return board;
+    }
+
+    private static void stamp(Object entity) {
+        set(entity, "createdAt", NOW);
+        set(entity, "updatedAt", NOW);
+    }
+
+    private static void set(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
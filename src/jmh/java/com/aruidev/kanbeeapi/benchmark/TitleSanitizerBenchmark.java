@@ -0,0 +1,39 @@
+package com.aruidev.kanbeeapi.benchmark;
+
+import com.aruidev.kanbeeapi.service.validation.TextSanitizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// TextSanitizer.title frente a la versión con regex que tenían los tres servicios
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TitleSanitizerBenchmark {
+
+    @Param({"clean", "messy"})
+    private String input;
+
+    private String title;
+
+    @Setup
+    public void setUp() {
+        title = switch (input) {
+            case "clean" -> "Prepare sprint review notes for the team";
+            default -> "  Prepare \t sprint   review\n notes  for the   team  ";
+        };
+    }
+
+    @Benchmark
+    public String regexBaseline() {
+        return title.trim().replaceAll("\\s+", " ");
+    }
+
+    @Benchmark
+    public String textSanitizer() {
+        return TextSanitizer.title(title);
+    }
+}
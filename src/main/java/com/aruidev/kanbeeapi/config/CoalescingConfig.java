@@ -0,0 +1,62 @@
+package com.aruidev.kanbeeapi.config;
+
+import com.aruidev.kanbeeapi.service.concurrency.CardEditCoalescer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+import java.util.UUID;
+
+// Con kanbee.coalescing activo, cualquier petición sobre un board (por su id, el de una lista o el de una
+// tarjeta) vuelca antes las ediciones pendientes de ese board; solo PATCH /cards/{id} las deja en el buffer
+@Configuration
+public class CoalescingConfig implements WebMvcConfigurer {
+
+    private final CardEditCoalescer coalescer;
+
+    public CoalescingConfig(CardEditCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!coalescer.isEnabled()) return;
+        registry.addInterceptor(new FlushBeforeBoardAccess(coalescer)).addPathPatterns("/api/v1/**");
+    }
+
+    static class FlushBeforeBoardAccess implements HandlerInterceptor {
+
+        private final CardEditCoalescer coalescer;
+
+        FlushBeforeBoardAccess(CardEditCoalescer coalescer) {
+            this.coalescer = coalescer;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Map<String, String> vars =
+                    (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            if (pattern == null || vars == null) return true;
+            try {
+                if (pattern.startsWith("/api/v1/boards/{")) {
+                    coalescer.flushBoard(UUID.fromString(vars.getOrDefault("id", vars.get("boardId"))));
+                } else if (pattern.startsWith("/api/v1/lists/{")) {
+                    coalescer.flushForList(Long.valueOf(vars.getOrDefault("id", vars.get("listId"))));
+                } else if (pattern.startsWith("/api/v1/cards/{")
+                        && !(pattern.equals("/api/v1/cards/{id}") && "PATCH".equals(request.getMethod()))) {
+                    coalescer.flushForCard(Long.valueOf(vars.get("id")));
+                }
+            } catch (IllegalArgumentException ex) {
+                // Id mal formado (NumberFormatException incluida): lo rechaza el controlador con 400
+            }
+            return true;
+        }
+    }
+}
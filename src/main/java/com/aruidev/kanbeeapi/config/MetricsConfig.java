@@ -0,0 +1,24 @@
+package com.aruidev.kanbeeapi.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+
+// @Timed en los servicios (kanbee.service): un timer por operación, con tag operation=Servicio.metodo
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    TimedAspect timedAspect(MeterRegistry registry) {
+        // Tipado explícito: TimedAspect también tiene un constructor con Predicate<ProceedingJoinPoint>
+        Function<ProceedingJoinPoint, Iterable<Tag>> operationTags = joinPoint -> Tags.of("operation",
+                joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName());
+        return new TimedAspect(registry, operationTags);
+    }
+}
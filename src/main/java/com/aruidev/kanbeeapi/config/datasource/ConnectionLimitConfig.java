@@ -0,0 +1,70 @@
+package com.aruidev.kanbeeapi.config.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// Envuelve el DataSource del pool con ConnectionLimitingDataSource.
+// kanbee.datasource.max-concurrent <= 0 desactiva el límite.
+// Se aplica antes que ReplicaRoutingConfig: el límite es del pool primario, no de primario + réplica.
+@Configuration
+public class ConnectionLimitConfig {
+
+    @Bean
+    static BeanPostProcessor connectionLimitingPostProcessor(
+            @Value("${kanbee.datasource.max-concurrent:0}") int maxConcurrent,
+            @Value("${kanbee.datasource.acquire-timeout:5s}") Duration acquireTimeout) {
+        return new LimitingPostProcessor(maxConcurrent, acquireTimeout);
+    }
+
+    private record LimitingPostProcessor(int maxConcurrent, Duration acquireTimeout)
+            implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (maxConcurrent <= 0 || !(bean instanceof DataSource dataSource)
+                    || bean instanceof ConnectionLimitingDataSource) {
+                return bean;
+            }
+            return new ConnectionLimitingDataSource(dataSource, maxConcurrent, acquireTimeout);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    // Permisos libres y peticiones en espera del limitador (junto a las métricas hikaricp.*)
+    @Bean
+    MeterBinder connectionLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            // Con réplica el limitador queda detrás del proxy de enrutado (unwrap llega al primario)
+            ConnectionLimitingDataSource limited = unwrapLimiter(dataSource);
+            if (limited != null) {
+                Gauge.builder("kanbee.datasource.limiter.available", limited,
+                        ConnectionLimitingDataSource::getAvailablePermits).register(registry);
+                Gauge.builder("kanbee.datasource.limiter.waiting", limited,
+                        ConnectionLimitingDataSource::getQueueLength).register(registry);
+            }
+        };
+    }
+
+    private static ConnectionLimitingDataSource unwrapLimiter(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ConnectionLimitingDataSource.class)
+                    ? dataSource.unwrap(ConnectionLimitingDataSource.class)
+                    : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+}
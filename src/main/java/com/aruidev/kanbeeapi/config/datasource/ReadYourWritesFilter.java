@@ -0,0 +1,84 @@
+package com.aruidev.kanbeeapi.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+// Leer lo que uno acaba de escribir con réplica: tras una petición que modifica (POST/PUT/PATCH/DELETE),
+// las lecturas del mismo cliente van al primario durante sticky-window (debe cubrir el retraso tolerado).
+// Cliente = cabecera client-header si viene, si no la IP: detrás de un proxy o balanceador sin esa cabecera
+// todos los clientes comparten IP y una escritura de cualquiera manda las lecturas de todos al primario.
+// La marca vive en memoria de cada instancia: con varias, la lectura que cae en otra no la ve (hace falta
+// afinidad en el balanceador). Las lecturas de la propia petición que modifica también van al primario.
+// El flag viaja a las respuestas asíncronas con propagate().
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final String clientHeader;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(String clientHeader, Duration stickyWindow, long maxClients) {
+        this.clientHeader = clientHeader;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterWrite(stickyWindow)
+                .build();
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    // Para el TaskDecorator: la tarea ve el flag del hilo que la creó
+    public static Runnable propagate(Runnable task) {
+        Boolean required = PRIMARY_REQUIRED.get();
+        if (required == null) {
+            return task;
+        }
+        return () -> {
+            Boolean previous = PRIMARY_REQUIRED.get();
+            PRIMARY_REQUIRED.set(required);
+            try {
+                task.run();
+            } finally {
+                PRIMARY_REQUIRED.set(previous);
+            }
+        };
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = clientKey(request);
+        boolean mutating = !SAFE_METHODS.contains(request.getMethod());
+        // Antes de ejecutarla: una lectura que llegue mientras se confirma la escritura ya va al primario
+        if (mutating) {
+            recentWriters.put(client, Boolean.TRUE);
+        }
+        PRIMARY_REQUIRED.set(mutating || recentWriters.getIfPresent(client) != null);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            PRIMARY_REQUIRED.remove();
+            // Y otra vez al terminar: la ventana cuenta desde el commit
+            if (mutating) {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String header = request.getHeader(clientHeader);
+        return header != null && !header.isBlank() ? "h:" + header.trim() : "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,77 @@
+package com.aruidev.kanbeeapi.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Pool de conexiones de la réplica de lectura y su retraso respecto al primario.
+// El retraso se mide periódicamente con lag-query (milisegundos); si supera max-lag, si la consulta falla
+// o si la última medida es demasiado vieja, las lecturas vuelven al primario hasta la siguiente medida buena.
+public class ReplicaPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    private final HikariDataSource pool;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbc;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final long staleAfterNanos;
+
+    // Instante (nanoTime) de la última medida dentro de la tolerancia; 0 = ninguna
+    private volatile long healthyAt;
+    private volatile long lagMillis = -1;
+
+    public ReplicaPool(HikariDataSource pool, DataSource dataSource, String lagQuery, Duration maxLag,
+                       Duration checkInterval) {
+        this.pool = pool;
+        this.dataSource = dataSource;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLag.toMillis();
+        // Dos comprobaciones perdidas seguidas: la medida ya no vale
+        this.staleAfterNanos = checkInterval.multipliedBy(2).plus(maxLag).toNanos();
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isWithinTolerance() {
+        long at = healthyAt;
+        return at != 0 && System.nanoTime() - at <= staleAfterNanos;
+    }
+
+    // -1 hasta la primera medida correcta
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${kanbee.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        try {
+            Number lag = jdbc.queryForObject(lagQuery, Number.class);
+            long millis = lag == null ? 0 : lag.longValue();
+            lagMillis = millis;
+            if (millis <= maxLagMillis) {
+                healthyAt = System.nanoTime();
+            } else {
+                healthyAt = 0;
+                log.warn("Replica lag {} ms exceeds {} ms, reads go to the primary", millis, maxLagMillis);
+            }
+        } catch (RuntimeException ex) {
+            healthyAt = 0;
+            log.warn("Replica lag check failed, reads go to the primary: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+}
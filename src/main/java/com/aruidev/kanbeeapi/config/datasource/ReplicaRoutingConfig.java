@@ -0,0 +1,96 @@
+package com.aruidev.kanbeeapi.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Réplica de lectura, solo si kanbee.datasource.replica.url tiene valor.
+// El DataSource de la app pasa a ser Lazy(Routing(primario, réplica)); el primario conserva su limitador
+// (ConnectionLimitConfig se aplica antes) y la réplica tiene el suyo.
+@Configuration
+@ConditionalOnExpression("!'${kanbee.datasource.replica.url:}'.isBlank()")
+public class ReplicaRoutingConfig {
+
+    // 0 si es un primario o la réplica está al día; si no, antigüedad de la última transacción aplicada
+    static final String DEFAULT_LAG_QUERY = """
+            SELECT CASE WHEN pg_last_wal_receive_lsn() IS NULL
+                          OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE (EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint END""";
+
+    @Bean
+    static BeanPostProcessor replicaRoutingPostProcessor(ObjectProvider<ReplicaPool> replica) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource primary) || bean instanceof LazyConnectionDataSourceProxy) {
+                    return bean;
+                }
+                ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica.getObject());
+                routing.afterPropertiesSet();
+                return new LazyConnectionDataSourceProxy(routing);
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    ReplicaPool replicaPool(@Value("${kanbee.datasource.replica.url}") String url,
+                            @Value("${kanbee.datasource.replica.username:${spring.datasource.username:}}") String username,
+                            @Value("${kanbee.datasource.replica.password:${spring.datasource.password:}}") String password,
+                            @Value("${kanbee.datasource.replica.maximum-pool-size:10}") int poolSize,
+                            @Value("${kanbee.datasource.replica.max-concurrent:0}") int maxConcurrent,
+                            @Value("${kanbee.datasource.acquire-timeout:5s}") Duration acquireTimeout,
+                            @Value("${kanbee.datasource.replica.lag-query:}") String lagQuery,
+                            @Value("${kanbee.datasource.replica.max-lag:1s}") Duration maxLag,
+                            @Value("${kanbee.datasource.replica.lag-check-interval-ms:1000}") long checkIntervalMs) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("replica");
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setMaximumPoolSize(poolSize);
+        pool.setReadOnly(true);
+        DataSource dataSource = maxConcurrent > 0
+                ? new ConnectionLimitingDataSource(pool, maxConcurrent, acquireTimeout)
+                : pool;
+        ReplicaPool replica = new ReplicaPool(pool, dataSource, lagQuery.isBlank() ? DEFAULT_LAG_QUERY : lagQuery,
+                maxLag, Duration.ofMillis(checkIntervalMs));
+        // Primera medida al arrancar: sin ella todo iría al primario hasta la primera comprobación
+        replica.checkLag();
+        return replica;
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(
+            @Value("${kanbee.datasource.replica.client-header:X-Kanbee-Client}") String clientHeader,
+            @Value("${kanbee.datasource.replica.sticky-window:2s}") Duration stickyWindow,
+            @Value("${kanbee.datasource.replica.sticky-max-clients:100000}") long maxClients) {
+        return new ReadYourWritesFilter(clientHeader, stickyWindow, maxClients);
+    }
+
+    // Respuestas en streaming y SSE: la tarea asíncrona hereda si la petición debía leer del primario
+    @Bean
+    TaskDecorator readYourWritesTaskDecorator() {
+        return ReadYourWritesFilter::propagate;
+    }
+
+    // Retraso medido (ms, -1 sin medida) y si las lecturas van a la réplica (1) o al primario (0)
+    @Bean
+    MeterBinder replicaMetrics(ReplicaPool replica) {
+        return registry -> {
+            Gauge.builder("kanbee.datasource.replica.lag", replica, ReplicaPool::getLagMillis).register(registry);
+            Gauge.builder("kanbee.datasource.replica.in-use", replica, r -> r.isWithinTolerance() ? 1 : 0)
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.aruidev.kanbeeapi.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Elige el pool al pedir la conexión física: transacciones readOnly a la réplica, el resto al primario.
+// Va detrás de un LazyConnectionDataSourceProxy: la conexión se pide en la primera sentencia, cuando la
+// transacción ya está marcada como readOnly (al empezar aún no lo está).
+// Vuelven al primario: lecturas fuera de transacción, clientes con una escritura reciente
+// (ReadYourWritesFilter) y réplica con demasiado retraso o sin medir.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final ReplicaPool replica;
+
+    // Solo guarda los pools: los destinos se fijan en afterPropertiesSet, que llama quien lo construye
+    // (ReplicaRoutingConfig), no el constructor
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaPool replica) {
+        this.primary = primary;
+        this.replica = replica;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica.getDataSource()));
+        setDefaultTargetDataSource(primary);
+        super.afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return useReplica() ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    private boolean useReplica() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWritesFilter.isPrimaryRequired()
+                && replica.isWithinTolerance();
+    }
+}
@@ -1,16 +1,35 @@
 package com.aruidev.kanbeeapi.controller;
 
+import com.aruidev.kanbeeapi.dto.BoardCloneDTO;
 import com.aruidev.kanbeeapi.dto.BoardCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardDeltaDTO;
+import com.aruidev.kanbeeapi.dto.BoardImportResultDTO;
+import com.aruidev.kanbeeapi.dto.BoardOperationDTO;
+import com.aruidev.kanbeeapi.dto.BoardOperationResultDTO;
 import com.aruidev.kanbeeapi.dto.BoardResponseDTO;
 import com.aruidev.kanbeeapi.dto.TitleUpdateDTO;
+import com.aruidev.kanbeeapi.service.BoardChangesService;
+import com.aruidev.kanbeeapi.service.BoardJsonStreamer;
+import com.aruidev.kanbeeapi.service.BoardOperationService;
 import com.aruidev.kanbeeapi.service.BoardService;
+import com.aruidev.kanbeeapi.service.BoardSnapshot;
+import com.aruidev.kanbeeapi.service.BoardTransferService;
+import com.aruidev.kanbeeapi.service.concurrency.BoardMutationSequencer;
+import com.aruidev.kanbeeapi.service.events.BoardEventHub;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.util.List;
 import java.util.UUID;
 
 // Swagger/OpenAPI
@@ -28,9 +47,27 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class BoardController {
 
     private final BoardService boardService;
+    private final BoardJsonStreamer boardJsonStreamer;
+    private final BoardOperationService boardOperationService;
+    private final BoardEventHub boardEventHub;
+    private final BoardChangesService boardChangesService;
+    private final BoardMutationSequencer sequencer;
+    private final BoardTransferService boardTransferService;
 
-    public BoardController(BoardService boardService) {
+    public BoardController(BoardService boardService,
+                           BoardJsonStreamer boardJsonStreamer,
+                           BoardOperationService boardOperationService,
+                           BoardEventHub boardEventHub,
+                           BoardChangesService boardChangesService,
+                           BoardMutationSequencer sequencer,
+                           BoardTransferService boardTransferService) {
         this.boardService = boardService;
+        this.boardJsonStreamer = boardJsonStreamer;
+        this.boardOperationService = boardOperationService;
+        this.boardEventHub = boardEventHub;
+        this.boardChangesService = boardChangesService;
+        this.sequencer = sequencer;
+        this.boardTransferService = boardTransferService;
     }
 
     @Operation(summary = "Crear un tablero", description = "Crea un nuevo tablero y devuelve 201 con Location")
@@ -49,17 +86,136 @@ public class BoardController {
         return ResponseEntity.created(location).body(created);
     }
 
-    @Operation(summary = "Obtener un tablero", description = "Devuelve un tablero por id; soporta expand=lists,cards")
+    @Operation(summary = "Obtener un tablero",
+            description = "Devuelve un tablero por id; soporta expand=lists,cards. Responde con ETag y 304 si If-None-Match coincide")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK",
                     content = @Content(schema = @Schema(implementation = BoardResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado", content = @Content),
             @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content)
     })
     @GetMapping("/boards/{id}")
     public ResponseEntity<BoardResponseDTO> get(@PathVariable UUID id,
-                                                @RequestParam(name = "expand", required = false) String expand) {
+                                                @RequestParam(name = "expand", required = false) String expand,
+                                                WebRequest request) {
         boolean includeChildren = expand != null && (expand.contains("lists") || expand.contains("cards"));
-        return ResponseEntity.ok(boardService.get(id, includeChildren));
+        // Comprobación barata: solo la versión del board
+        long revision = boardService.getRevision(id);
+        if (request.checkNotModified(boardEtag(revision, includeChildren))) {
+            return null;
+        }
+        BoardSnapshot snapshot = boardService.getSnapshot(id, includeChildren, revision);
+        return ResponseEntity.ok()
+                .eTag(boardEtag(snapshot.revision(), includeChildren))
+                .body(snapshot.board());
+    }
+
+    @Operation(summary = "Obtener un tablero expandido en streaming",
+            description = "Mismo JSON que expand=cards, escrito desde un cursor de BD (boards muy grandes)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = BoardResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content)
+    })
+    @GetMapping(value = "/boards/{id}", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> stream(@PathVariable UUID id, WebRequest request) {
+        // La versión se lee antes del cursor: el contenido nunca es más viejo que su ETag
+        String etag = boardEtag(boardService.getRevision(id), true);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> boardJsonStreamer.writeExpanded(id, out));
+    }
+
+    @Operation(summary = "Suscribirse a los cambios de un tablero (SSE)",
+            description = "Primer evento 'ready' con la versión actual; después un evento compacto por cambio confirmado " +
+                    "(card.upserted, card.deleted, list.upserted, list.deleted, cards.reordered, lists.reordered, " +
+                    "board.updated, board.deleted) con id = versión del board")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Flujo text/event-stream", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content)
+    })
+    @GetMapping(value = "/boards/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable UUID id) {
+        return boardEventHub.subscribe(id, () -> boardService.getRevision(id));
+    }
+
+    @Operation(summary = "Cambios de un tablero desde una versión",
+            description = "Devuelve solo las listas y tarjetas creadas/modificadas y los ids borrados desde 'since'. " +
+                    "Si el log ya no cubre esa versión responde full=true con el tablero expandido completo")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = BoardDeltaDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content)
+    })
+    @GetMapping("/boards/{id}/changes")
+    public ResponseEntity<BoardDeltaDTO> changes(@PathVariable UUID id, @RequestParam("since") long since) {
+        return ResponseEntity.ok(boardChangesService.changesSince(id, since));
+    }
+
+    // ETag fuerte: versión del board + variante (con o sin listas/tarjetas)
+    private static String boardEtag(long revision, boolean includeChildren) {
+        return "\"" + revision + (includeChildren ? "-full" : "") + "\"";
+    }
+
+    @Operation(summary = "Clonar un tablero",
+            description = "Copia el tablero con sus listas y tarjetas (mismas posiciones) en un número fijo de sentencias. " +
+                    "El título es opcional; por defecto el del original. Devuelve 201 con Location")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Tablero clonado",
+                    content = @Content(schema = @Schema(implementation = BoardResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content)
+    })
+    @PostMapping("/boards/{id}/clone")
+    public ResponseEntity<BoardResponseDTO> clone(@PathVariable UUID id,
+                                                  @Valid @RequestBody(required = false) BoardCloneDTO dto) {
+        BoardResponseDTO created = boardService.clone(id, dto != null ? dto.getTitle() : null);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/boards/{id}")
+                .buildAndExpand(created.getId())
+                .toUri();
+        return ResponseEntity.created(location).body(created);
+    }
+
+    @Operation(summary = "Exportar un tablero (NDJSON)",
+            description = "Una línea JSON por objeto: el tablero, y cada lista seguida de sus tarjetas en orden de posición. " +
+                    "Se escribe desde un cursor de BD, sin cargar el tablero entero")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Flujo application/x-ndjson", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content)
+    })
+    @GetMapping(value = "/boards/{id}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable UUID id) {
+        // 404 antes de empezar a escribir el cuerpo
+        boardService.getRevision(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"board-" + id + ".ndjson\"")
+                .body(out -> boardTransferService.export(id, out));
+    }
+
+    @Operation(summary = "Importar un tablero (NDJSON)",
+            description = "Crea un tablero nuevo a partir de una exportación, leyendo e insertando por lotes. " +
+                    "Las posiciones se recalculan por orden de aparición. Devuelve 201 con Location")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Tablero importado",
+                    content = @Content(schema = @Schema(implementation = BoardImportResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content)
+    })
+    @PostMapping(value = "/boards/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BoardImportResultDTO> importBoard(InputStream body) {
+        BoardImportResultDTO imported = boardTransferService.importBoard(body);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/boards/{id}")
+                .buildAndExpand(imported.getBoard().getId())
+                .toUri();
+        return ResponseEntity.created(location).body(imported);
     }
 
     @Operation(summary = "Actualizar título del tablero", description = "PATCH parcial del título del tablero")
@@ -72,7 +228,21 @@ public class BoardController {
     @PatchMapping(value = "/boards/{id}", consumes = "application/json")
     public ResponseEntity<BoardResponseDTO> update(@PathVariable UUID id,
                                                    @Valid @RequestBody TitleUpdateDTO dto) {
-        return ResponseEntity.ok(boardService.updateTitle(id, dto.getTitle()));
+        return ResponseEntity.ok(sequencer.call(id, () -> boardService.updateTitle(id, dto.getTitle())));
+    }
+
+    @Operation(summary = "Aplicar operaciones en lote",
+            description = "Aplica en orden y de forma atómica operaciones card.* / list.* (create, update, move, delete) " +
+                    "sobre el tablero y devuelve un resultado por operación")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Todas las operaciones aplicadas"),
+            @ApiResponse(responseCode = "400", description = "Operación inválida (no se aplica ninguna)", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Tablero, lista o tarjeta no encontrados", content = @Content)
+    })
+    @PostMapping(value = "/boards/{boardId}/operations", consumes = "application/json")
+    public ResponseEntity<List<BoardOperationResultDTO>> applyOperations(@PathVariable UUID boardId,
+                                                                         @RequestBody List<BoardOperationDTO> operations) {
+        return ResponseEntity.ok(sequencer.call(boardId, () -> boardOperationService.apply(boardId, operations)));
     }
 
     @Operation(summary = "Eliminar tablero", description = "Elimina un tablero por id")
@@ -82,7 +252,7 @@ public class BoardController {
     })
     @DeleteMapping("/boards/{id}")
     public ResponseEntity<Void> delete(@PathVariable UUID id) {
-        boardService.delete(id);
+        sequencer.run(id, () -> boardService.delete(id));
         return ResponseEntity.noContent().build();
     }
 }
@@ -2,6 +2,8 @@ package com.aruidev.kanbeeapi.controller;
 
 import com.aruidev.kanbeeapi.dto.*;
 import com.aruidev.kanbeeapi.service.BoardListService;
+import com.aruidev.kanbeeapi.service.concurrency.BoardMutationSequencer;
+import com.aruidev.kanbeeapi.service.concurrency.ConflictRetrier;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -9,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
 import java.util.UUID;
 
 // Swagger/OpenAPI
@@ -26,9 +29,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class BoardListController {
 
     private final BoardListService boardListService;
+    private final ConflictRetrier conflictRetrier;
+    private final BoardMutationSequencer sequencer;
 
-    public BoardListController(BoardListService boardListService) {
+    public BoardListController(BoardListService boardListService,
+                               ConflictRetrier conflictRetrier,
+                               BoardMutationSequencer sequencer) {
         this.boardListService = boardListService;
+        this.conflictRetrier = conflictRetrier;
+        this.sequencer = sequencer;
     }
 
     @Operation(summary = "Crear una lista", description = "Crea una lista en un tablero y devuelve 201 con Location")
@@ -41,7 +50,7 @@ public class BoardListController {
     @PostMapping(value = "/boards/{boardId}/lists", consumes = "application/json")
     public ResponseEntity<BoardListResponseDTO> create(@PathVariable UUID boardId,
                                                        @Valid @RequestBody BoardListCreateDTO dto) {
-        BoardListResponseDTO created = boardListService.create(boardId, dto);
+        BoardListResponseDTO created = sequencer.call(boardId, () -> boardListService.create(boardId, dto));
         URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
                 .path("/api/v1/lists/{id}")
                 .buildAndExpand(created.getId())
@@ -67,12 +76,15 @@ public class BoardListController {
             @ApiResponse(responseCode = "200", description = "Actualizado",
                     content = @Content(schema = @Schema(implementation = BoardListResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content),
-            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content)
+            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Conflicto con un cambio concurrente (devuelve el estado actual)", content = @Content)
     })
     @PatchMapping(value = "/lists/{id}", consumes = "application/json")
     public ResponseEntity<BoardListResponseDTO> update(@PathVariable Long id,
                                                        @Valid @RequestBody TitleUpdateDTO dto) {
-        return ResponseEntity.ok(boardListService.updateTitle(id, dto.getTitle()));
+        return ResponseEntity.ok(conflictRetrier.call("list.update",
+                () -> sequencer.callForList(id, () -> boardListService.updateTitle(id, dto.getTitle())),
+                () -> boardListService.get(id, false)));
     }
 
     @Operation(summary = "Mover una lista", description = "Cambia la posición de una lista dentro de un tablero")
@@ -80,22 +92,40 @@ public class BoardListController {
             @ApiResponse(responseCode = "200", description = "Movida",
                     content = @Content(schema = @Schema(implementation = BoardListResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content),
-            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content)
+            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Conflicto con un cambio concurrente (devuelve el estado actual)", content = @Content)
     })
     @PatchMapping(value = "/lists/{id}/move", consumes = "application/json")
     public ResponseEntity<BoardListResponseDTO> move(@PathVariable Long id,
                                                      @Valid @RequestBody BoardListMoveDTO moveDto) {
-        return ResponseEntity.ok(boardListService.move(id, moveDto));
+        return ResponseEntity.ok(conflictRetrier.call("list.move",
+                () -> sequencer.callForList(id, () -> boardListService.move(id, moveDto)),
+                () -> boardListService.get(id, false)));
+    }
+
+    @Operation(summary = "Reordenar las listas de un tablero",
+            description = "Recibe el orden completo de ids de las listas y lo aplica con un único UPDATE")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Reordenado"),
+            @ApiResponse(responseCode = "400", description = "Los ids no coinciden con las listas del tablero", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content)
+    })
+    @PutMapping(value = "/boards/{boardId}/lists/order", consumes = "application/json")
+    public ResponseEntity<List<BoardListResponseDTO>> reorder(@PathVariable UUID boardId,
+                                                              @Valid @RequestBody OrderUpdateDTO dto) {
+        return ResponseEntity.ok(sequencer.call(boardId, () -> boardListService.reorder(boardId, dto)));
     }
 
     @Operation(summary = "Eliminar lista", description = "Elimina una lista por id")
     @ApiResponses({
             @ApiResponse(responseCode = "204", description = "Eliminada", content = @Content),
-            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content)
+            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Conflicto con un cambio concurrente (devuelve el estado actual)", content = @Content)
     })
     @DeleteMapping("/lists/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        boardListService.delete(id);
+        conflictRetrier.run("list.delete",
+                () -> sequencer.runForList(id, () -> boardListService.delete(id)), () -> boardListService.get(id, false));
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,7 +1,11 @@
 package com.aruidev.kanbeeapi.controller;
 
 import com.aruidev.kanbeeapi.dto.*;
+import com.aruidev.kanbeeapi.service.CardSearchService;
 import com.aruidev.kanbeeapi.service.CardService;
+import com.aruidev.kanbeeapi.service.concurrency.BoardMutationSequencer;
+import com.aruidev.kanbeeapi.service.concurrency.CardEditCoalescer;
+import com.aruidev.kanbeeapi.service.concurrency.ConflictRetrier;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -9,6 +13,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
+import java.util.UUID;
 
 // Swagger/OpenAPI
 import io.swagger.v3.oas.annotations.Operation;
@@ -25,9 +31,21 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class CardController {
 
     private final CardService cardService;
+    private final ConflictRetrier conflictRetrier;
+    private final BoardMutationSequencer sequencer;
+    private final CardEditCoalescer editCoalescer;
+    private final CardSearchService cardSearchService;
 
-    public CardController(CardService cardService) {
+    public CardController(CardService cardService,
+                          ConflictRetrier conflictRetrier,
+                          BoardMutationSequencer sequencer,
+                          CardEditCoalescer editCoalescer,
+                          CardSearchService cardSearchService) {
         this.cardService = cardService;
+        this.conflictRetrier = conflictRetrier;
+        this.sequencer = sequencer;
+        this.editCoalescer = editCoalescer;
+        this.cardSearchService = cardSearchService;
     }
 
     @Operation(summary = "Crear una tarjeta", description = "Crea una tarjeta en una lista y devuelve 201 con Location")
@@ -40,7 +58,7 @@ public class CardController {
     @PostMapping(value = "/lists/{listId}/cards", consumes = "application/json")
     public ResponseEntity<CardResponseDTO> create(@PathVariable Long listId,
                                                   @Valid @RequestBody CardCreateDTO dto) {
-        CardResponseDTO created = cardService.create(listId, dto);
+        CardResponseDTO created = sequencer.callForList(listId, () -> cardService.create(listId, dto));
         URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
                 .path("/api/v1/cards/{id}")
                 .buildAndExpand(created.getId())
@@ -56,20 +74,77 @@ public class CardController {
     })
     @GetMapping("/cards/{id}")
     public ResponseEntity<CardResponseDTO> get(@PathVariable Long id) {
-        return ResponseEntity.ok(cardService.get(id));
+        return ResponseEntity.ok(editCoalescer.overlay(cardService.get(id)));
     }
 
-    @Operation(summary = "Actualizar una tarjeta (parcial)", description = "PATCH de campos opcionales como title/description")
+    @Operation(summary = "Listar tarjetas de una lista por páginas",
+            description = "Paginación por keyset: devuelve hasta 'limit' tarjetas en orden y nextCursor para pedir la " +
+                    "siguiente ventana con after=<nextCursor> (null en la última página)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = CardPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor o límite inválidos", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Lista no encontrada", content = @Content)
+    })
+    @GetMapping("/lists/{listId}/cards")
+    public ResponseEntity<CardPageDTO> page(@PathVariable Long listId,
+                                            @RequestParam(name = "after", required = false) String after,
+                                            @RequestParam(name = "limit", defaultValue = "50") int limit) {
+        CardPageDTO page = cardService.page(listId, after, limit);
+        page.getCards().forEach(editCoalescer::overlay);
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "Buscar tarjetas de un tablero",
+            description = "Busca q en títulos y descripciones de las tarjetas del tablero, de más a menos relevante. " +
+                    "Paginado con offset/limit; nextOffset es null en la última página")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = CardSearchPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Consulta, offset o límite inválidos", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Tablero no encontrado", content = @Content)
+    })
+    @GetMapping("/boards/{boardId}/cards/search")
+    public ResponseEntity<CardSearchPageDTO> search(@PathVariable UUID boardId,
+                                                    @RequestParam("q") String q,
+                                                    @RequestParam(name = "offset", defaultValue = "0") int offset,
+                                                    @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(cardSearchService.search(boardId, q, offset, limit));
+    }
+
+    @Operation(summary = "Autocompletar tarjetas de un tablero",
+            description = "Tarjetas cuyo texto tiene, para cada palabra de q, una palabra que empieza por ella " +
+                    "(sin distinguir mayúsculas ni tildes); primero las que coinciden por título. Con " +
+                    "kanbee.typeahead.enabled se sirve desde un índice en memoria por tablero")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Consulta o límite inválidos", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Tablero no encontrado", content = @Content)
+    })
+    @GetMapping("/boards/{boardId}/cards/typeahead")
+    public ResponseEntity<List<CardSearchHitDTO>> typeahead(@PathVariable UUID boardId,
+                                                            @RequestParam("q") String q,
+                                                            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(cardSearchService.typeahead(boardId, q, limit));
+    }
+
+    @Operation(summary = "Actualizar una tarjeta (parcial)", description = "PATCH de campos opcionales como title/description. " +
+            "Con kanbee.coalescing.enabled las ediciones seguidas se agrupan y se guarda solo la última de cada ventana")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Actualizado",
                     content = @Content(schema = @Schema(implementation = CardResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content),
-            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content)
+            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Conflicto con un cambio concurrente (devuelve el estado actual)", content = @Content)
     })
     @PatchMapping(value = "/cards/{id}", consumes = "application/json")
     public ResponseEntity<CardResponseDTO> update(@PathVariable Long id,
                                                   @Valid @RequestBody CardUpdateDTO dto) {
-        return ResponseEntity.ok(cardService.update(id, dto));
+        if (editCoalescer.isEnabled()) {
+            return ResponseEntity.ok(editCoalescer.buffer(id, dto));
+        }
+        return ResponseEntity.ok(conflictRetrier.call("card.update",
+                () -> sequencer.callForCard(id, () -> cardService.update(id, dto)), () -> editCoalescer.overlay(cardService.get(id))));
     }
 
     @Operation(summary = "Mover una tarjeta", description = "Cambia lista y/o posición de una tarjeta")
@@ -77,22 +152,40 @@ public class CardController {
             @ApiResponse(responseCode = "200", description = "Movida",
                     content = @Content(schema = @Schema(implementation = CardResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content),
-            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content)
+            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Conflicto con un cambio concurrente (devuelve el estado actual)", content = @Content)
     })
     @PatchMapping(value = "/cards/{id}/move", consumes = "application/json")
     public ResponseEntity<CardResponseDTO> move(@PathVariable Long id,
                                                 @Valid @RequestBody CardMoveDTO moveDto) {
-        return ResponseEntity.ok(cardService.move(id, moveDto));
+        return ResponseEntity.ok(conflictRetrier.call("card.move",
+                () -> sequencer.callForCard(id, () -> cardService.move(id, moveDto)), () -> cardService.get(id)));
+    }
+
+    @Operation(summary = "Reordenar las tarjetas de una lista",
+            description = "Recibe el orden completo de ids de la lista y lo aplica con un único UPDATE")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Reordenada",
+                    content = @Content(schema = @Schema(implementation = BoardListResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Los ids no coinciden con las tarjetas de la lista", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content)
+    })
+    @PutMapping(value = "/lists/{listId}/cards/order", consumes = "application/json")
+    public ResponseEntity<BoardListResponseDTO> reorder(@PathVariable Long listId,
+                                                        @Valid @RequestBody OrderUpdateDTO dto) {
+        return ResponseEntity.ok(sequencer.callForList(listId, () -> cardService.reorder(listId, dto)));
     }
 
     @Operation(summary = "Eliminar tarjeta", description = "Elimina una tarjeta por id")
     @ApiResponses({
             @ApiResponse(responseCode = "204", description = "Eliminada", content = @Content),
-            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content)
+            @ApiResponse(responseCode = "404", description = "No encontrado", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Conflicto con un cambio concurrente (devuelve el estado actual)", content = @Content)
     })
     @DeleteMapping("/cards/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        cardService.delete(id);
+        conflictRetrier.run("card.delete",
+                () -> sequencer.runForCard(id, () -> cardService.delete(id)), () -> cardService.get(id));
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,21 @@
+package com.aruidev.kanbeeapi.dto;
+
+import jakarta.validation.constraints.Size;
+
+public class BoardCloneDTO {
+
+    // Opcional: sin título se copia el del board origen
+    @Size(max = 255, message = "Title must be less than 255 characters")
+    private String title;
+
+    // Constructor vacío
+    public BoardCloneDTO() {}
+
+    public BoardCloneDTO(String title) {
+        this.title = title;
+    }
+
+    // Getters y setters
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+}
@@ -0,0 +1,58 @@
+package com.aruidev.kanbeeapi.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Respuesta de GET /boards/{id}/changes?since=N.
+// full = true: el log no cubre desde N y board trae el snapshot completo (listas y tarjetas).
+// full = false: solo lo cambiado entre N y revision. position es el índice final dentro de su lista (o del board);
+// las tarjetas y listas no incluidas conservan su orden relativo y ocupan los huecos restantes.
+public class BoardDeltaDTO {
+
+    private UUID boardId;
+    private long since;
+    private long revision;
+    private boolean full;
+    private BoardResponseDTO board; // snapshot completo, o solo la cabecera si cambió el título
+    private List<BoardListResponseDTO> lists = new ArrayList<>();
+    private List<CardDeltaDTO> cards = new ArrayList<>();
+    private List<Long> deletedListIds = new ArrayList<>();
+    private List<Long> deletedCardIds = new ArrayList<>();
+
+    public BoardDeltaDTO() {}
+
+    public BoardDeltaDTO(UUID boardId, long since, long revision, boolean full) {
+        this.boardId = boardId;
+        this.since = since;
+        this.revision = revision;
+        this.full = full;
+    }
+
+    public UUID getBoardId() { return boardId; }
+    public void setBoardId(UUID boardId) { this.boardId = boardId; }
+
+    public long getSince() { return since; }
+    public void setSince(long since) { this.since = since; }
+
+    public long getRevision() { return revision; }
+    public void setRevision(long revision) { this.revision = revision; }
+
+    public boolean isFull() { return full; }
+    public void setFull(boolean full) { this.full = full; }
+
+    public BoardResponseDTO getBoard() { return board; }
+    public void setBoard(BoardResponseDTO board) { this.board = board; }
+
+    public List<BoardListResponseDTO> getLists() { return lists; }
+    public void setLists(List<BoardListResponseDTO> lists) { this.lists = lists; }
+
+    public List<CardDeltaDTO> getCards() { return cards; }
+    public void setCards(List<CardDeltaDTO> cards) { this.cards = cards; }
+
+    public List<Long> getDeletedListIds() { return deletedListIds; }
+    public void setDeletedListIds(List<Long> deletedListIds) { this.deletedListIds = deletedListIds; }
+
+    public List<Long> getDeletedCardIds() { return deletedCardIds; }
+    public void setDeletedCardIds(List<Long> deletedCardIds) { this.deletedCardIds = deletedCardIds; }
+}
@@ -0,0 +1,27 @@
+package com.aruidev.kanbeeapi.dto;
+
+public class BoardImportResultDTO {
+
+    private BoardResponseDTO board;
+    private int lists;
+    private int cards;
+
+    // Constructor vacío
+    public BoardImportResultDTO() {}
+
+    public BoardImportResultDTO(BoardResponseDTO board, int lists, int cards) {
+        this.board = board;
+        this.lists = lists;
+        this.cards = cards;
+    }
+
+    // Getters y setters
+    public BoardResponseDTO getBoard() { return board; }
+    public void setBoard(BoardResponseDTO board) { this.board = board; }
+
+    public int getLists() { return lists; }
+    public void setLists(int lists) { this.lists = lists; }
+
+    public int getCards() { return cards; }
+    public void setCards(int cards) { this.cards = cards; }
+}
@@ -0,0 +1,47 @@
+package com.aruidev.kanbeeapi.dto;
+
+// Una operación dentro de POST /boards/{boardId}/operations.
+// op: card.create | card.update | card.move | card.delete | list.create | list.update | list.move | list.delete
+public class BoardOperationDTO {
+
+    private String op;
+
+    // Tarjeta o lista afectada (update, move, delete)
+    private Long id;
+
+    // Lista destino (card.create, card.move)
+    private Long listId;
+
+    private String title;
+    private String description;
+    private Integer position;
+
+    public BoardOperationDTO() {}
+
+    public BoardOperationDTO(String op, Long id, Long listId, String title, String description, Integer position) {
+        this.op = op;
+        this.id = id;
+        this.listId = listId;
+        this.title = title;
+        this.description = description;
+        this.position = position;
+    }
+
+    public String getOp() { return op; }
+    public void setOp(String op) { this.op = op; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getListId() { return listId; }
+    public void setListId(Long listId) { this.listId = listId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Integer getPosition() { return position; }
+    public void setPosition(Integer position) { this.position = position; }
+}
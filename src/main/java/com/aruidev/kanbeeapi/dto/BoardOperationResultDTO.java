@@ -0,0 +1,33 @@
+package com.aruidev.kanbeeapi.dto;
+
+public class BoardOperationResultDTO {
+
+    private int index;
+    private String op;
+    private String status; // created | updated | moved | deleted
+    private CardResponseDTO card;
+    private BoardListResponseDTO list;
+
+    public BoardOperationResultDTO() {}
+
+    public BoardOperationResultDTO(int index, String op, String status) {
+        this.index = index;
+        this.op = op;
+        this.status = status;
+    }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public String getOp() { return op; }
+    public void setOp(String op) { this.op = op; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public CardResponseDTO getCard() { return card; }
+    public void setCard(CardResponseDTO card) { this.card = card; }
+
+    public BoardListResponseDTO getList() { return list; }
+    public void setList(BoardListResponseDTO list) { this.list = list; }
+}
@@ -0,0 +1,20 @@
+package com.aruidev.kanbeeapi.dto;
+
+import java.time.LocalDateTime;
+
+// Tarjeta creada/modificada en un delta de cambios: incluye la lista en la que está ahora
+public class CardDeltaDTO extends CardResponseDTO {
+
+    private Long listId;
+
+    public CardDeltaDTO() {}
+
+    public CardDeltaDTO(Long listId, Long id, String title, String description, Integer position,
+                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+        super(id, title, description, position, createdAt, updatedAt);
+        this.listId = listId;
+    }
+
+    public Long getListId() { return listId; }
+    public void setListId(Long listId) { this.listId = listId; }
+}
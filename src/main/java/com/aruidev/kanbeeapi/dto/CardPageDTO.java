@@ -0,0 +1,29 @@
+package com.aruidev.kanbeeapi.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Página de tarjetas de una lista; nextCursor es null en la última página
+public class CardPageDTO {
+
+    private Long listId;
+    private List<CardResponseDTO> cards = new ArrayList<>();
+    private String nextCursor;
+
+    public CardPageDTO() {}
+
+    public CardPageDTO(Long listId, List<CardResponseDTO> cards, String nextCursor) {
+        this.listId = listId;
+        this.cards = cards;
+        this.nextCursor = nextCursor;
+    }
+
+    public Long getListId() { return listId; }
+    public void setListId(Long listId) { this.listId = listId; }
+
+    public List<CardResponseDTO> getCards() { return cards; }
+    public void setCards(List<CardResponseDTO> cards) { this.cards = cards; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,36 @@
+package com.aruidev.kanbeeapi.dto;
+
+// Tarjeta encontrada; score solo sirve para comparar resultados de una misma búsqueda
+public class CardSearchHitDTO {
+
+    private Long id;
+    private Long listId;
+    private String title;
+    private String description;
+    private double score;
+
+    public CardSearchHitDTO() {}
+
+    public CardSearchHitDTO(Long id, Long listId, String title, String description, double score) {
+        this.id = id;
+        this.listId = listId;
+        this.title = title;
+        this.description = description;
+        this.score = score;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getListId() { return listId; }
+    public void setListId(Long listId) { this.listId = listId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+}
@@ -0,0 +1,35 @@
+package com.aruidev.kanbeeapi.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Página de resultados de búsqueda, de más a menos relevante; nextOffset es null en la última página
+public class CardSearchPageDTO {
+
+    private UUID boardId;
+    private String query;
+    private List<CardSearchHitDTO> results = new ArrayList<>();
+    private Integer nextOffset;
+
+    public CardSearchPageDTO() {}
+
+    public CardSearchPageDTO(UUID boardId, String query, List<CardSearchHitDTO> results, Integer nextOffset) {
+        this.boardId = boardId;
+        this.query = query;
+        this.results = results;
+        this.nextOffset = nextOffset;
+    }
+
+    public UUID getBoardId() { return boardId; }
+    public void setBoardId(UUID boardId) { this.boardId = boardId; }
+
+    public String getQuery() { return query; }
+    public void setQuery(String query) { this.query = query; }
+
+    public List<CardSearchHitDTO> getResults() { return results; }
+    public void setResults(List<CardSearchHitDTO> results) { this.results = results; }
+
+    public Integer getNextOffset() { return nextOffset; }
+    public void setNextOffset(Integer nextOffset) { this.nextOffset = nextOffset; }
+}
@@ -0,0 +1,20 @@
+package com.aruidev.kanbeeapi.dto;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+// Orden completo deseado: todos los ids del contenedor, cada uno una vez
+public class OrderUpdateDTO {
+
+    @NotNull(message = "Ids cannot be null")
+    private List<Long> ids;
+
+    public OrderUpdateDTO() {}
+
+    public OrderUpdateDTO(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+}
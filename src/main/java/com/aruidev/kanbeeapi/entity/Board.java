@@ -1,6 +1,7 @@
 package com.aruidev.kanbeeapi.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -29,6 +30,22 @@ public class Board {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Versión del contenido (board + listas + tarjetas); solo la incrementa BoardRepository.incrementRevision
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private Long revision = 0L;
+
+    // Bloqueo optimista (título); la revisión de contenido va aparte y no participa
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Versión hasta la que se ha podado el log de cambios: GET /changes?since=N es completo si N >= este valor
+    @ColumnDefault("0")
+    @Column(name = "change_log_floor", nullable = false, updatable = false)
+    private Long changeLogFloor = 0L;
+
     @JsonIgnore
     @OneToMany(mappedBy = "board", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @OrderBy("position ASC")
@@ -42,6 +59,8 @@ public class Board {
     public void setTitle(String title) { this.title = title; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public Long getRevision() { return revision; }
+    public Long getVersion() { return version; }
     public Set<BoardList> getBoardLists() { return boardLists; }
 
     public void addBoardList(BoardList list) {
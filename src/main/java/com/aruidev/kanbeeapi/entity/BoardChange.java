@@ -0,0 +1,53 @@
+package com.aruidev.kanbeeapi.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Entrada del log de cambios de un board (GET /boards/{id}/changes?since=).
+// Compacta: qué entidad y qué tipo de cambio (BoardEventType.code), sin copiar el contenido.
+@Entity
+@Table(name = "board_changes", indexes = {
+        @Index(name = "idx_board_changes_board_revision", columnList = "board_id, revision"),
+        @Index(name = "idx_board_changes_created_at", columnList = "created_at")
+})
+public class BoardChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "board_id", nullable = false)
+    private UUID boardId;
+
+    @Column(nullable = false)
+    private long revision;
+
+    @Column(nullable = false)
+    private short kind;
+
+    // Tarjeta o lista afectada (null en cambios del board o del orden de todas sus listas)
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public BoardChange() {}
+    public BoardChange(UUID boardId, long revision, short kind, Long entityId) {
+        this.boardId = boardId;
+        this.revision = revision;
+        this.kind = kind;
+        this.entityId = entityId;
+    }
+
+    public Long getId() { return id; }
+    public UUID getBoardId() { return boardId; }
+    public long getRevision() { return revision; }
+    public short getKind() { return kind; }
+    public Long getEntityId() { return entityId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -1,6 +1,7 @@
 package com.aruidev.kanbeeapi.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -18,8 +19,10 @@ import java.util.List;
 )
 public class BoardList {
 
+    // Secuencia con optimizador pooled (migración 006): un nextval cada 50 ids y los INSERT van en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "board_lists_seq")
+    @SequenceGenerator(name = "board_lists_seq", sequenceName = "board_lists_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -28,6 +31,16 @@ public class BoardList {
     @Column(nullable = false)
     private Integer position = 0;
 
+    // Clave de orden lexicográfica (modo rank); null en modo position
+    @Column(name = "rank_key", length = 128)
+    private String rankKey;
+
+    // Bloqueo optimista: los UPDATE masivos de posiciones también lo incrementan
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -57,6 +70,9 @@ public class BoardList {
     public void setTitle(String title) { this.title = title; }
     public Integer getPosition() { return position; }
     public void setPosition(Integer position) { this.position = position; }
+    public String getRankKey() { return rankKey; }
+    public void setRankKey(String rankKey) { this.rankKey = rankKey; }
+    public Long getVersion() { return version; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public Board getBoard() { return board; }
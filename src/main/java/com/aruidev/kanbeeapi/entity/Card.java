@@ -1,6 +1,7 @@
 package com.aruidev.kanbeeapi.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -11,8 +12,10 @@ import java.time.LocalDateTime;
 @Table(name = "cards")
 public class Card {
 
+    // Secuencia con optimizador pooled (migración 006): un nextval cada 50 ids y los INSERT van en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cards_seq")
+    @SequenceGenerator(name = "cards_seq", sequenceName = "cards_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -24,6 +27,16 @@ public class Card {
     @Column(nullable = false)
     private Integer position = 0;
 
+    // Clave de orden lexicográfica (modo rank); null en modo position
+    @Column(name = "rank_key", length = 128)
+    private String rankKey;
+
+    // Bloqueo optimista: los UPDATE masivos de posiciones también lo incrementan
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -50,6 +63,9 @@ public class Card {
     public void setDescription(String description) { this.description = description; }
     public Integer getPosition() { return position; }
     public void setPosition(Integer position) { this.position = position; }
+    public String getRankKey() { return rankKey; }
+    public void setRankKey(String rankKey) { this.rankKey = rankKey; }
+    public Long getVersion() { return version; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public BoardList getBoardList() { return boardList; }
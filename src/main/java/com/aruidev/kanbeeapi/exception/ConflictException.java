@@ -0,0 +1,16 @@
+package com.aruidev.kanbeeapi.exception;
+
+// Cambio concurrente que no se ha podido resolver; current = estado actual del recurso (puede ser null)
+public class ConflictException extends RuntimeException {
+
+    private final transient Object current;
+
+    public ConflictException(String message, Object current) {
+        super(message);
+        this.current = current;
+    }
+
+    public Object getCurrent() {
+        return current;
+    }
+}
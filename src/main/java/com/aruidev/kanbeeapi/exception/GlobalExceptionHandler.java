@@ -1,20 +1,30 @@
 package com.aruidev.kanbeeapi.exception;
 
+import com.aruidev.kanbeeapi.service.concurrency.ConflictRetrier;
 import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.sql.SQLException;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<Object> handleNotFound(NotFoundException ex, HttpServletRequest request) {
         return build(HttpStatus.NOT_FOUND, ex.getMessage(), null, request.getRequestURI());
@@ -34,6 +44,60 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.BAD_REQUEST, "Validation failed", errors, request.getRequestURI());
     }
 
+    // Sin conexión disponible (límite de conexiones o pool agotado): reintentable
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Object> handleNoConnection(CannotCreateTransactionException ex, HttpServletRequest request) {
+        return build(HttpStatus.SERVICE_UNAVAILABLE, "Database busy, retry later", null, request.getRequestURI());
+    }
+
+    // Carril de mutaciones del board lleno (BoardMutationSequencer): reintentable
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Object> handleLaneFull(RejectedExecutionException ex, HttpServletRequest request) {
+        return build(HttpStatus.SERVICE_UNAVAILABLE, "Board busy, retry later", null, request.getRequestURI());
+    }
+
+    // Cambio concurrente sin resolver tras los reintentos: 409 con el estado actual para que el cliente rehaga
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Object> handleConflict(ConflictException ex, HttpServletRequest request) {
+        ResponseEntity<Object> response = build(HttpStatus.CONFLICT, ex.getMessage(), null, request.getRequestURI());
+        if (ex.getCurrent() != null) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> body = (Map<String, Object>) response.getBody();
+            body.put("current", ex.getCurrent());
+        }
+        return response;
+    }
+
+    // Conflictos en rutas sin reintento (versión obsoleta, filas borradas a la vez, serialización)
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<Object> handleConcurrentChange(ConcurrencyFailureException ex, HttpServletRequest request) {
+        return build(HttpStatus.CONFLICT, "Concurrent modification, retry with the current state", null, request.getRequestURI());
+    }
+
+    // Solo la unicidad de posiciones es un choque (409); el resto de restricciones (23xxx) las incumple la
+    // petición (400) y cualquier otra cosa es un fallo nuestro (500)
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Object> handleDataIntegrity(DataIntegrityViolationException ex, HttpServletRequest request) {
+        if (ConflictRetrier.isConflict(ex)) {
+            return build(HttpStatus.CONFLICT, "Concurrent modification, retry with the current state", null, request.getRequestURI());
+        }
+        String sqlState = sqlState(ex);
+        if (sqlState != null && sqlState.startsWith("23")) {
+            return build(HttpStatus.BAD_REQUEST, "Request violates a data constraint", null, request.getRequestURI());
+        }
+        log.error("Data integrity failure on {}", request.getRequestURI(), ex);
+        return build(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected data error", null, request.getRequestURI());
+    }
+
+    private static String sqlState(Throwable ex) {
+        for (Throwable t = ex; t != null && t.getCause() != t; t = t.getCause()) {
+            if (t instanceof SQLException sql && sql.getSQLState() != null) {
+                return sql.getSQLState();
+            }
+        }
+        return null;
+    }
+
     private ResponseEntity<Object> build(HttpStatus status, String message, Map<String, String> fieldErrors, String path) {
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", Instant.now().toString());
@@ -0,0 +1,45 @@
+package com.aruidev.kanbeeapi.repository;
+
+import com.aruidev.kanbeeapi.entity.BoardChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface BoardChangeRepository extends JpaRepository<BoardChange, Long> {
+
+    // Cambios posteriores a :since en orden de aplicación (acotar con Pageable)
+    @Query("SELECT c FROM BoardChange c WHERE c.boardId = :boardId AND c.revision > :since ORDER BY c.revision ASC, c.id ASC")
+    List<BoardChange> findSince(@Param("boardId") UUID boardId, @Param("since") long since, Pageable pageable);
+
+    // Todas las entradas de un commit en una sola sentencia (la identidad impide los lotes JDBC); los ids
+    // siguen el orden de los arrays, que es el de aplicación dentro de la revisión
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO board_changes (board_id, revision, kind, entity_id, created_at) " +
+                   "SELECT e.board_id, e.revision, e.kind, e.entity_id, :createdAt " +
+                   "FROM unnest(CAST(:boardIds AS uuid[]), CAST(:revisions AS bigint[]), CAST(:kinds AS smallint[]), " +
+                   "CAST(:entityIds AS bigint[])) WITH ORDINALITY AS e(board_id, revision, kind, entity_id, n) " +
+                   "ORDER BY e.n", nativeQuery = true)
+    int insertAll(@Param("boardIds") UUID[] boardIds, @Param("revisions") Long[] revisions,
+                  @Param("kinds") Short[] kinds, @Param("entityIds") Long[] entityIds,
+                  @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("DELETE FROM BoardChange c WHERE c.boardId = :boardId")
+    int deleteByBoardId(@Param("boardId") UUID boardId);
+
+    // Poda por antigüedad y sube change_log_floor de cada board afectado en la misma sentencia
+    @Modifying
+    @Query(value = "WITH pruned AS (DELETE FROM board_changes WHERE created_at < :cutoff RETURNING board_id, revision) " +
+                   "UPDATE boards b SET change_log_floor = GREATEST(b.change_log_floor, p.max_revision) " +
+                   "FROM (SELECT board_id, MAX(revision) AS max_revision FROM pruned GROUP BY board_id) p " +
+                   "WHERE b.id = p.board_id", nativeQuery = true)
+    int pruneOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,10 +1,16 @@
 package com.aruidev.kanbeeapi.repository;
 
 import com.aruidev.kanbeeapi.entity.BoardList;
+import com.aruidev.kanbeeapi.repository.projection.BoardListExportRow;
+import com.aruidev.kanbeeapi.repository.projection.BoardListRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,26 +20,138 @@ public interface BoardListRepository extends JpaRepository<BoardList, Long> {
     // Listas de un board ordenadas
     List<BoardList> findByBoard_IdOrderByPositionAsc(UUID boardId);
 
-    // Última (mayor) posición para insertar al final
-    Optional<BoardList> findTopByBoard_IdOrderByPositionDesc(UUID boardId);
+    // Board de una lista (elegir carril del secuenciador)
+    @Query("SELECT bl.board.id FROM BoardList bl WHERE bl.id = :id")
+    Optional<UUID> findBoardIdById(@Param("id") Long id);
+
+    // Última (mayor) posición para insertar al final; escalar para no leer una lista cargada antes de un
+    // desplazamiento masivo
+    @Query("SELECT MAX(bl.position) FROM BoardList bl WHERE bl.board.id = :boardId")
+    Optional<Integer> findMaxPosition(@Param("boardId") UUID boardId);
+
+    // Los UPDATE masivos incrementan version: una entidad leída antes del desplazamiento ya no se puede escribir
 
     // Desplaza +1 todas las posiciones >= start (usar al insertar en medio)
     @Modifying
-    @Query("UPDATE BoardList bl SET bl.position = bl.position + 1 " +
+    @Query("UPDATE BoardList bl SET bl.position = bl.position + 1, bl.version = bl.version + 1 " +
            "WHERE bl.board.id = :boardId AND bl.position >= :startPosition")
     int shiftPositionsUpFrom(UUID boardId, int startPosition);
 
+    // Cierra el hueco de una lista que sale del board (movida a otro o borrada): todas las de detrás bajan
+    @Modifying
+    @Query("UPDATE BoardList bl SET bl.position = bl.position - 1, bl.version = bl.version + 1 " +
+           "WHERE bl.board.id = :boardId AND bl.position > :position")
+    int closeGapAfter(UUID boardId, int position);
+
     // Mueve hacia abajo (posicion -1) dentro de un rango (cuando se extrae un elemento hacia adelante)
     @Modifying
-    @Query("UPDATE BoardList bl SET bl.position = bl.position - 1 " +
+    @Query("UPDATE BoardList bl SET bl.position = bl.position - 1, bl.version = bl.version + 1 " +
            "WHERE bl.board.id = :boardId AND bl.position > :from AND bl.position <= :to")
     int closeGapAfterMoveDown(UUID boardId, int from, int to);
 
     // Mueve hacia arriba (posicion +1) dentro de un rango (cuando se extrae un elemento hacia atrás)
     @Modifying
-    @Query("UPDATE BoardList bl SET bl.position = bl.position + 1 " +
+    @Query("UPDATE BoardList bl SET bl.position = bl.position + 1, bl.version = bl.version + 1 " +
            "WHERE bl.board.id = :boardId AND bl.position >= :to AND bl.position < :from")
     int closeGapAfterMoveUp(UUID boardId, int from, int to);
 
     boolean existsById(Long id);
-}
\ No newline at end of file
+
+    // Listas del board como proyección (lectura expandida sin entidades); el orden lo decide el llamador
+    @Query("SELECT new com.aruidev.kanbeeapi.repository.projection.BoardListRow(bl.id, bl.title, bl.position, bl.createdAt, bl.updatedAt) " +
+           "FROM BoardList bl WHERE bl.board.id = :boardId")
+    List<BoardListRow> findRowsByBoardId(@Param("boardId") UUID boardId, Sort sort);
+
+    // Listas del board para exportar (NDJSON); el orden lo decide el llamador
+    @Query("SELECT new com.aruidev.kanbeeapi.repository.projection.BoardListExportRow(bl.id, bl.title) " +
+           "FROM BoardList bl WHERE bl.board.id = :boardId")
+    List<BoardListExportRow> findExportRowsByBoardId(@Param("boardId") UUID boardId, Sort sort);
+
+    // Ids del board (validar un orden completo)
+    @Query("SELECT bl.id FROM BoardList bl WHERE bl.board.id = :boardId")
+    List<Long> findIdsByBoardId(@Param("boardId") UUID boardId);
+
+    // ¿uq_board_lists_board_position es diferible? (migración 003; con ddl-auto se crea sin diferir)
+    // Solo en el esquema actual: otro esquema de la misma BD puede tener una restricción con ese nombre
+    @Query(value = "SELECT COALESCE(bool_or(c.condeferrable), false) FROM pg_constraint c " +
+                   "JOIN pg_namespace n ON n.oid = c.connamespace " +
+                   "WHERE c.conname = 'uq_board_lists_board_position' AND n.nspname = current_schema()",
+           nativeQuery = true)
+    boolean isPositionConstraintDeferrable();
+
+    // Aparta las posiciones del board a negativos (-position - 1) para renumerar sin choques
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE board_lists SET position = -position - 1 WHERE board_id = :boardId", nativeQuery = true)
+    int parkPositions(@Param("boardId") UUID boardId);
+
+    // Reordenación en bloque: position = índice en :ids y clave de :rankKeys, en un solo UPDATE.
+    // Ids y claves van como texto separado por comas (las claves base-36 no contienen comas)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE board_lists bl SET position = o.ord - 1, rank_key = o.rank_key, version = bl.version + 1 " +
+                   "FROM unnest(CAST(string_to_array(:ids, ',') AS bigint[]), string_to_array(:rankKeys, ',')) " +
+                   "WITH ORDINALITY AS o(id, rank_key, ord) " +
+                   "WHERE bl.id = o.id AND bl.board_id = :boardId", nativeQuery = true)
+    int reorder(@Param("boardId") UUID boardId, @Param("ids") String ids, @Param("rankKeys") String rankKeys);
+
+    // Borrado en bloque de las listas de un board (sus tarjetas ya borradas con CardRepository)
+    @Modifying
+    @Query("DELETE FROM BoardList bl WHERE bl.board.id = :boardId")
+    int deleteByBoardId(@Param("boardId") UUID boardId);
+
+    // Listas concretas del board como proyección (delta de cambios)
+    @Query("SELECT new com.aruidev.kanbeeapi.repository.projection.BoardListRow(bl.id, bl.title, bl.position, bl.createdAt, bl.updatedAt) " +
+           "FROM BoardList bl WHERE bl.board.id = :boardId AND bl.id IN :ids")
+    List<BoardListRow> findRowsByIds(@Param("boardId") UUID boardId, @Param("ids") Collection<Long> ids);
+
+    // --- Modo rank ---
+
+    // Nº de listas del board, opcionalmente sin contar la que se está moviendo
+    @Query("SELECT COUNT(bl) FROM BoardList bl WHERE bl.board.id = :boardId AND (:excludeId IS NULL OR bl.id <> :excludeId)")
+    long countInBoard(@Param("boardId") UUID boardId, @Param("excludeId") Long excludeId);
+
+    // Clave de orden en un índice concreto (usar con PageRequest.of(index, 1))
+    @Query("SELECT bl.rankKey FROM BoardList bl WHERE bl.board.id = :boardId AND (:excludeId IS NULL OR bl.id <> :excludeId) " +
+           "ORDER BY bl.rankKey ASC, bl.id ASC")
+    List<String> findRankKeys(@Param("boardId") UUID boardId, @Param("excludeId") Long excludeId, Pageable pageable);
+
+    // Índice expuesto (position) de una lista dentro de su board
+    @Query("SELECT COUNT(bl) FROM BoardList bl WHERE bl.board.id = :boardId AND bl.rankKey < :rankKey")
+    long countBefore(@Param("boardId") UUID boardId, @Param("rankKey") String rankKey);
+
+    // Listas en orden actual para rebalancear (las claves nulas van al final, por position)
+    @Query("SELECT bl FROM BoardList bl WHERE bl.board.id = :boardId ORDER BY bl.rankKey ASC NULLS LAST, bl.position ASC, bl.id ASC")
+    List<BoardList> findForRebalance(@Param("boardId") UUID boardId);
+
+    // Boards con listas sin clave (datos previos al modo rank)
+    @Query("SELECT DISTINCT bl.board.id FROM BoardList bl WHERE bl.rankKey IS NULL")
+    List<UUID> findBoardIdsWithoutRankKey();
+
+    // Copia listas y tarjetas de un board a otro en una sola sentencia, conservando posiciones y claves.
+    // Los ids salen de bloques de las secuencias pooled (migración 006, allocationSize = 50): cada nextval
+    // reserva (hi - 49 .. hi), igual que el optimizador de Hibernate; se descarta el primer valor de una
+    // secuencia recién creada (hi < 50). Devuelve el número de tarjetas copiadas
+    @Modifying
+    @Query(value = "WITH src_lists AS MATERIALIZED (" +
+                   "  SELECT l.id, l.title, l.position, l.rank_key, row_number() OVER (ORDER BY l.id) - 1 AS rn " +
+                   "  FROM board_lists l WHERE l.board_id = :sourceId), " +
+                   "list_blocks AS MATERIALIZED (" +
+                   "  SELECT row_number() OVER () - 1 AS blk, s.hi FROM (SELECT nextval('board_lists_seq') AS hi " +
+                   "  FROM generate_series(1, (SELECT (count(*) + 49) / 50 + 1 FROM src_lists))) s WHERE s.hi >= 50), " +
+                   "list_map AS MATERIALIZED (" +
+                   "  SELECT sl.id AS old_id, lb.hi - 49 + sl.rn % 50 AS new_id, sl.title, sl.position, sl.rank_key " +
+                   "  FROM src_lists sl JOIN list_blocks lb ON lb.blk = sl.rn / 50), " +
+                   "new_lists AS (" +
+                   "  INSERT INTO board_lists (id, board_id, title, position, rank_key, created_at, updated_at, version) " +
+                   "  SELECT new_id, :targetId, title, position, rank_key, now(), now(), 0 FROM list_map), " +
+                   "src_cards AS MATERIALIZED (" +
+                   "  SELECT c.list_id, c.title, c.description, c.position, c.rank_key, row_number() OVER (ORDER BY c.id) - 1 AS rn " +
+                   "  FROM cards c JOIN src_lists sl ON sl.id = c.list_id), " +
+                   "card_blocks AS MATERIALIZED (" +
+                   "  SELECT row_number() OVER () - 1 AS blk, s.hi FROM (SELECT nextval('cards_seq') AS hi " +
+                   "  FROM generate_series(1, (SELECT (count(*) + 49) / 50 + 1 FROM src_cards))) s WHERE s.hi >= 50) " +
+                   "INSERT INTO cards (id, list_id, title, description, position, rank_key, created_at, updated_at, version) " +
+                   "SELECT cb.hi - 49 + sc.rn % 50, lm.new_id, sc.title, sc.description, sc.position, sc.rank_key, now(), now(), 0 " +
+                   "FROM src_cards sc JOIN card_blocks cb ON cb.blk = sc.rn / 50 JOIN list_map lm ON lm.old_id = sc.list_id",
+           nativeQuery = true)
+    int cloneListsAndCards(@Param("sourceId") UUID sourceId, @Param("targetId") UUID targetId);
+}
@@ -1,17 +1,57 @@
 package com.aruidev.kanbeeapi.repository;
 
 import com.aruidev.kanbeeapi.entity.Board;
+import com.aruidev.kanbeeapi.repository.projection.BoardRow;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.UUID;
 
 public interface BoardRepository extends JpaRepository<Board, UUID> {
 
-    // Controlled eager load (avoids N+1)
+    // Controlled eager load (avoids N+1). Devuelve listas × tarjetas en un solo result set;
+    // la lectura expandida usa ExpandedBoardLoader (proyecciones planas)
     @EntityGraph(attributePaths = {"boardLists", "boardLists.cards"})
     Optional<Board> findWithBoardListsById(UUID id);
 
     boolean existsById(UUID id);
+
+    // Cabecera del board como proyección (lectura expandida sin entidades)
+    @Query("SELECT new com.aruidev.kanbeeapi.repository.projection.BoardRow(b.id, b.title, b.createdAt, b.updatedAt, b.revision) " +
+           "FROM Board b WHERE b.id = :id")
+    Optional<BoardRow> findRowById(@Param("id") UUID id);
+
+    // Versión actual del board (lookup por PK, sin cargar el grafo)
+    @Query("SELECT b.revision FROM Board b WHERE b.id = :id")
+    Optional<Long> findRevisionById(@Param("id") UUID id);
+
+    // Incrementa la versión; bloquea la fila del board hasta el commit
+    @Modifying
+    @Query("UPDATE Board b SET b.revision = b.revision + 1 WHERE b.id = :id")
+    int incrementRevision(@Param("id") UUID id);
+
+    // Inicio del log de cambios completo (ver BoardChangeLog)
+    @Query("SELECT b.changeLogFloor FROM Board b WHERE b.id = :id")
+    Optional<Long> findChangeLogFloorById(@Param("id") UUID id);
+
+    // Invalida el log anterior a :revision (p. ej. lista llegada de otro board con todas sus tarjetas)
+    @Modifying
+    @Query("UPDATE Board b SET b.changeLogFloor = :revision WHERE b.id = :id AND b.changeLogFloor < :revision")
+    int raiseChangeLogFloor(@Param("id") UUID id, @Param("revision") long revision);
+
+    // Borrado en bloque (listas y tarjetas ya borradas): sin cargar el board ni sus colecciones en cascada
+    @Modifying
+    @Query("DELETE FROM Board b WHERE b.id = :id")
+    int deleteRowById(@Param("id") UUID id);
+
+    // Copia la cabecera de un board (clonado) con versión y log desde cero; 0 filas = el origen no existe
+    @Modifying
+    @Query(value = "INSERT INTO boards (id, title, created_at, updated_at, revision, change_log_floor, version) " +
+                   "SELECT :targetId, COALESCE(CAST(:title AS varchar), b.title), now(), now(), 0, 0, 0 " +
+                   "FROM boards b WHERE b.id = :sourceId", nativeQuery = true)
+    int cloneBoard(@Param("sourceId") UUID sourceId, @Param("targetId") UUID targetId, @Param("title") String title);
 }
@@ -1,38 +1,193 @@
 package com.aruidev.kanbeeapi.repository;
 
 import com.aruidev.kanbeeapi.entity.Card;
+import com.aruidev.kanbeeapi.repository.projection.CardExportRow;
+import com.aruidev.kanbeeapi.repository.projection.CardPageRow;
+import com.aruidev.kanbeeapi.repository.projection.CardRow;
+import com.aruidev.kanbeeapi.repository.projection.CardSearchRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface CardRepository extends JpaRepository<Card, Long> {
 
+  // Board de una tarjeta (elegir carril del secuenciador)
+  @Query("SELECT t.boardList.board.id FROM Card t WHERE t.id = :id")
+  Optional<UUID> findBoardIdById(@Param("id") Long id);
+
   // Tareas de una lista ordenadas
   List<Card> findByBoardList_IdOrderByPositionAsc(Long listId);
 
-  // Última posición en la lista
-  Optional<Card> findTopByBoardList_IdOrderByPositionDesc(Long listId);
+  // Última posición en la lista. Escalar y no la entidad: tras un UPDATE masivo la tarjeta ya cargada en el
+  // contexto conservaría su posición vieja (p. ej. dentro de un lote de /operations)
+  @Query("SELECT MAX(t.position) FROM Card t WHERE t.boardList.id = :listId")
+  Optional<Integer> findMaxPosition(@Param("listId") Long listId);
+
+  // Los desplazamientos incrementan version (bloqueo optimista de las tarjetas afectadas)
 
   // Desplazar posiciones al insertar
   @Modifying
   @Transactional
-  @Query("UPDATE Card t SET t.position = t.position + 1 WHERE t.boardList.id = :listId AND t.position >= :startPosition")
+  @Query("UPDATE Card t SET t.position = t.position + 1, t.version = t.version + 1 WHERE t.boardList.id = :listId AND t.position >= :startPosition")
   int shiftPositionsUpFrom(@Param("listId") Long listId, @Param("startPosition") int startPosition);
 
+  // Cerrar el hueco de una tarjeta que sale de la lista (movida a otra o borrada): todas las de detrás bajan
+  @Modifying
+  @Transactional
+  @Query("UPDATE Card t SET t.position = t.position - 1, t.version = t.version + 1 WHERE t.boardList.id = :listId AND t.position > :position")
+  int closeGapAfter(@Param("listId") Long listId, @Param("position") int position);
+
   // Reordenar rango (movimiento hacia adelante)
   @Modifying
   @Transactional
-  @Query("UPDATE Card t SET t.position = t.position - 1 WHERE t.boardList.id = :listId AND t.position > :from AND t.position <= :to")
+  @Query("UPDATE Card t SET t.position = t.position - 1, t.version = t.version + 1 WHERE t.boardList.id = :listId AND t.position > :from AND t.position <= :to")
   int closeGapAfterMoveDown(@Param("listId") Long listId, @Param("from") int from, @Param("to") int to);
 
   // Reordenar rango (movimiento hacia atrás)
   @Modifying
   @Transactional
-  @Query("UPDATE Card t SET t.position = t.position + 1 WHERE t.boardList.id = :listId AND t.position >= :to AND t.position < :from")
+  @Query("UPDATE Card t SET t.position = t.position + 1, t.version = t.version + 1 WHERE t.boardList.id = :listId AND t.position >= :to AND t.position < :from")
   int closeGapAfterMoveUp(@Param("listId") Long listId, @Param("from") int from, @Param("to") int to);
-}
\ No newline at end of file
+
+  // Todas las tarjetas de un board como proyección (una sola consulta, sin entidades)
+  @Query("SELECT new com.aruidev.kanbeeapi.repository.projection.CardRow(t.boardList.id, t.id, t.title, t.description, t.position, t.createdAt, t.updatedAt) " +
+         "FROM Card t WHERE t.boardList.board.id = :boardId")
+  List<CardRow> findRowsByBoardId(@Param("boardId") UUID boardId, Sort sort);
+
+  // Tarjetas concretas del board como proyección (delta de cambios); las que ya no están en el board no aparecen
+  @Query("SELECT new com.aruidev.kanbeeapi.repository.projection.CardRow(t.boardList.id, t.id, t.title, t.description, t.position, t.createdAt, t.updatedAt) " +
+         "FROM Card t WHERE t.boardList.board.id = :boardId AND t.id IN :ids")
+  List<CardRow> findRowsByIds(@Param("boardId") UUID boardId, @Param("ids") Collection<Long> ids);
+
+  // Todas las tarjetas de unas listas del board (delta de cambios con orden completo por lista)
+  @Query("SELECT new com.aruidev.kanbeeapi.repository.projection.CardRow(t.boardList.id, t.id, t.title, t.description, t.position, t.createdAt, t.updatedAt) " +
+         "FROM Card t WHERE t.boardList.board.id = :boardId AND t.boardList.id IN :listIds")
+  List<CardRow> findRowsByListIds(@Param("boardId") UUID boardId, @Param("listIds") Collection<Long> listIds, Sort sort);
+
+  // Borrado en bloque al borrar una lista o un board: una sentencia, sin cargar las tarjetas
+  @Modifying
+  @Query("DELETE FROM Card t WHERE t.boardList.id = :listId")
+  int deleteByListId(@Param("listId") Long listId);
+
+  @Modifying
+  @Query("DELETE FROM Card t WHERE t.boardList.id IN (SELECT l.id FROM BoardList l WHERE l.board.id = :boardId)")
+  int deleteByBoardId(@Param("boardId") UUID boardId);
+
+  // Paginación por keyset (GET /lists/{id}/cards): primera página y siguientes tras (position, id) o (rankKey, id).
+  // El orden y el tamaño van en el Pageable; la condición inicial de rango aprovecha el índice (list_id, position|rank_key)
+  @Query("SELECT new com.aruidev.kanbeeapi.repository.projection.CardPageRow(t.id, t.title, t.description, t.position, t.rankKey, t.createdAt, t.updatedAt) " +
+         "FROM Card t WHERE t.boardList.id = :listId")
+  List<CardPageRow> findPage(@Param("listId") Long listId, Pageable pageable);
+
+  // Modo position: la posición de la última tarjeta devuelta se relee (si sigue en la lista), porque altas, bajas y
+  // movimientos anteriores desplazan las posiciones; :position solo vale si esa tarjeta ya no está
+  @Query("SELECT new com.aruidev.kanbeeapi.repository.projection.CardPageRow(t.id, t.title, t.description, t.position, t.rankKey, t.createdAt, t.updatedAt) " +
+         "FROM Card t WHERE t.boardList.id = :listId " +
+         "AND t.position >= COALESCE((SELECT a.position FROM Card a WHERE a.id = :id AND a.boardList.id = :listId), :position) " +
+         "AND (t.position > COALESCE((SELECT a.position FROM Card a WHERE a.id = :id AND a.boardList.id = :listId), :position) OR t.id > :id)")
+  List<CardPageRow> findPageAfterPosition(@Param("listId") Long listId, @Param("position") int position,
+                                          @Param("id") long id, Pageable pageable);
+
+  @Query("SELECT new com.aruidev.kanbeeapi.repository.projection.CardPageRow(t.id, t.title, t.description, t.position, t.rankKey, t.createdAt, t.updatedAt) " +
+         "FROM Card t WHERE t.boardList.id = :listId AND t.rankKey >= :rankKey AND (t.rankKey > :rankKey OR t.id > :id)")
+  List<CardPageRow> findPageAfterRank(@Param("listId") Long listId, @Param("rankKey") String rankKey,
+                                      @Param("id") long id, Pageable pageable);
+
+  // Igual que findRowsByBoardId pero como cursor (fetch size acotado); cerrar el Stream tras usarlo
+  @QueryHints({
+          @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+          @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT new com.aruidev.kanbeeapi.repository.projection.CardRow(t.boardList.id, t.id, t.title, t.description, t.position, t.createdAt, t.updatedAt) " +
+         "FROM Card t WHERE t.boardList.board.id = :boardId")
+  Stream<CardRow> streamRowsByBoardId(@Param("boardId") UUID boardId, Sort sort);
+
+  // Tarjetas del board para exportar (NDJSON), como cursor; cerrar el Stream tras usarlo
+  @QueryHints({
+          @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+          @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT new com.aruidev.kanbeeapi.repository.projection.CardExportRow(t.boardList.id, t.id, t.title, t.description) " +
+         "FROM Card t WHERE t.boardList.board.id = :boardId")
+  Stream<CardExportRow> streamExportRowsByBoardId(@Param("boardId") UUID boardId, Sort sort);
+
+  // --- Búsqueda ---
+
+  // ¿Existe cards.search_vector? (migración 007; con ddl-auto no se crea)
+  // Solo en el esquema en uso: otra tabla cards en otro esquema no cuenta
+  @Query(value = "SELECT EXISTS (SELECT 1 FROM information_schema.columns " +
+                 "WHERE table_schema = current_schema() AND table_name = 'cards' " +
+                 "AND column_name = 'search_vector')", nativeQuery = true)
+  boolean hasSearchVector();
+
+  // Texto completo sobre la columna generada (índice GIN), ordenado por relevancia
+  @Query(value = "SELECT c.id AS id, c.list_id AS \"listId\", c.title AS title, c.description AS description, " +
+                 "CAST(ts_rank(c.search_vector, q.query) AS double precision) AS score " +
+                 "FROM cards c JOIN board_lists bl ON bl.id = c.list_id " +
+                 "CROSS JOIN websearch_to_tsquery('simple', :q) AS q(query) " +
+                 "WHERE bl.board_id = :boardId AND c.search_vector @@ q.query " +
+                 "ORDER BY score DESC, c.id LIMIT :limit OFFSET :offset", nativeQuery = true)
+  List<CardSearchRow> searchFullText(@Param("boardId") UUID boardId, @Param("q") String q,
+                                     @Param("limit") int limit, @Param("offset") int offset);
+
+  // Alternativa sin migración o en BD embebidas: subcadena sin distinguir mayúsculas, antes las de título.
+  // :pattern ya viene en minúsculas, con los comodines escapados y entre '%'
+  @Query(value = "SELECT c.id AS id, c.list_id AS \"listId\", c.title AS title, c.description AS description, " +
+                 "CAST(CASE WHEN lower(c.title) LIKE :pattern ESCAPE '!' THEN 1.0 ELSE 0.5 END AS double precision) AS score " +
+                 "FROM cards c JOIN board_lists bl ON bl.id = c.list_id " +
+                 "WHERE bl.board_id = :boardId AND (lower(c.title) LIKE :pattern ESCAPE '!' " +
+                 "OR lower(c.description) LIKE :pattern ESCAPE '!') " +
+                 "ORDER BY score DESC, c.id LIMIT :limit OFFSET :offset", nativeQuery = true)
+  List<CardSearchRow> searchLike(@Param("boardId") UUID boardId, @Param("pattern") String pattern,
+                                 @Param("limit") int limit, @Param("offset") int offset);
+
+  // Ids de la lista (validar un orden completo)
+  @Query("SELECT t.id FROM Card t WHERE t.boardList.id = :listId")
+  List<Long> findIdsByListId(@Param("listId") Long listId);
+
+  // Reordenación en bloque: position = índice en :ids y clave de :rankKeys, en un solo UPDATE.
+  // Ids y claves van como texto separado por comas (las claves base-36 no contienen comas)
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Transactional
+  @Query(value = "UPDATE cards c SET position = o.ord - 1, rank_key = o.rank_key, version = c.version + 1 " +
+                 "FROM unnest(CAST(string_to_array(:ids, ',') AS bigint[]), string_to_array(:rankKeys, ',')) " +
+                 "WITH ORDINALITY AS o(id, rank_key, ord) " +
+                 "WHERE c.id = o.id AND c.list_id = :listId", nativeQuery = true)
+  int reorder(@Param("listId") Long listId, @Param("ids") String ids, @Param("rankKeys") String rankKeys);
+
+  // --- Modo rank ---
+
+  // Nº de tarjetas de la lista, opcionalmente sin contar la que se está moviendo
+  @Query("SELECT COUNT(t) FROM Card t WHERE t.boardList.id = :listId AND (:excludeId IS NULL OR t.id <> :excludeId)")
+  long countInList(@Param("listId") Long listId, @Param("excludeId") Long excludeId);
+
+  // Clave de orden en un índice concreto (usar con PageRequest.of(index, 1))
+  @Query("SELECT t.rankKey FROM Card t WHERE t.boardList.id = :listId AND (:excludeId IS NULL OR t.id <> :excludeId) " +
+         "ORDER BY t.rankKey ASC, t.id ASC")
+  List<String> findRankKeys(@Param("listId") Long listId, @Param("excludeId") Long excludeId, Pageable pageable);
+
+  // Índice expuesto (position) de una tarjeta dentro de su lista
+  @Query("SELECT COUNT(t) FROM Card t WHERE t.boardList.id = :listId AND t.rankKey < :rankKey")
+  long countBefore(@Param("listId") Long listId, @Param("rankKey") String rankKey);
+
+  // Tarjetas en orden actual para rebalancear (las claves nulas van al final, por position)
+  @Query("SELECT t FROM Card t WHERE t.boardList.id = :listId ORDER BY t.rankKey ASC NULLS LAST, t.position ASC, t.id ASC")
+  List<Card> findForRebalance(@Param("listId") Long listId);
+
+  // Listas con tarjetas sin clave (datos previos al modo rank)
+  @Query("SELECT DISTINCT t.boardList.id FROM Card t WHERE t.rankKey IS NULL")
+  List<Long> findListIdsWithoutRankKey();
+}
@@ -0,0 +1,5 @@
+package com.aruidev.kanbeeapi.repository.projection;
+
+// Lista para la exportación NDJSON (la posición exportada es el índice en el orden de lectura)
+public record BoardListExportRow(Long id, String title) {
+}
@@ -0,0 +1,7 @@
+package com.aruidev.kanbeeapi.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Fila plana de lista (proyección JPQL, no entidad gestionada)
+public record BoardListRow(Long id, String title, Integer position, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
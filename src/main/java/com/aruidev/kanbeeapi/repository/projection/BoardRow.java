@@ -0,0 +1,8 @@
+package com.aruidev.kanbeeapi.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Fila plana de board (proyección JPQL, no entidad gestionada)
+public record BoardRow(UUID id, String title, LocalDateTime createdAt, LocalDateTime updatedAt, Long revision) {
+}
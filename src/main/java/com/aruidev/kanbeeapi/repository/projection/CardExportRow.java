@@ -0,0 +1,5 @@
+package com.aruidev.kanbeeapi.repository.projection;
+
+// Tarjeta para la exportación NDJSON (la posición exportada es el índice dentro de su lista)
+public record CardExportRow(Long listId, Long id, String title, String description) {
+}
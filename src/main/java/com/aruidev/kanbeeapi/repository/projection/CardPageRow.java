@@ -0,0 +1,8 @@
+package com.aruidev.kanbeeapi.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Fila de tarjeta para paginación por keyset: incluye la clave rank para construir el cursor
+public record CardPageRow(Long id, String title, String description, Integer position, String rankKey,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
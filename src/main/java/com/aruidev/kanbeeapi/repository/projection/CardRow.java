@@ -0,0 +1,8 @@
+package com.aruidev.kanbeeapi.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Fila plana de tarjeta con su lista (proyección JPQL, no entidad gestionada)
+public record CardRow(Long listId, Long id, String title, String description, Integer position,
+                      LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
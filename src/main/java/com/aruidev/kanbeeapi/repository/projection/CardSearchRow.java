@@ -0,0 +1,10 @@
+package com.aruidev.kanbeeapi.repository.projection;
+
+// Resultado de búsqueda de tarjetas. Interfaz (no record) porque las consultas son nativas
+public interface CardSearchRow {
+    Long getId();
+    Long getListId();
+    String getTitle();
+    String getDescription();
+    Double getScore();
+}
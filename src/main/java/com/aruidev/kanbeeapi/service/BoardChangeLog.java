@@ -0,0 +1,66 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.repository.BoardChangeRepository;
+import com.aruidev.kanbeeapi.service.events.BoardEvent;
+import com.aruidev.kanbeeapi.service.events.BoardEventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Escritura y poda del log de cambios por board. BoardChangeTracker escribe las entradas dentro de la
+// transacción de la mutación (beforeCommit); la poda por antigüedad sube change_log_floor de cada board.
+@Component
+public class BoardChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(BoardChangeLog.class);
+
+    private final BoardChangeRepository boardChangeRepository;
+    private final Duration retention;
+
+    public BoardChangeLog(BoardChangeRepository boardChangeRepository,
+                          @Value("${kanbee.changes.retention:7d}") Duration retention) {
+        this.boardChangeRepository = boardChangeRepository;
+        this.retention = retention;
+    }
+
+    // Un lote de /operations deja cientos de entradas: van en un único INSERT
+    void append(List<BoardEvent> events) {
+        List<BoardEvent> entries = new ArrayList<>(events.size());
+        for (BoardEvent event : events) {
+            // El log de un board borrado se elimina con él
+            if (event.type() != BoardEventType.BOARD_DELETED) entries.add(event);
+        }
+        if (entries.isEmpty()) return;
+        int size = entries.size();
+        UUID[] boardIds = new UUID[size];
+        Long[] revisions = new Long[size];
+        Short[] kinds = new Short[size];
+        Long[] entityIds = new Long[size];
+        for (int i = 0; i < size; i++) {
+            BoardEvent event = entries.get(i);
+            boardIds[i] = event.boardId();
+            revisions[i] = event.revision();
+            kinds[i] = event.type().code();
+            entityIds[i] = event.id();
+        }
+        boardChangeRepository.insertAll(boardIds, revisions, kinds, entityIds, LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${kanbee.changes.prune-interval-ms:3600000}")
+    @Transactional
+    public void prune() {
+        int boards = boardChangeRepository.pruneOlderThan(LocalDateTime.now().minus(retention));
+        if (boards > 0) {
+            log.debug("Pruned change log older than {} on {} boards", retention, boards);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.entity.BoardList;
+import com.aruidev.kanbeeapi.entity.Card;
+import com.aruidev.kanbeeapi.repository.BoardRepository;
+import com.aruidev.kanbeeapi.service.events.BoardEvent;
+import com.aruidev.kanbeeapi.service.events.BoardEventHub;
+import com.aruidev.kanbeeapi.service.events.BoardEventType;
+import com.aruidev.kanbeeapi.service.typeahead.CardTypeaheadIndex;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Punto único por el que los servicios notifican que un board ha cambiado.
+// La versión del board se incrementa dentro de la transacción (una vez por board) y el log de cambios se
+// escribe antes del commit; las invalidaciones, los eventos SSE y el índice de autocompletado se aplican
+// tras el commit.
+@Component
+public class BoardChangeTracker {
+
+    private final BoardRepository boardRepository;
+    private final BoardSnapshotCache snapshotCache;
+    private final BoardEventHub eventHub;
+    private final BoardChangeLog changeLog;
+    private final CardTypeaheadIndex typeaheadIndex;
+
+    public BoardChangeTracker(BoardRepository boardRepository,
+                              BoardSnapshotCache snapshotCache,
+                              BoardEventHub eventHub,
+                              BoardChangeLog changeLog,
+                              CardTypeaheadIndex typeaheadIndex) {
+        this.boardRepository = boardRepository;
+        this.snapshotCache = snapshotCache;
+        this.eventHub = eventHub;
+        this.changeLog = changeLog;
+        this.typeaheadIndex = typeaheadIndex;
+    }
+
+    public void boardChanged(UUID boardId) {
+        record(boardId, null, null, null);
+    }
+
+    public void boardUpdated(UUID boardId) {
+        record(boardId, BoardEventType.BOARD_UPDATED, null, null);
+    }
+
+    public void boardDeleted(UUID boardId) {
+        record(boardId, BoardEventType.BOARD_DELETED, null, null);
+    }
+
+    public void cardChanged(Card card) {
+        BoardList list = card.getBoardList();
+        record(list.getBoard().getId(), BoardEventType.CARD_UPSERTED, card.getId(), list.getId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // El índice de autocompletado lee título y descripción tras el commit (valores finales)
+            changes().cards.put(card.getId(), card);
+        }
+    }
+
+    public void cardDeleted(Card card) {
+        BoardList list = card.getBoardList();
+        record(list.getBoard().getId(), BoardEventType.CARD_DELETED, card.getId(), list.getId());
+    }
+
+    public void cardsReordered(BoardList list) {
+        record(list.getBoard().getId(), BoardEventType.CARDS_REORDERED, list.getId(), null);
+    }
+
+    public void listChanged(BoardList list) {
+        record(list.getBoard().getId(), BoardEventType.LIST_UPSERTED, list.getId(), null);
+    }
+
+    // boardId explícito: en un movimiento entre boards la lista ya apunta al board destino
+    public void listDeleted(UUID boardId, Long listId) {
+        record(boardId, BoardEventType.LIST_DELETED, listId, null);
+    }
+
+    public void listsReordered(UUID boardId) {
+        record(boardId, BoardEventType.LISTS_REORDERED, null, null);
+    }
+
+    // El log anterior deja de servir para deltas (p. ej. llega una lista de otro board con sus tarjetas)
+    public void changeLogReset(UUID boardId) {
+        if (boardId == null) return;
+        record(boardId, null, null, null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            changes().resets.add(boardId);
+        } else {
+            boardRepository.raiseChangeLogFloor(boardId, currentRevision(boardId));
+        }
+    }
+
+    private void record(UUID boardId, BoardEventType type, Long id, Long listId) {
+        if (boardId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            boardRepository.incrementRevision(boardId);
+            snapshotCache.evict(boardId);
+            typeaheadIndex.invalidate(boardId);
+            if (type != null) {
+                BoardEvent event = new BoardEvent(type, boardId, id, listId, currentRevision(boardId));
+                changeLog.append(List.of(event));
+                eventHub.publish(event);
+            }
+            return;
+        }
+        Changes changes = changes();
+        if (changes.boards.add(boardId)) {
+            boardRepository.incrementRevision(boardId);
+        }
+        if (type != null) {
+            changes.events.add(new PendingEvent(type, boardId, id, listId));
+        }
+    }
+
+    private Changes changes() {
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            Changes created = new Changes();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Versión final de cada board tocado (una lectura por board), log y resets en la misma transacción
+                    Map<UUID, Long> revisions = new HashMap<>();
+                    for (PendingEvent pending : created.events) {
+                        long revision = revisions.computeIfAbsent(pending.boardId(), BoardChangeTracker.this::currentRevision);
+                        created.committed.add(new BoardEvent(pending.type(), pending.boardId(), pending.id(),
+                                pending.listId(), revision));
+                    }
+                    changeLog.append(created.committed);
+                    for (UUID boardId : created.resets) {
+                        long revision = revisions.computeIfAbsent(boardId, BoardChangeTracker.this::currentRevision);
+                        boardRepository.raiseChangeLogFloor(boardId, revision);
+                    }
+                }
+
+                @Override
+                public void afterCommit() {
+                    created.committed.forEach(eventHub::publish);
+                    typeaheadIndex.apply(created.committed, created.cards, created.resets);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BoardChangeTracker.this);
+                    // También en rollback: la invalidación es inocua y evita snapshots dudosos
+                    created.boards.forEach(snapshotCache::evict);
+                }
+            });
+            changes = created;
+        }
+        return changes;
+    }
+
+    private long currentRevision(UUID boardId) {
+        return boardRepository.findRevisionById(boardId).orElse(0L);
+    }
+
+    // Estado ligado a la transacción: boards tocados, eventos pendientes (sin duplicados), resets del log
+    // y tarjetas modificadas
+    private static final class Changes {
+        private final Set<UUID> boards = new LinkedHashSet<>();
+        private final Set<PendingEvent> events = new LinkedHashSet<>();
+        private final Set<UUID> resets = new LinkedHashSet<>();
+        private final List<BoardEvent> committed = new ArrayList<>();
+        private final Map<Long, Card> cards = new HashMap<>();
+    }
+
+    private record PendingEvent(BoardEventType type, UUID boardId, Long id, Long listId) {}
+}
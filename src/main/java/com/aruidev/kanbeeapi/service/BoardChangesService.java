@@ -0,0 +1,201 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.BoardDeltaDTO;
+import com.aruidev.kanbeeapi.dto.BoardListResponseDTO;
+import com.aruidev.kanbeeapi.dto.BoardResponseDTO;
+import com.aruidev.kanbeeapi.dto.CardDeltaDTO;
+import com.aruidev.kanbeeapi.entity.BoardChange;
+import com.aruidev.kanbeeapi.exception.BadRequestException;
+import com.aruidev.kanbeeapi.exception.NotFoundException;
+import com.aruidev.kanbeeapi.repository.BoardChangeRepository;
+import com.aruidev.kanbeeapi.repository.BoardListRepository;
+import com.aruidev.kanbeeapi.repository.BoardRepository;
+import com.aruidev.kanbeeapi.repository.CardRepository;
+import com.aruidev.kanbeeapi.repository.projection.BoardListRow;
+import com.aruidev.kanbeeapi.repository.projection.BoardRow;
+import com.aruidev.kanbeeapi.repository.projection.CardRow;
+import com.aruidev.kanbeeapi.service.events.BoardEventType;
+import com.aruidev.kanbeeapi.service.ordering.OrderingProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Delta de un board desde una versión: pliega el log de cambios (última operación por entidad) y lee
+// solo las filas supervivientes. Si el log no cubre desde esa versión, devuelve el snapshot completo.
+@Service
+@Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+public class BoardChangesService {
+
+    private final BoardRepository boardRepository;
+    private final BoardListRepository boardListRepository;
+    private final CardRepository cardRepository;
+    private final BoardChangeRepository boardChangeRepository;
+    private final BoardService boardService;
+    private final OrderingProperties ordering;
+    private final int maxEntries;
+
+    public BoardChangesService(BoardRepository boardRepository,
+                               BoardListRepository boardListRepository,
+                               CardRepository cardRepository,
+                               BoardChangeRepository boardChangeRepository,
+                               BoardService boardService,
+                               OrderingProperties ordering,
+                               @Value("${kanbee.changes.max-entries:5000}") int maxEntries) {
+        this.boardRepository = boardRepository;
+        this.boardListRepository = boardListRepository;
+        this.cardRepository = cardRepository;
+        this.boardChangeRepository = boardChangeRepository;
+        this.boardService = boardService;
+        this.ordering = ordering;
+        this.maxEntries = maxEntries;
+    }
+
+    public BoardDeltaDTO changesSince(UUID boardId, long since) {
+        if (since < 0) {
+            throw new BadRequestException("since must be non-negative");
+        }
+        // Versión y suelo del log en la misma foto que las entradas (REPEATABLE_READ)
+        long revision = boardRepository.findRevisionById(boardId)
+                .orElseThrow(() -> new NotFoundException("Board not found: " + boardId));
+        long floor = boardRepository.findChangeLogFloorById(boardId).orElse(0L);
+        if (since > revision || since < floor) {
+            return full(boardId, since);
+        }
+        BoardDeltaDTO delta = new BoardDeltaDTO(boardId, since, revision, false);
+        if (since == revision) {
+            return delta;
+        }
+        List<BoardChange> entries = boardChangeRepository.findSince(boardId, since, PageRequest.of(0, maxEntries + 1));
+        if (entries.size() > maxEntries) {
+            // Más barato (y más compacto) reenviar el board entero que plegar un log tan largo
+            return full(boardId, since);
+        }
+
+        Folded folded = fold(entries);
+        if (folded.boardUpdated) {
+            BoardRow board = boardRepository.findRowById(boardId).orElseThrow();
+            delta.setBoard(new BoardResponseDTO(board.id(), board.title(), board.createdAt(), board.updatedAt()));
+        }
+        addLists(boardId, folded, delta);
+        addCards(boardId, folded, delta);
+        return delta;
+    }
+
+    private BoardDeltaDTO full(UUID boardId, long since) {
+        BoardSnapshot snapshot = boardService.getSnapshot(boardId, true);
+        BoardDeltaDTO delta = new BoardDeltaDTO(boardId, since, snapshot.revision(), true);
+        delta.setBoard(snapshot.board());
+        return delta;
+    }
+
+    // Última operación por entidad, en orden de versión; las reordenaciones se acumulan aparte
+    private static Folded fold(List<BoardChange> entries) {
+        Folded folded = new Folded();
+        for (BoardChange entry : entries) {
+            Long id = entry.getEntityId();
+            switch (BoardEventType.fromCode(entry.getKind())) {
+                case CARD_UPSERTED -> folded.cards.put(id, true);
+                case CARD_DELETED -> folded.cards.put(id, false);
+                case LIST_UPSERTED -> folded.lists.put(id, true);
+                case LIST_DELETED -> folded.lists.put(id, false);
+                case CARDS_REORDERED -> folded.reorderedLists.add(id);
+                case LISTS_REORDERED -> folded.listsReordered = true;
+                case BOARD_UPDATED -> folded.boardUpdated = true;
+                case BOARD_DELETED -> { }
+            }
+        }
+        return folded;
+    }
+
+    private void addLists(UUID boardId, Folded folded, BoardDeltaDTO delta) {
+        Set<Long> upserted = idsWith(folded.lists, true);
+        Set<Long> deleted = idsWith(folded.lists, false);
+        List<BoardListRow> rows;
+        boolean allLists = folded.listsReordered || (ordering.isRankMode() && !upserted.isEmpty());
+        if (allLists) {
+            // Posición = índice: con una reordenación (o en modo rank) se envían todas las listas
+            rows = boardListRepository.findRowsByBoardId(boardId, ordering.readSort());
+        } else if (!upserted.isEmpty()) {
+            rows = boardListRepository.findRowsByIds(boardId, upserted);
+        } else {
+            rows = List.of();
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            BoardListRow row = rows.get(i);
+            Integer position = ordering.isRankMode() ? i : row.position();
+            delta.getLists().add(new BoardListResponseDTO(row.id(), row.title(), position, row.createdAt(), row.updatedAt()));
+            upserted.remove(row.id());
+            deleted.remove(row.id());
+        }
+        // Las que ya no están (o han pasado a otro board) cuentan como borradas
+        deleted.addAll(upserted);
+        delta.getDeletedListIds().addAll(deleted);
+    }
+
+    private void addCards(UUID boardId, Folded folded, BoardDeltaDTO delta) {
+        Set<Long> upserted = idsWith(folded.cards, true);
+        Set<Long> deleted = idsWith(folded.cards, false);
+        Set<Long> wholeLists = new LinkedHashSet<>(folded.reorderedLists);
+        wholeLists.removeAll(delta.getDeletedListIds());
+
+        List<CardRow> rows = new ArrayList<>();
+        if (!upserted.isEmpty()) {
+            List<CardRow> changed = cardRepository.findRowsByIds(boardId, upserted);
+            if (ordering.isRankMode()) {
+                // En modo rank la posición expuesta es el índice: se envía la lista entera de cada tarjeta
+                changed.forEach(row -> wholeLists.add(row.listId()));
+            } else {
+                rows.addAll(changed);
+            }
+        }
+        if (!wholeLists.isEmpty()) {
+            List<CardRow> listed = cardRepository.findRowsByListIds(boardId, wholeLists, ordering.boardCardSort());
+            Set<Long> alreadyIncluded = new LinkedHashSet<>();
+            rows.forEach(row -> alreadyIncluded.add(row.id()));
+            listed.stream().filter(row -> !alreadyIncluded.contains(row.id())).forEach(rows::add);
+        }
+
+        Map<Long, Integer> indexInList = new HashMap<>();
+        for (CardRow row : rows) {
+            Integer position = row.position();
+            if (ordering.isRankMode()) {
+                // Las filas de cada lista llegan ordenadas: el índice se cuenta por lista
+                position = indexInList.merge(row.listId(), 1, Integer::sum) - 1;
+            }
+            delta.getCards().add(new CardDeltaDTO(row.listId(), row.id(), row.title(), row.description(), position,
+                    row.createdAt(), row.updatedAt()));
+            upserted.remove(row.id());
+            deleted.remove(row.id());
+        }
+        deleted.addAll(upserted);
+        delta.getDeletedCardIds().addAll(deleted);
+    }
+
+    private static Set<Long> idsWith(Map<Long, Boolean> states, boolean alive) {
+        Set<Long> ids = new LinkedHashSet<>();
+        states.forEach((id, state) -> {
+            if (state == alive) ids.add(id);
+        });
+        return ids;
+    }
+
+    // Resultado del plegado: true = existe (crear/actualizar), false = borrada
+    private static final class Folded {
+        private final Map<Long, Boolean> cards = new LinkedHashMap<>();
+        private final Map<Long, Boolean> lists = new LinkedHashMap<>();
+        private final Set<Long> reorderedLists = new LinkedHashSet<>();
+        private boolean listsReordered;
+        private boolean boardUpdated;
+    }
+}
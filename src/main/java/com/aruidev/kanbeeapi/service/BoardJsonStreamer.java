@@ -0,0 +1,118 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.CardResponseDTO;
+import com.aruidev.kanbeeapi.exception.NotFoundException;
+import com.aruidev.kanbeeapi.repository.BoardListRepository;
+import com.aruidev.kanbeeapi.repository.BoardRepository;
+import com.aruidev.kanbeeapi.repository.CardRepository;
+import com.aruidev.kanbeeapi.repository.projection.BoardListRow;
+import com.aruidev.kanbeeapi.repository.projection.BoardRow;
+import com.aruidev.kanbeeapi.repository.projection.CardRow;
+import com.aruidev.kanbeeapi.service.metrics.BoardMetrics;
+import com.aruidev.kanbeeapi.service.ordering.OrderingProperties;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Escribe el board expandido directamente desde un cursor sobre las tarjetas, con la misma
+// forma JSON que BoardResponseDTO. Solo las listas (pocas) se cargan enteras en memoria.
+@Component
+public class BoardJsonStreamer {
+
+    private final BoardRepository boardRepository;
+    private final BoardListRepository boardListRepository;
+    private final CardRepository cardRepository;
+    private final OrderingProperties ordering;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+    private final BoardMetrics boardMetrics;
+
+    public BoardJsonStreamer(BoardRepository boardRepository,
+                             BoardListRepository boardListRepository,
+                             CardRepository cardRepository,
+                             OrderingProperties ordering,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             BoardMetrics boardMetrics) {
+        this.boardRepository = boardRepository;
+        this.boardListRepository = boardListRepository;
+        this.cardRepository = cardRepository;
+        this.ordering = ordering;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.boardMetrics = boardMetrics;
+        // Listas y cursor de tarjetas deben ver el mismo estado
+        this.tx.setReadOnly(true);
+        this.tx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public void writeExpanded(UUID boardId, OutputStream out) {
+        tx.executeWithoutResult(status -> {
+            BoardRow board = boardRepository.findRowById(boardId)
+                    .orElseThrow(() -> new NotFoundException("Board not found: " + boardId));
+            List<BoardListRow> lists = boardListRepository.findRowsByBoardId(boardId, ordering.readSort());
+            try (Stream<CardRow> cards = cardRepository.streamRowsByBoardId(boardId, ordering.boardCardSort());
+                 JsonGenerator gen = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+                // El OutputStream es del contenedor: se vacía pero no se cierra aquí
+                gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                int cardCount = writeBoard(gen, board, lists, cards.iterator());
+                boardMetrics.expandedBoard(lists.size(), cardCount);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    // Orden de campos igual que la serialización de BoardResponseDTO / BoardListResponseDTO
+    private int writeBoard(JsonGenerator gen, BoardRow board, List<BoardListRow> lists,
+                            Iterator<CardRow> cards) throws IOException {
+        gen.writeStartObject();
+        gen.writeObjectField("id", board.id());
+        gen.writeObjectField("title", board.title());
+        gen.writeObjectField("createdAt", board.createdAt());
+        gen.writeObjectField("updatedAt", board.updatedAt());
+        gen.writeArrayFieldStart("boardLists");
+
+        CardRow next = cards.hasNext() ? cards.next() : null;
+        int total = 0;
+        for (int listIndex = 0; listIndex < lists.size(); listIndex++) {
+            BoardListRow list = lists.get(listIndex);
+            gen.writeStartObject();
+            gen.writeObjectField("id", list.id());
+            gen.writeObjectField("title", list.title());
+            gen.writeObjectField("position", ordering.isRankMode() ? listIndex : list.position());
+            gen.writeObjectField("createdAt", list.createdAt());
+            gen.writeObjectField("updatedAt", list.updatedAt());
+            gen.writeArrayFieldStart("cards");
+            int cardCount = 0;
+            // Las tarjetas llegan agrupadas por lista y en el mismo orden que las listas
+            while (next != null && next.listId().equals(list.id())) {
+                Integer position = ordering.isRankMode() ? cardCount : next.position();
+                gen.writeObject(new CardResponseDTO(next.id(), next.title(), next.description(), position,
+                        next.createdAt(), next.updatedAt()));
+                cardCount++;
+                next = cards.hasNext() ? cards.next() : null;
+            }
+            gen.writeEndArray();
+            gen.writeNumberField("cardCount", cardCount);
+            total += cardCount;
+            gen.writeEndObject();
+        }
+
+        gen.writeEndArray();
+        gen.writeEndObject();
+        return total;
+    }
+}
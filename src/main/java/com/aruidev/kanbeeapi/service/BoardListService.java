@@ -4,67 +4,139 @@ import com.aruidev.kanbeeapi.dto.*;
 import com.aruidev.kanbeeapi.entity.Board;
 import com.aruidev.kanbeeapi.entity.BoardList;
 import com.aruidev.kanbeeapi.exception.NotFoundException;
-import com.aruidev.kanbeeapi.exception.BadRequestException;
 import com.aruidev.kanbeeapi.repository.BoardListRepository;
 import com.aruidev.kanbeeapi.repository.BoardRepository;
+import com.aruidev.kanbeeapi.repository.CardRepository;
 import com.aruidev.kanbeeapi.service.mapper.EntityDtoMapper;
+import com.aruidev.kanbeeapi.service.metrics.BoardMetrics;
+import com.aruidev.kanbeeapi.service.ordering.FullOrder;
+import com.aruidev.kanbeeapi.service.ordering.OrderingProperties;
+import com.aruidev.kanbeeapi.service.ordering.RankRebalancer;
+import com.aruidev.kanbeeapi.service.ordering.RankSlot;
+import com.aruidev.kanbeeapi.service.validation.TextSanitizer;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.UUID;
 
 @Service
 @Transactional(readOnly = true)
+@Timed("kanbee.service")
 public class BoardListService {
 
-    private static final int MAX_TITLE_LENGTH = 255;
-
     private final BoardRepository boardRepository;
     private final BoardListRepository boardListRepository;
+    private final CardRepository cardRepository;
+    private final OrderingProperties ordering;
+    private final RankRebalancer rankRebalancer;
+    private final BoardChangeTracker changeTracker;
+    private final BoardMetrics boardMetrics;
+
+    // null = aún no comprobado
+    private volatile Boolean positionConstraintDeferrable;
 
     public BoardListService(BoardRepository boardRepository,
-                            BoardListRepository boardListRepository) {
+                            BoardListRepository boardListRepository,
+                            CardRepository cardRepository,
+                            OrderingProperties ordering,
+                            RankRebalancer rankRebalancer,
+                            BoardChangeTracker changeTracker,
+                            BoardMetrics boardMetrics) {
         this.boardRepository = boardRepository;
         this.boardListRepository = boardListRepository;
+        this.cardRepository = cardRepository;
+        this.ordering = ordering;
+        this.rankRebalancer = rankRebalancer;
+        this.changeTracker = changeTracker;
+        this.boardMetrics = boardMetrics;
     }
 
     @Transactional
     public BoardListResponseDTO create(UUID boardId, BoardListCreateDTO dto) {
         Board board = boardRepository.findById(boardId)
                 .orElseThrow(() -> new NotFoundException("Board not found: " + boardId));
+        changeTracker.boardChanged(boardId);
+
+        if (ordering.isRankMode()) {
+            // Modo rank: solo se escribe la fila nueva; position guardada = siguiente libre (unicidad)
+            RankSlot slot = resolveRankSlotForList(boardId, null, dto.getPosition());
+            BoardList list = new BoardList(TextSanitizer.title(dto.getTitle()), nextFreePosition(boardId));
+            list.setRankKey(slot.rankKey());
+            list.setBoard(board);
+            boardListRepository.save(list);
+            changeTracker.listChanged(list);
+            BoardListResponseDTO response = EntityDtoMapper.toBoardListResponse(list, false, ordering.getMode());
+            response.setPosition(slot.index());
+            response.setCards(List.of());
+            return response;
+        }
 
         int position = resolveInsertionPositionForList(boardId, dto.getPosition());
 
         // Shift si inserta en el medio
-        boardListRepository.shiftPositionsUpFrom(boardId, position);
+        boardMetrics.listShift("shift_up", boardId, boardListRepository.shiftPositionsUpFrom(boardId, position));
 
-        String sanitizedTitle = sanitizeAndValidateTitle(dto.getTitle());
+        String sanitizedTitle = TextSanitizer.title(dto.getTitle());
         BoardList list = new BoardList(sanitizedTitle, position);
         list.setBoard(board);
         boardListRepository.save(list);
-        return EntityDtoMapper.toBoardListResponse(list, true);
+        changeTracker.listChanged(list);
+        // Una lista recién creada no tiene tarjetas: se responde vacía sin tocar la colección
+        BoardListResponseDTO response = EntityDtoMapper.toBoardListResponse(list, false);
+        response.setCards(List.of());
+        return response;
     }
 
     private int resolveInsertionPositionForList(UUID boardId, Integer requested) {
-        int max = boardListRepository.findTopByBoard_IdOrderByPositionDesc(boardId)
-                .map(bl -> bl.getPosition() + 1)
+        int max = boardListRepository.findMaxPosition(boardId)
+                .map(last -> last + 1)
                 .orElse(0);
         if (requested == null) return max;
         return Math.min(requested, max);
     }
 
+    // Modo rank: índice efectivo y clave entre los vecinos (excludeId = lista que se mueve)
+    private RankSlot resolveRankSlotForList(UUID boardId, Long excludeId, Integer requested) {
+        long count = boardListRepository.countInBoard(boardId, excludeId);
+        RankSlot slot = RankSlot.resolve(count, requested, index ->
+                boardListRepository.findRankKeys(boardId, excludeId, PageRequest.of(index, 1)).get(0),
+                () -> rankRebalancer.rebalanceLists(boardId));
+        rankRebalancer.checkListKey(boardId, slot.rankKey());
+        return slot;
+    }
+
+    // Modo rank: la position almacenada solo tiene que respetar uq_board_lists_board_position
+    private int nextFreePosition(UUID boardId) {
+        return boardListRepository.findMaxPosition(boardId)
+                .map(last -> last + 1)
+                .orElse(0);
+    }
+
+    // Respuesta con la position expuesta (en modo rank, el índice dentro del board)
+    private BoardListResponseDTO toResponse(BoardList list, boolean includeCards) {
+        BoardListResponseDTO dto = EntityDtoMapper.toBoardListResponse(list, includeCards, ordering.getMode());
+        if (ordering.isRankMode() && list.getRankKey() != null) {
+            dto.setPosition((int) boardListRepository.countBefore(list.getBoard().getId(), list.getRankKey()));
+        }
+        return dto;
+    }
+
     public BoardListResponseDTO get(Long id, boolean includeCards) {
         BoardList list = boardListRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("List no encontrada: " + id));
-        return EntityDtoMapper.toBoardListResponse(list, includeCards);
+        return toResponse(list, includeCards);
     }
 
     @Transactional
     public BoardListResponseDTO updateTitle(Long id, String newTitle) {
         BoardList list = boardListRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("List no encontrada: " + id));
-        list.setTitle(sanitizeAndValidateTitle(newTitle));
-        return EntityDtoMapper.toBoardListResponse(list, false);
+        list.setTitle(TextSanitizer.title(newTitle));
+        changeTracker.listChanged(list);
+        return toResponse(list, false);
     }
 
     @Transactional
@@ -72,6 +144,15 @@ public class BoardListService {
         BoardList list = boardListRepository.findById(listId)
                 .orElseThrow(() -> new NotFoundException("List not found: " + listId));
 
+        // Board origen y destino (pueden coincidir)
+        changeTracker.boardChanged(list.getBoard().getId());
+        changeTracker.boardChanged(moveDto.getBoardId());
+
+        if (ordering.isRankMode()) {
+            return moveByRank(list, moveDto);
+        }
+        UUID sourceBoardId = list.getBoard().getId();
+
         UUID targetBoardId = moveDto.getBoardId();
         int newPosRequested = moveDto.getPosition();
 
@@ -84,59 +165,117 @@ public class BoardListService {
 
             // Cerrar hueco en board original
             int oldPos = list.getPosition();
-            boardListRepository.closeGapAfterMoveDown(list.getBoard().getId(), oldPos, oldPos + 1);
+            parkMovingList(list);
+            boardMetrics.listShift("close_gap_down", sourceBoardId,
+                    boardListRepository.closeGapAfter(sourceBoardId, oldPos));
 
             // Resolver nueva posición en board destino
             int newPos = resolveInsertionPositionForList(targetBoardId, newPosRequested);
-            boardListRepository.shiftPositionsUpFrom(targetBoardId, newPos);
+            boardMetrics.listShift("shift_up", targetBoardId, boardListRepository.shiftPositionsUpFrom(targetBoardId, newPos));
 
             list.setBoard(targetBoard);
             list.setPosition(newPos);
+            listMoved(sourceBoardId, list);
             return EntityDtoMapper.toBoardListResponse(list, false);
         } else {
             int oldPos = list.getPosition();
             if (oldPos == newPosRequested) {
                 return EntityDtoMapper.toBoardListResponse(list, false);
             }
-            int maxPos = boardListRepository.findTopByBoard_IdOrderByPositionDesc(targetBoardId)
-                    .map(BoardList::getPosition)
-                    .orElse(0);
+            int maxPos = boardListRepository.findMaxPosition(targetBoardId).orElse(0);
             int newPos = Math.min(newPosRequested, maxPos);
+            parkMovingList(list);
 
             if (oldPos < newPos) {
                 // Movimiento hacia adelante
-                boardListRepository.closeGapAfterMoveDown(targetBoardId, oldPos, newPos);
+                boardMetrics.listShift("close_gap_down", targetBoardId, boardListRepository.closeGapAfterMoveDown(targetBoardId, oldPos, newPos));
             } else {
                 // Movimiento hacia atrás
-                boardListRepository.closeGapAfterMoveUp(targetBoardId, oldPos, newPos);
+                boardMetrics.listShift("close_gap_up", targetBoardId, boardListRepository.closeGapAfterMoveUp(targetBoardId, oldPos, newPos));
             }
             list.setPosition(newPos);
+            listMoved(sourceBoardId, list);
             return EntityDtoMapper.toBoardListResponse(list, false);
         }
     }
 
+    // Saca la lista de su posición antes de desplazar a sus vecinas (uq_board_lists_board_position).
+    // El flush también comprueba su versión: si otra transacción la ha movido, falla aquí y se reintenta
+    private void parkMovingList(BoardList list) {
+        list.setPosition(-1);
+        boardListRepository.flush();
+    }
+
+    // Modo rank: una sola fila escrita, sin huecos que cerrar en origen ni desplazamientos en destino
+    private BoardListResponseDTO moveByRank(BoardList list, BoardListMoveDTO moveDto) {
+        UUID targetBoardId = moveDto.getBoardId();
+        UUID sourceBoardId = list.getBoard().getId();
+        if (!sourceBoardId.equals(targetBoardId)) {
+            Board targetBoard = boardRepository.findById(targetBoardId)
+                    .orElseThrow(() -> new NotFoundException("Target board not found: " + targetBoardId));
+            list.setPosition(nextFreePosition(targetBoardId));
+            list.setBoard(targetBoard);
+        }
+        RankSlot slot = resolveRankSlotForList(targetBoardId, list.getId(), moveDto.getPosition());
+        list.setRankKey(slot.rankKey());
+        listMoved(sourceBoardId, list);
+        BoardListResponseDTO response = EntityDtoMapper.toBoardListResponse(list, false, ordering.getMode());
+        response.setPosition(slot.index());
+        return response;
+    }
+
+    // Movimiento entre boards: para el board origen la lista desaparece
+    private void listMoved(UUID sourceBoardId, BoardList list) {
+        if (!sourceBoardId.equals(list.getBoard().getId())) {
+            changeTracker.listDeleted(sourceBoardId, list.getId());
+            // Sus tarjetas no están en el log del board destino
+            changeTracker.changeLogReset(list.getBoard().getId());
+        }
+        changeTracker.listChanged(list);
+    }
+
+    // Reordenación completa del board con un único UPDATE. Con la unicidad diferible (migración 003) la
+    // permutación se comprueba al final de la sentencia; si no, primero se apartan las posiciones a negativos
+    @Transactional
+    public List<BoardListResponseDTO> reorder(UUID boardId, OrderUpdateDTO dto) {
+        if (!boardRepository.existsById(boardId)) {
+            throw new NotFoundException("Board not found: " + boardId);
+        }
+        changeTracker.listsReordered(boardId);
+        FullOrder order = FullOrder.of(dto.getIds(), boardListRepository.findIdsByBoardId(boardId));
+        if (order.size() > 0) {
+            if (!isPositionConstraintDeferrable()) {
+                boardListRepository.parkPositions(boardId);
+            }
+            boardListRepository.reorder(boardId, order.ids(), order.rankKeys());
+        }
+        return boardListRepository.findByBoard_IdOrderByPositionAsc(boardId).stream()
+                .map(list -> EntityDtoMapper.toBoardListResponse(list, false))
+                .toList();
+    }
+
+    private boolean isPositionConstraintDeferrable() {
+        Boolean deferrable = positionConstraintDeferrable;
+        if (deferrable == null) {
+            deferrable = boardListRepository.isPositionConstraintDeferrable();
+            positionConstraintDeferrable = deferrable;
+        }
+        return deferrable;
+    }
+
     @Transactional
     public void delete(Long id) {
         BoardList list = boardListRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("List not found: " + id));
         UUID boardId = list.getBoard().getId();
         int oldPos = list.getPosition();
+        // Tarjetas con un DELETE en bloque: la cascada de la lista ya no encuentra ninguna que borrar fila a fila.
+        // La lista se borra por el EntityManager para que no quede gestionada en el resto de la transacción
+        cardRepository.deleteByListId(id);
         boardListRepository.delete(list);
-        // Compactar hueco (oldPos a oldPos) usando rango consistente
-        boardListRepository.closeGapAfterMoveDown(boardId, oldPos, oldPos + 1);
-    }
-
-    private String sanitizeAndValidateTitle(String raw) {
-        if (raw == null) {
-            throw new BadRequestException("Title cannot be null");
-        }
-        String sanitized = raw.trim().replaceAll("\\s+", " ");
-        if (sanitized.isEmpty()) {
-            throw new BadRequestException("Title cannot be blank");
-        }
-        if (sanitized.length() > MAX_TITLE_LENGTH) {
-            throw new BadRequestException("Title length must be <= " + MAX_TITLE_LENGTH);
-        }
-        return sanitized;
+        changeTracker.listDeleted(boardId, id);
+        if (ordering.isRankMode()) return;
+        // Compactar hueco: todas las posteriores bajan una
+        boardMetrics.listShift("close_gap_down", boardId, boardListRepository.closeGapAfter(boardId, oldPos));
     }
 }
\ No newline at end of file
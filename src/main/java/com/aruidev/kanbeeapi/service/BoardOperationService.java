@@ -0,0 +1,281 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.*;
+import com.aruidev.kanbeeapi.entity.BoardList;
+import com.aruidev.kanbeeapi.entity.Card;
+import com.aruidev.kanbeeapi.exception.BadRequestException;
+import com.aruidev.kanbeeapi.exception.NotFoundException;
+import com.aruidev.kanbeeapi.repository.BoardListRepository;
+import com.aruidev.kanbeeapi.repository.BoardRepository;
+import com.aruidev.kanbeeapi.repository.CardRepository;
+import com.aruidev.kanbeeapi.service.concurrency.CardEditCoalescer;
+import com.aruidev.kanbeeapi.service.mapper.EntityDtoMapper;
+import com.aruidev.kanbeeapi.service.ordering.OrderingProperties;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Aplica una ráfaga de operaciones sobre un board en una sola transacción (todo o nada).
+// Cada operación delega en CardService / BoardListService, igual que su endpoint suelto: mismo saneado de texto,
+// métricas de desplazamientos y cambios entre boards. Las respuestas de tarjetas reflejan el estado final del lote.
+@Service
+@Transactional
+public class BoardOperationService {
+
+    private static final int MAX_OPERATIONS = 500;
+
+    private final BoardRepository boardRepository;
+    private final BoardListRepository boardListRepository;
+    private final CardRepository cardRepository;
+    private final CardService cardService;
+    private final BoardListService boardListService;
+    private final OrderingProperties ordering;
+    private final BoardChangeTracker changeTracker;
+    private final CardEditCoalescer editCoalescer;
+    private final EntityManager entityManager;
+
+    public BoardOperationService(BoardRepository boardRepository,
+                                 BoardListRepository boardListRepository,
+                                 CardRepository cardRepository,
+                                 CardService cardService,
+                                 BoardListService boardListService,
+                                 OrderingProperties ordering,
+                                 BoardChangeTracker changeTracker,
+                                 CardEditCoalescer editCoalescer,
+                                 EntityManager entityManager) {
+        this.boardRepository = boardRepository;
+        this.boardListRepository = boardListRepository;
+        this.cardRepository = cardRepository;
+        this.cardService = cardService;
+        this.boardListService = boardListService;
+        this.ordering = ordering;
+        this.changeTracker = changeTracker;
+        this.editCoalescer = editCoalescer;
+        this.entityManager = entityManager;
+    }
+
+    public List<BoardOperationResultDTO> apply(UUID boardId, List<BoardOperationDTO> operations) {
+        if (!boardRepository.existsById(boardId)) {
+            throw new NotFoundException("Board not found: " + boardId);
+        }
+        if (operations == null || operations.isEmpty()) {
+            throw new BadRequestException("Operations cannot be empty");
+        }
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new BadRequestException("Operations must be <= " + MAX_OPERATIONS);
+        }
+        changeTracker.boardChanged(boardId);
+
+        Batch batch = new Batch(boardId);
+        for (int i = 0; i < operations.size(); i++) {
+            BoardOperationDTO operation = operations.get(i);
+            try {
+                batch.apply(i, operation);
+            } catch (NotFoundException ex) {
+                throw new NotFoundException("Operation " + i + " (" + operation.getOp() + "): " + ex.getMessage());
+            } catch (BadRequestException ex) {
+                throw new BadRequestException("Operation " + i + " (" + operation.getOp() + "): " + ex.getMessage());
+            }
+        }
+        return batch.finish();
+    }
+
+    // Estado de una ejecución: resultados y tarjetas cuya respuesta se rellena al final
+    private final class Batch {
+
+        private final UUID boardId;
+        private final List<BoardOperationResultDTO> results = new ArrayList<>();
+        private final Map<BoardOperationResultDTO, Card> touchedCards = new LinkedHashMap<>();
+        // Índice de la operación que tocó cada tarjeta y de la última que pudo mover posiciones con un UPDATE
+        // masivo: solo las tocadas hasta esa se releen al final
+        private final Map<BoardOperationResultDTO, Integer> touchedAt = new HashMap<>();
+        private int lastShift = -1;
+        // Modo position: siguiente posición al final de cada lista mientras el lote solo añade al final
+        private final Map<Long, Integer> appendPositions = new HashMap<>();
+
+        Batch(UUID boardId) {
+            this.boardId = boardId;
+        }
+
+        void apply(int index, BoardOperationDTO op) {
+            if (op == null || op.getOp() == null) {
+                throw new BadRequestException("Operation type cannot be null");
+            }
+            if (mayShiftCards(op)) {
+                lastShift = index;
+                appendPositions.clear();
+            }
+            switch (op.getOp()) {
+                case "card.create" -> createCard(index, op);
+                case "card.update" -> updateCard(index, op);
+                case "card.move" -> moveCard(index, op);
+                case "card.delete" -> deleteCard(index, op);
+                case "list.create" -> createList(index, op);
+                case "list.update" -> updateList(index, op);
+                case "list.move" -> moveList(index, op);
+                case "list.delete" -> deleteList(index, op);
+                default -> throw new BadRequestException("Unknown operation: " + op.getOp());
+            }
+        }
+
+        // Altas al final: la primera de cada lista busca su posición, las siguientes la continúan sin consultas
+        private void createCard(int index, BoardOperationDTO op) {
+            BoardList list = listOfBoard(required(op.getListId(), "listId"));
+            CardCreateDTO dto = new CardCreateDTO(op.getTitle(), op.getDescription(), op.getPosition());
+            Integer next = op.getPosition() == null ? appendPositions.get(list.getId()) : null;
+            if (next != null) {
+                Card card = cardService.append(list, dto, next);
+                appendPositions.put(list.getId(), next + 1);
+                BoardOperationResultDTO result = new BoardOperationResultDTO(index, op.getOp(), "created");
+                results.add(result);
+                touch(index, result, card);
+                return;
+            }
+            CardResponseDTO card = cardService.create(list.getId(), dto);
+            cardResult(index, op, "created", card);
+            if (!ordering.isRankMode() && op.getPosition() == null) {
+                appendPositions.put(list.getId(), card.getPosition() + 1);
+            }
+        }
+
+        private void updateCard(int index, BoardOperationDTO op) {
+            Card card = cardOfBoard(required(op.getId(), "id"));
+            if (op.getTitle() == null && op.getDescription() == null) {
+                throw new BadRequestException("No changes provided");
+            }
+            // Una edición agrupada aún sin escribir es anterior a esta: se aplica primero para no pisarla después
+            CardUpdateDTO pending = editCoalescer.claim(card.getId());
+            String title = op.getTitle() != null ? op.getTitle() : pending != null ? pending.getTitle() : null;
+            String description = op.getDescription() != null ? op.getDescription()
+                    : pending != null ? pending.getDescription() : null;
+            cardResult(index, op, "updated", cardService.update(card.getId(), new CardUpdateDTO(title, description)));
+        }
+
+        private void moveCard(int index, BoardOperationDTO op) {
+            Card card = cardOfBoard(required(op.getId(), "id"));
+            BoardList target = listOfBoard(required(op.getListId(), "listId"));
+            int requested = required(op.getPosition(), "position");
+            cardResult(index, op, "moved", cardService.move(card.getId(), new CardMoveDTO(target.getId(), requested)));
+        }
+
+        private void deleteCard(int index, BoardOperationDTO op) {
+            Card card = cardOfBoard(required(op.getId(), "id"));
+            touchedCards.values().removeIf(touched -> touched == card);
+            cardService.delete(card.getId());
+            results.add(new BoardOperationResultDTO(index, op.getOp(), "deleted"));
+        }
+
+        // Las listas son pocas: se delegan en BoardListService tal cual
+        private void createList(int index, BoardOperationDTO op) {
+            BoardListResponseDTO list = boardListService.create(boardId,
+                    new BoardListCreateDTO(op.getTitle(), op.getPosition()));
+            results.add(listResult(index, op, "created", list));
+        }
+
+        private void updateList(int index, BoardOperationDTO op) {
+            BoardList list = listOfBoard(required(op.getId(), "id"));
+            results.add(listResult(index, op, "updated", boardListService.updateTitle(list.getId(), op.getTitle())));
+        }
+
+        private void moveList(int index, BoardOperationDTO op) {
+            BoardList list = listOfBoard(required(op.getId(), "id"));
+            BoardListResponseDTO moved = boardListService.move(list.getId(),
+                    new BoardListMoveDTO(boardId, required(op.getPosition(), "position")));
+            results.add(listResult(index, op, "moved", moved));
+        }
+
+        private void deleteList(int index, BoardOperationDTO op) {
+            BoardList list = listOfBoard(required(op.getId(), "id"));
+            // Sus tarjetas se borran en cascada: ya no hay respuesta final que rellenar
+            touchedCards.values().removeIf(card -> card.getBoardList().getId().equals(list.getId()));
+            boardListService.delete(list.getId());
+            results.add(new BoardOperationResultDTO(index, op.getOp(), "deleted"));
+        }
+
+        List<BoardOperationResultDTO> finish() {
+            if (!ordering.isRankMode()) {
+                // Los desplazamientos de operaciones posteriores son UPDATE masivos que no tocan las entidades
+                // cargadas: se releen para responder con la posición final
+                entityManager.flush();
+                touchedCards.forEach((result, card) -> {
+                    if (touchedAt.get(result) <= lastShift) {
+                        entityManager.refresh(card);
+                    }
+                    result.setCard(EntityDtoMapper.toCardResponse(card));
+                });
+            }
+            return results;
+        }
+
+        private void cardResult(int index, BoardOperationDTO op, String status, CardResponseDTO card) {
+            BoardOperationResultDTO result = new BoardOperationResultDTO(index, op.getOp(), status);
+            result.setCard(card);
+            results.add(result);
+            if (!ordering.isRankMode()) {
+                touch(index, result, cardRepository.findById(card.getId()).orElseThrow());
+            }
+        }
+
+        private void touch(int index, BoardOperationResultDTO result, Card card) {
+            touchedCards.put(result, card);
+            touchedAt.put(result, index);
+        }
+
+        // Ediciones de texto, listas nuevas y altas al final no cambian la posición de ninguna tarjeta ya existente
+        private boolean mayShiftCards(BoardOperationDTO op) {
+            return switch (op.getOp()) {
+                case "card.update", "list.update", "list.create" -> false;
+                case "card.create" -> op.getPosition() != null;
+                default -> true;
+            };
+        }
+
+        // En modo position un UPDATE masivo anterior del lote puede haber movido la fila: la entidad cargada
+        // tendría posición y versión viejas, y CardService las usa (hueco a cerrar, bloqueo optimista)
+        private Card current(Card card) {
+            if (!ordering.isRankMode()) {
+                entityManager.flush();
+                entityManager.refresh(card);
+            }
+            return card;
+        }
+
+        private BoardList listOfBoard(Long listId) {
+            BoardList list = boardListRepository.findById(listId)
+                    .orElseThrow(() -> new NotFoundException("List not found: " + listId));
+            if (!list.getBoard().getId().equals(boardId)) {
+                throw new BadRequestException("List " + listId + " does not belong to board " + boardId);
+            }
+            return list;
+        }
+
+        private Card cardOfBoard(Long cardId) {
+            Card card = cardRepository.findById(cardId)
+                    .orElseThrow(() -> new NotFoundException("Card not found: " + cardId));
+            if (!card.getBoardList().getBoard().getId().equals(boardId)) {
+                throw new BadRequestException("Card " + cardId + " does not belong to board " + boardId);
+            }
+            return current(card);
+        }
+    }
+
+    private static BoardOperationResultDTO listResult(int index, BoardOperationDTO op, String status, BoardListResponseDTO list) {
+        BoardOperationResultDTO result = new BoardOperationResultDTO(index, op.getOp(), status);
+        result.setList(list);
+        return result;
+    }
+
+    private static <T> T required(T value, String field) {
+        if (value == null) {
+            throw new BadRequestException(field + " cannot be null");
+        }
+        return value;
+    }
+}
@@ -3,72 +3,125 @@ package com.aruidev.kanbeeapi.service;
 import com.aruidev.kanbeeapi.dto.BoardCreateDTO;
 import com.aruidev.kanbeeapi.dto.BoardResponseDTO;
 import com.aruidev.kanbeeapi.entity.Board;
-import com.aruidev.kanbeeapi.exception.BadRequestException;
 import com.aruidev.kanbeeapi.exception.NotFoundException;
+import com.aruidev.kanbeeapi.repository.BoardChangeRepository;
+import com.aruidev.kanbeeapi.repository.BoardListRepository;
 import com.aruidev.kanbeeapi.repository.BoardRepository;
+import com.aruidev.kanbeeapi.repository.CardRepository;
 import com.aruidev.kanbeeapi.service.mapper.EntityDtoMapper;
+import com.aruidev.kanbeeapi.service.ordering.OrderingProperties;
+import com.aruidev.kanbeeapi.service.validation.TextSanitizer;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.UUID;
 
 @Service
 @Transactional(readOnly = true)
+@Timed("kanbee.service")
 public class BoardService {
 
-    private static final int MAX_TITLE_LENGTH = 255;
-
     private final BoardRepository boardRepository;
+    private final OrderingProperties ordering;
+    private final BoardSnapshotCache snapshotCache;
+    private final BoardChangeTracker changeTracker;
+    private final ExpandedBoardLoader expandedBoardLoader;
+    private final BoardChangeRepository boardChangeRepository;
+    private final BoardListRepository boardListRepository;
+    private final CardRepository cardRepository;
 
-    public BoardService(BoardRepository boardRepository) {
+    public BoardService(BoardRepository boardRepository,
+                        OrderingProperties ordering,
+                        BoardSnapshotCache snapshotCache,
+                        BoardChangeTracker changeTracker,
+                        ExpandedBoardLoader expandedBoardLoader,
+                        BoardChangeRepository boardChangeRepository,
+                        BoardListRepository boardListRepository,
+                        CardRepository cardRepository) {
         this.boardRepository = boardRepository;
+        this.ordering = ordering;
+        this.snapshotCache = snapshotCache;
+        this.changeTracker = changeTracker;
+        this.expandedBoardLoader = expandedBoardLoader;
+        this.boardChangeRepository = boardChangeRepository;
+        this.boardListRepository = boardListRepository;
+        this.cardRepository = cardRepository;
     }
 
     @Transactional
     public BoardResponseDTO create(BoardCreateDTO dto) {
-        String sanitized = sanitizeAndValidateTitle(dto.getTitle());
+        String sanitized = TextSanitizer.title(dto.getTitle());
         Board board = new Board(sanitized);
         boardRepository.save(board);
         return EntityDtoMapper.toBoardResponse(board, false);
     }
 
+    // Lecturas del snapshot en REPEATABLE_READ: ExpandedBoardLoader se une a esta transacción, y así
+    // cabecera (revisión), listas y tarjetas salen del mismo instante aunque otro commit llegue entre medias
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
     public BoardResponseDTO get(UUID id, boolean includeChildren) {
-        Board board = includeChildren
-                ? boardRepository.findWithBoardListsById(id)
-                  .orElseThrow(() -> new NotFoundException("Board not found: " + id))
-                : boardRepository.findById(id)
-                  .orElseThrow(() -> new NotFoundException("Board not found: " + id));
-        return EntityDtoMapper.toBoardResponse(board, includeChildren);
+        return getSnapshot(id, includeChildren).board();
+    }
+
+    // Versión actual del board: una lectura por PK, sin cargar listas ni tarjetas
+    public long getRevision(UUID id) {
+        return boardRepository.findRevisionById(id)
+                .orElseThrow(() -> new NotFoundException("Board not found: " + id));
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BoardSnapshot getSnapshot(UUID id, boolean includeChildren) {
+        return getSnapshot(id, includeChildren, 0);
+    }
+
+    // minRevision: no devolver de la caché un snapshot más viejo que la versión ya leída
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BoardSnapshot getSnapshot(UUID id, boolean includeChildren, long minRevision) {
+        if (includeChildren) {
+            // Snapshot expandido cacheado; se invalida tras cada commit que toca el board
+            return snapshotCache.get(id, minRevision, () -> expandedBoardLoader.load(id));
+        }
+        Board board = boardRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Board not found: " + id));
+        return new BoardSnapshot(board.getRevision(), EntityDtoMapper.toBoardResponse(board, false, ordering.getMode()));
+    }
+
+    // Clonado (p. ej. desde una plantilla) con un número fijo de sentencias INSERT ... SELECT, sin cargar
+    // entidades: cabecera, y listas + tarjetas en una sola sentencia con las mismas posiciones y claves
+    @Transactional
+    public BoardResponseDTO clone(UUID sourceId, String title) {
+        String sanitized = title != null ? TextSanitizer.title(title) : null;
+        UUID targetId = UUID.randomUUID();
+        if (boardRepository.cloneBoard(sourceId, targetId, sanitized) == 0) {
+            throw new NotFoundException("Board not found: " + sourceId);
+        }
+        boardListRepository.cloneListsAndCards(sourceId, targetId);
+        Board board = boardRepository.findById(targetId).orElseThrow();
+        return EntityDtoMapper.toBoardResponse(board, false);
     }
 
     @Transactional
     public BoardResponseDTO updateTitle(UUID id, String newTitle) {
         Board board = boardRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Board not found: " + id));
-        String sanitized = sanitizeAndValidateTitle(newTitle);
+        String sanitized = TextSanitizer.title(newTitle);
         board.setTitle(sanitized);
+        changeTracker.boardUpdated(id);
         return EntityDtoMapper.toBoardResponse(board, false);
     }
 
+    // Un DELETE por tabla, hijos primero: el número de sentencias no depende del tamaño del board
     @Transactional
     public void delete(UUID id) {
         if (!boardRepository.existsById(id)) {
             throw new NotFoundException("Board not found: " + id);
         }
-        boardRepository.deleteById(id);
-    }
-
-    private String sanitizeAndValidateTitle(String raw) {
-        if (raw == null) {
-            throw new BadRequestException("Title cannot be null");
-        }
-        String sanitized = raw.trim().replaceAll("\\s+", " ");
-        if (sanitized.isEmpty()) {
-            throw new BadRequestException("Title cannot be blank");
-        }
-        if (sanitized.length() > MAX_TITLE_LENGTH) {
-            throw new BadRequestException("Title length must be <= " + MAX_TITLE_LENGTH);
-        }
-        return sanitized;
+        changeTracker.boardDeleted(id);
+        boardChangeRepository.deleteByBoardId(id);
+        cardRepository.deleteByBoardId(id);
+        boardListRepository.deleteByBoardId(id);
+        boardRepository.deleteRowById(id);
     }
 }
\ No newline at end of file
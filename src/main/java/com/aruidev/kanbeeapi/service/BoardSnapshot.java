@@ -0,0 +1,7 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.BoardResponseDTO;
+
+// Board serializable junto a la versión leída antes de cargarlo (el contenido es igual o más nuevo)
+public record BoardSnapshot(long revision, BoardResponseDTO board) {
+}
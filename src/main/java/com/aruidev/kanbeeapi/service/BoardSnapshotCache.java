@@ -0,0 +1,66 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+// Cache en memoria de boards expandidos (listas + tarjetas), acotada por tamaño y TTL.
+// Métricas en /actuator/metrics/cache.gets, cache.evictions, ... con tag cache=boards.expanded
+@Component
+public class BoardSnapshotCache {
+
+    private static final int STAMP_STRIPES = 64;
+
+    private final Cache<UUID, BoardSnapshot> cache;
+
+    // Contador de invalidaciones por franja: un snapshot cargado mientras se invalidaba no se guarda
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    public BoardSnapshotCache(@Value("${kanbee.cache.boards.max-size:1000}") long maxSize,
+                              @Value("${kanbee.cache.boards.ttl:30s}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "boards.expanded");
+    }
+
+    public BoardSnapshot get(UUID boardId, Supplier<BoardSnapshot> loader) {
+        return get(boardId, 0, loader);
+    }
+
+    // minRevision: versión ya vista por quien pide (p. ej. en el primario, con réplica de lectura);
+    // un snapshot anterior, cargado de una réplica con retraso, se recarga y se sustituye
+    public BoardSnapshot get(UUID boardId, long minRevision, Supplier<BoardSnapshot> loader) {
+        BoardSnapshot cached = cache.getIfPresent(boardId);
+        if (cached != null && cached.revision() >= minRevision) {
+            return cached;
+        }
+        int stripe = stripe(boardId);
+        long stamp = stamps.get(stripe);
+        BoardSnapshot loaded = loader.get();
+        if (stamps.get(stripe) == stamp) {
+            cache.put(boardId, loaded);
+        }
+        return loaded;
+    }
+
+    public void evict(UUID boardId) {
+        stamps.incrementAndGet(stripe(boardId));
+        cache.invalidate(boardId);
+    }
+
+    private static int stripe(UUID boardId) {
+        return (boardId.hashCode() & 0x7fffffff) % STAMP_STRIPES;
+    }
+}
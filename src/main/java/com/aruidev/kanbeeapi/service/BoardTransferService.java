@@ -0,0 +1,235 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.BoardImportResultDTO;
+import com.aruidev.kanbeeapi.entity.Board;
+import com.aruidev.kanbeeapi.entity.BoardList;
+import com.aruidev.kanbeeapi.entity.Card;
+import com.aruidev.kanbeeapi.exception.BadRequestException;
+import com.aruidev.kanbeeapi.exception.NotFoundException;
+import com.aruidev.kanbeeapi.repository.BoardListRepository;
+import com.aruidev.kanbeeapi.repository.BoardRepository;
+import com.aruidev.kanbeeapi.repository.CardRepository;
+import com.aruidev.kanbeeapi.repository.projection.BoardListExportRow;
+import com.aruidev.kanbeeapi.repository.projection.BoardRow;
+import com.aruidev.kanbeeapi.repository.projection.CardExportRow;
+import com.aruidev.kanbeeapi.service.mapper.EntityDtoMapper;
+import com.aruidev.kanbeeapi.service.ordering.OrderingProperties;
+import com.aruidev.kanbeeapi.service.ordering.RankKeys;
+import com.aruidev.kanbeeapi.service.validation.TextSanitizer;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Exportación/importación de un board completo en NDJSON (un objeto JSON por línea):
+//   {"type":"board",...} y después cada lista seguida de sus tarjetas, en orden de posición.
+// Ambos sentidos van en streaming: la exportación lee las tarjetas con un cursor y la importación
+// parsea línea a línea e inserta en lotes JDBC, vaciando el contexto de persistencia cada BATCH filas.
+// En memoria solo queda el mapa id antiguo -> id nuevo de las listas. Las fechas no se conservan.
+@Service
+public class BoardTransferService {
+
+    // Igual que hibernate.jdbc.batch_size
+    private static final int BATCH = 50;
+
+    private final BoardRepository boardRepository;
+    private final BoardListRepository boardListRepository;
+    private final CardRepository cardRepository;
+    private final OrderingProperties ordering;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readTx;
+    private final TransactionTemplate writeTx;
+
+    public BoardTransferService(BoardRepository boardRepository,
+                                BoardListRepository boardListRepository,
+                                CardRepository cardRepository,
+                                OrderingProperties ordering,
+                                ObjectMapper objectMapper,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager) {
+        this.boardRepository = boardRepository;
+        this.boardListRepository = boardListRepository;
+        this.cardRepository = cardRepository;
+        this.ordering = ordering;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.writeTx = new TransactionTemplate(transactionManager);
+        // Listas y cursor de tarjetas deben ver el mismo estado
+        this.readTx.setReadOnly(true);
+        this.readTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public void export(UUID boardId, OutputStream out) {
+        readTx.executeWithoutResult(status -> {
+            BoardRow board = boardRepository.findRowById(boardId)
+                    .orElseThrow(() -> new NotFoundException("Board not found: " + boardId));
+            List<BoardListExportRow> lists = boardListRepository.findExportRowsByBoardId(boardId, ordering.readSort());
+            try (Stream<CardExportRow> cards = cardRepository.streamExportRowsByBoardId(boardId, ordering.boardCardSort());
+                 JsonGenerator gen = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+                // El OutputStream es del contenedor: se vacía pero no se cierra aquí
+                gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                writeLines(gen, board, lists, cards.iterator());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private void writeLines(JsonGenerator gen, BoardRow board, List<BoardListExportRow> lists,
+                            Iterator<CardExportRow> cards) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("type", "board");
+        gen.writeObjectField("id", board.id());
+        gen.writeStringField("title", board.title());
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+
+        CardExportRow next = cards.hasNext() ? cards.next() : null;
+        for (int listIndex = 0; listIndex < lists.size(); listIndex++) {
+            BoardListExportRow list = lists.get(listIndex);
+            gen.writeStartObject();
+            gen.writeStringField("type", "list");
+            gen.writeNumberField("id", list.id());
+            gen.writeStringField("title", list.title());
+            gen.writeNumberField("position", listIndex);
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+
+            // Las tarjetas llegan agrupadas por lista y en el mismo orden que las listas
+            int cardIndex = 0;
+            while (next != null && next.listId().equals(list.id())) {
+                gen.writeStartObject();
+                gen.writeStringField("type", "card");
+                gen.writeNumberField("id", next.id());
+                gen.writeNumberField("listId", next.listId());
+                gen.writeStringField("title", next.title());
+                gen.writeStringField("description", next.description());
+                gen.writeNumberField("position", cardIndex++);
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+                next = cards.hasNext() ? cards.next() : null;
+            }
+        }
+    }
+
+    // Crea un board nuevo con el contenido del NDJSON. Las posiciones se recalculan por orden de aparición
+    // (en modo rank también las claves), así se acepta un export de cualquier modo
+    public BoardImportResultDTO importBoard(InputStream in) {
+        return writeTx.execute(status -> {
+            try (MappingIterator<JsonNode> lines = objectMapper.readerFor(JsonNode.class).readValues(in)) {
+                return importLines(lines);
+            } catch (JsonProcessingException ex) {
+                String at = ex.getLocation() != null ? " at line " + ex.getLocation().getLineNr() : "";
+                throw new BadRequestException("Invalid NDJSON" + at + ": " + ex.getOriginalMessage());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private BoardImportResultDTO importLines(MappingIterator<JsonNode> lines) throws IOException {
+        if (!lines.hasNextValue()) {
+            throw new BadRequestException("Empty import");
+        }
+        JsonNode first = lines.nextValue();
+        if (!"board".equals(first.path("type").asText())) {
+            throw new BadRequestException("First line must be the board");
+        }
+        Board board = new Board(TextSanitizer.title(text(first, "title")));
+        boardRepository.save(board);
+        UUID boardId = board.getId();
+
+        Map<Long, ListState> listsById = new HashMap<>();
+        int cardCount = 0;
+        int pendingRows = 0;
+        while (lines.hasNextValue()) {
+            JsonNode line = lines.nextValue();
+            int lineNr = lines.getCurrentLocation().getLineNr();
+            switch (line.path("type").asText()) {
+                case "list" -> {
+                    long sourceId = requiredId(line, "id", lineNr);
+                    if (listsById.containsKey(sourceId)) {
+                        throw new BadRequestException("Duplicate list id " + sourceId + " at line " + lineNr);
+                    }
+                    BoardList list = new BoardList(TextSanitizer.title(text(line, "title")), listsById.size());
+                    if (ordering.isRankMode()) {
+                        list.setRankKey(RankKeys.sequential(listsById.size()));
+                    }
+                    list.setBoard(entityManager.getReference(Board.class, boardId));
+                    boardListRepository.save(list);
+                    listsById.put(sourceId, new ListState(list.getId()));
+                }
+                case "card" -> {
+                    long listId = requiredId(line, "listId", lineNr);
+                    ListState list = listsById.get(listId);
+                    if (list == null) {
+                        throw new BadRequestException("Card references unknown list " + listId + " at line " + lineNr);
+                    }
+                    int position = list.cards++;
+                    Card card = new Card(TextSanitizer.title(text(line, "title")),
+                            TextSanitizer.description(text(line, "description")), position);
+                    if (ordering.isRankMode()) {
+                        card.setRankKey(RankKeys.sequential(position));
+                    }
+                    card.setBoardList(entityManager.getReference(BoardList.class, list.id));
+                    cardRepository.save(card);
+                    cardCount++;
+                }
+                default -> throw new BadRequestException("Unknown line type at line " + lineNr);
+            }
+            // Lote completo: se envía y se sueltan las entidades gestionadas (memoria constante)
+            if (++pendingRows == BATCH) {
+                entityManager.flush();
+                entityManager.clear();
+                pendingRows = 0;
+            }
+        }
+        entityManager.flush();
+
+        Board saved = boardRepository.findById(boardId).orElseThrow();
+        return new BoardImportResultDTO(EntityDtoMapper.toBoardResponse(saved, false), listsById.size(), cardCount);
+    }
+
+    private static String text(JsonNode line, String field) {
+        JsonNode value = line.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static long requiredId(JsonNode line, String field, int lineNr) {
+        JsonNode value = line.get(field);
+        if (value == null || !value.canConvertToLong()) {
+            throw new BadRequestException("Missing " + field + " at line " + lineNr);
+        }
+        return value.asLong();
+    }
+
+    // Id nuevo de la lista y estado para colocar sus tarjetas
+    private static final class ListState {
+        private final Long id;
+        private int cards;
+
+        private ListState(Long id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.CardSearchHitDTO;
+import com.aruidev.kanbeeapi.dto.CardSearchPageDTO;
+import com.aruidev.kanbeeapi.exception.BadRequestException;
+import com.aruidev.kanbeeapi.exception.NotFoundException;
+import com.aruidev.kanbeeapi.repository.BoardRepository;
+import com.aruidev.kanbeeapi.repository.CardRepository;
+import com.aruidev.kanbeeapi.repository.projection.CardSearchRow;
+import com.aruidev.kanbeeapi.service.typeahead.CardTypeaheadIndex;
+import com.aruidev.kanbeeapi.service.validation.TextSanitizer;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+// Búsqueda de tarjetas de un board en el servidor, para no descargar el board expandido entero.
+// fulltext: tsvector + GIN (migración 007), resultados por ts_rank. like: subcadena, válido en cualquier BD.
+// auto (por defecto): fulltext si existe la columna; se comprueba en la primera búsqueda y se recuerda.
+// Autocompletado: índice en memoria (CardTypeaheadIndex) si está activado; si no, búsqueda like.
+@Service
+@Transactional(readOnly = true)
+@Timed("kanbee.service")
+public class CardSearchService {
+
+    public enum Mode { AUTO, FULLTEXT, LIKE }
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final int MAX_TYPEAHEAD_SIZE = 50;
+
+    private final CardRepository cardRepository;
+    private final BoardRepository boardRepository;
+    private final CardTypeaheadIndex typeaheadIndex;
+    private final Mode configuredMode;
+    private volatile Mode resolvedMode;
+
+    public CardSearchService(CardRepository cardRepository,
+                             BoardRepository boardRepository,
+                             CardTypeaheadIndex typeaheadIndex,
+                             @Value("${kanbee.search.mode:auto}") String mode) {
+        this.cardRepository = cardRepository;
+        this.boardRepository = boardRepository;
+        this.typeaheadIndex = typeaheadIndex;
+        this.configuredMode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public CardSearchPageDTO search(UUID boardId, String q, int offset, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (offset < 0) {
+            throw new BadRequestException("Offset must be >= 0");
+        }
+        return find(boardId, query(q), offset, limit, mode());
+    }
+
+    // Sin transacción propia: con el índice cargado la consulta no toca la BD
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CardSearchHitDTO> typeahead(UUID boardId, String q, int limit) {
+        if (limit < 1 || limit > MAX_TYPEAHEAD_SIZE) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_TYPEAHEAD_SIZE);
+        }
+        String query = query(q);
+        if (typeaheadIndex.isEnabled()) {
+            return typeaheadIndex.lookup(boardId, query, limit);
+        }
+        // Sin índice, subcadena: el texto completo no encuentra palabras a medio escribir
+        return find(boardId, query, 0, limit, Mode.LIKE).getResults();
+    }
+
+    private CardSearchPageDTO find(UUID boardId, String query, int offset, int limit, Mode mode) {
+        if (!boardRepository.existsById(boardId)) {
+            throw new NotFoundException("Board not found: " + boardId);
+        }
+        // Una fila de más para saber si hay otra página
+        List<CardSearchRow> rows = mode == Mode.FULLTEXT
+                ? cardRepository.searchFullText(boardId, query, limit + 1, offset)
+                : cardRepository.searchLike(boardId, likePattern(query), limit + 1, offset);
+        int size = Math.min(rows.size(), limit);
+        List<CardSearchHitDTO> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CardSearchRow row = rows.get(i);
+            results.add(new CardSearchHitDTO(row.getId(), row.getListId(), row.getTitle(), row.getDescription(),
+                    row.getScore()));
+        }
+        Integer next = rows.size() > limit ? offset + limit : null;
+        return new CardSearchPageDTO(boardId, query, results, next);
+    }
+
+    private static String query(String q) {
+        String query = q == null ? "" : TextSanitizer.collapseWhitespace(q);
+        if (query.isEmpty()) {
+            throw new BadRequestException("Query cannot be blank");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Query length must be <= " + MAX_QUERY_LENGTH);
+        }
+        return query;
+    }
+
+    // Modo efectivo; en auto, si falta la migración se queda en like hasta reiniciar
+    Mode mode() {
+        Mode mode = resolvedMode;
+        if (mode == null) {
+            mode = configuredMode != Mode.AUTO ? configuredMode
+                    : cardRepository.hasSearchVector() ? Mode.FULLTEXT : Mode.LIKE;
+            resolvedMode = mode;
+        }
+        return mode;
+    }
+
+    // '%texto%' en minúsculas con '!' como carácter de escape (ver CardRepository.searchLike)
+    private static String likePattern(String query) {
+        StringBuilder sb = new StringBuilder(query.length() + 2).append('%');
+        for (char c : query.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (c == '%' || c == '_' || c == '!') sb.append('!');
+            sb.append(c);
+        }
+        return sb.append('%').toString();
+    }
+}
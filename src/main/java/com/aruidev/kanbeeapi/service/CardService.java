@@ -7,76 +7,167 @@ import com.aruidev.kanbeeapi.exception.NotFoundException;
 import com.aruidev.kanbeeapi.exception.BadRequestException;
 import com.aruidev.kanbeeapi.repository.BoardListRepository;
 import com.aruidev.kanbeeapi.repository.CardRepository;
+import com.aruidev.kanbeeapi.repository.projection.CardPageRow;
 import com.aruidev.kanbeeapi.service.mapper.EntityDtoMapper;
+import com.aruidev.kanbeeapi.service.metrics.BoardMetrics;
+import com.aruidev.kanbeeapi.service.ordering.CardCursor;
+import com.aruidev.kanbeeapi.service.ordering.FullOrder;
+import com.aruidev.kanbeeapi.service.ordering.OrderingProperties;
+import com.aruidev.kanbeeapi.service.ordering.RankRebalancer;
+import com.aruidev.kanbeeapi.service.ordering.RankSlot;
+import com.aruidev.kanbeeapi.service.validation.TextSanitizer;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
 @Service
 @Transactional(readOnly = true)
+@Timed("kanbee.service")
 public class CardService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final CardRepository cardRepository;
     private final BoardListRepository boardListRepository;
+    private final OrderingProperties ordering;
+    private final RankRebalancer rankRebalancer;
+    private final BoardChangeTracker changeTracker;
+    private final BoardMetrics boardMetrics;
 
-    private static final int MAX_TITLE_LENGTH = 255;
-    private static final int MAX_DESCRIPTION_LENGTH = 2000;
-
-    public CardService(CardRepository cardRepository, BoardListRepository boardListRepository) {
+    public CardService(CardRepository cardRepository,
+                       BoardListRepository boardListRepository,
+                       OrderingProperties ordering,
+                       RankRebalancer rankRebalancer,
+                       BoardChangeTracker changeTracker,
+                       BoardMetrics boardMetrics) {
         this.cardRepository = cardRepository;
         this.boardListRepository = boardListRepository;
+        this.ordering = ordering;
+        this.rankRebalancer = rankRebalancer;
+        this.changeTracker = changeTracker;
+        this.boardMetrics = boardMetrics;
     }
 
     @Transactional
     public CardResponseDTO create(Long listId, CardCreateDTO dto) {
         BoardList list = boardListRepository.findById(listId)
                 .orElseThrow(() -> new NotFoundException("List not found: " + listId));
+        changeTracker.boardChanged(list.getBoard().getId());
 
-        String sanitizedTitle = sanitizeAndValidateTitle(dto.getTitle());
-        String sanitizedDescription = sanitizeAndValidateDescription(dto.getDescription());
+        String sanitizedTitle = TextSanitizer.title(dto.getTitle());
+        String sanitizedDescription = TextSanitizer.description(dto.getDescription());
+
+        if (ordering.isRankMode()) {
+            // Modo rank: solo se escribe la fila nueva
+            RankSlot slot = resolveRankSlotForCard(listId, null, dto.getPosition());
+            Card card = new Card(sanitizedTitle, sanitizedDescription, slot.index());
+            card.setRankKey(slot.rankKey());
+            card.setBoardList(list);
+            cardRepository.save(card);
+            changeTracker.cardChanged(card);
+            return EntityDtoMapper.toCardResponse(card);
+        }
 
         int position = resolveInsertionPositionForCard(listId, dto.getPosition());
-        cardRepository.shiftPositionsUpFrom(listId, position);
+        boardMetrics.cardShift("shift_up", listId, cardRepository.shiftPositionsUpFrom(listId, position));
         Card card = new Card(sanitizedTitle, sanitizedDescription, position);
         card.setBoardList(list);
         cardRepository.save(card);
+        changeTracker.cardChanged(card);
         return EntityDtoMapper.toCardResponse(card);
     }
 
-    private String sanitizeAndValidateTitle(String raw) {
-        if (raw == null) {
-            throw new BadRequestException("Title cannot be null");
-        }
-        String sanitized = raw.trim().replaceAll("\\s+", " ");
-        if (sanitized.isEmpty()) {
-            throw new BadRequestException("Title cannot be blank");
-        }
-        if (sanitized.length() > MAX_TITLE_LENGTH) {
-            throw new BadRequestException("Title length must be <= " + MAX_TITLE_LENGTH);
-        }
-        return sanitized;
-    }
-
-    private String sanitizeAndValidateDescription(String raw) {
-        if (raw == null) return null;
-        String sanitized = raw.trim();
-        if (sanitized.length() > MAX_DESCRIPTION_LENGTH) {
-            throw new BadRequestException("Description length must be <= " + MAX_DESCRIPTION_LENGTH);
-        }
-        return sanitized;
+    // Modo position, lotes de /operations: alta al final de una lista cuya siguiente posición ya conoce el
+    // llamador. Sin consultar la última posición ni desplazar (ambas vaciarían la cola de inserciones), así
+    // los INSERT del lote salen juntos en lotes JDBC
+    @Transactional
+    public Card append(BoardList list, CardCreateDTO dto, int position) {
+        Card card = new Card(TextSanitizer.title(dto.getTitle()), TextSanitizer.description(dto.getDescription()), position);
+        card.setBoardList(list);
+        cardRepository.save(card);
+        changeTracker.cardChanged(card);
+        return card;
     }
 
     private int resolveInsertionPositionForCard(Long listId, Integer requested) {
-        int max = cardRepository.findTopByBoardList_IdOrderByPositionDesc(listId)
-                .map(c -> c.getPosition() + 1)
+        int max = cardRepository.findMaxPosition(listId)
+                .map(last -> last + 1)
                 .orElse(0);
         if (requested == null) return max;
         return Math.min(requested, max);
     }
 
+    // Modo rank: índice efectivo y clave entre los vecinos (excludeId = tarjeta que se mueve)
+    private RankSlot resolveRankSlotForCard(Long listId, Long excludeId, Integer requested) {
+        long count = cardRepository.countInList(listId, excludeId);
+        RankSlot slot = RankSlot.resolve(count, requested, index ->
+                cardRepository.findRankKeys(listId, excludeId, PageRequest.of(index, 1)).get(0),
+                () -> rankRebalancer.rebalanceCards(listId));
+        rankRebalancer.checkCardKey(listId, slot.rankKey());
+        return slot;
+    }
+
+    // Respuesta con la position expuesta (en modo rank, el índice dentro de la lista)
+    private CardResponseDTO toResponse(Card card) {
+        CardResponseDTO dto = EntityDtoMapper.toCardResponse(card);
+        if (ordering.isRankMode() && card.getRankKey() != null) {
+            dto.setPosition((int) cardRepository.countBefore(card.getBoardList().getId(), card.getRankKey()));
+        }
+        return dto;
+    }
+
     public CardResponseDTO get(Long id) {
         Card card = cardRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Card not found: " + id));
-        return EntityDtoMapper.toCardResponse(card);
+        return toResponse(card);
+    }
+
+    // Ventana de tarjetas tras el cursor (null = desde el principio); solo lee limit + 1 filas
+    public CardPageDTO page(Long listId, String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!boardListRepository.existsById(listId)) {
+            throw new NotFoundException("List not found: " + listId);
+        }
+        boolean rank = ordering.isRankMode();
+        // Mismo orden que la condición del keyset; id desempata posiciones o claves repetidas
+        Pageable window = PageRequest.of(0, limit + 1, rank ? Sort.by("rankKey", "id") : Sort.by("position", "id"));
+        CardCursor cursor = after == null || after.isBlank() ? null : CardCursor.decode(after, ordering.getMode());
+        List<CardPageRow> rows;
+        if (cursor == null) {
+            rows = cardRepository.findPage(listId, window);
+        } else if (rank) {
+            rows = cardRepository.findPageAfterRank(listId, cursor.key(), cursor.id(), window);
+        } else {
+            rows = cardRepository.findPageAfterPosition(listId, cursor.positionKey(), cursor.id(), window);
+        }
+
+        int offset = cursor == null ? 0 : cursor.index() + 1;
+        int size = Math.min(rows.size(), limit);
+        List<CardResponseDTO> cards = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CardPageRow row = rows.get(i);
+            // En modo rank la position expuesta es el índice, que el cursor arrastra entre páginas
+            Integer position = rank ? offset + i : row.position();
+            cards.add(new CardResponseDTO(row.id(), row.title(), row.description(), position, row.createdAt(), row.updatedAt()));
+        }
+        String next = null;
+        if (rows.size() > limit) {
+            CardPageRow last = rows.get(size - 1);
+            CardCursor nextCursor = rank
+                    ? CardCursor.rank(last.rankKey(), last.id(), offset + size - 1)
+                    : CardCursor.position(last.position(), last.id(), offset + size - 1);
+            next = nextCursor.encode();
+        }
+        return new CardPageDTO(listId, cards, next);
     }
 
     @Transactional
@@ -86,25 +177,31 @@ public class CardService {
 
         boolean updated = false;
         if (dto.getTitle() != null) {
-            String sanitizedTitle = sanitizeAndValidateTitle(dto.getTitle());
+            String sanitizedTitle = TextSanitizer.title(dto.getTitle());
             card.setTitle(sanitizedTitle);
             updated = true;
         }
         if (dto.getDescription() != null) {
-            String sanitizedDescription = sanitizeAndValidateDescription(dto.getDescription());
+            String sanitizedDescription = TextSanitizer.description(dto.getDescription());
             card.setDescription(sanitizedDescription);
             updated = true;
         }
         if (!updated) {
             throw new BadRequestException("No changes provided");
         }
-        return EntityDtoMapper.toCardResponse(card);
+        changeTracker.cardChanged(card);
+        return toResponse(card);
     }
 
     @Transactional
     public CardResponseDTO move(Long cardId, CardMoveDTO moveDto) {
         Card card = cardRepository.findById(cardId)
                 .orElseThrow(() -> new NotFoundException("Card not found: " + cardId));
+        changeTracker.boardChanged(boardIdOf(card));
+
+        if (ordering.isRankMode()) {
+            return moveByRank(card, moveDto);
+        }
 
         Long sourceListId = card.getBoardList().getId();
         Long targetListId = moveDto.getListId();
@@ -114,14 +211,15 @@ public class CardService {
         if (listChange) {
             // Cerrar hueco en lista origen
             int oldPos = card.getPosition();
-            cardRepository.closeGapAfterMoveDown(sourceListId, oldPos, oldPos + 1);
+            boardMetrics.cardShift("close_gap_down", sourceListId, cardRepository.closeGapAfter(sourceListId, oldPos));
 
             // Insertar en lista destino
             BoardList targetList = boardListRepository.findById(targetListId)
                     .orElseThrow(() -> new NotFoundException("Target list not found: " + targetListId));
+            leaveBoardIfMovedAcross(card, targetList);
 
             int newPos = resolveInsertionPositionForCard(targetListId, newPosRequested);
-            cardRepository.shiftPositionsUpFrom(targetListId, newPos);
+            boardMetrics.cardShift("shift_up", targetListId, cardRepository.shiftPositionsUpFrom(targetListId, newPos));
 
             card.setBoardList(targetList);
             card.setPosition(newPos);
@@ -130,27 +228,70 @@ public class CardService {
             if (oldPos == newPosRequested) {
                 return EntityDtoMapper.toCardResponse(card);
             }
-            int maxPos = cardRepository.findTopByBoardList_IdOrderByPositionDesc(sourceListId)
-                    .map(Card::getPosition)
-                    .orElse(0);
+            int maxPos = cardRepository.findMaxPosition(sourceListId).orElse(0);
             int newPos = Math.min(newPosRequested, maxPos);
             if (oldPos < newPos) {
-                cardRepository.closeGapAfterMoveDown(sourceListId, oldPos, newPos);
+                boardMetrics.cardShift("close_gap_down", sourceListId, cardRepository.closeGapAfterMoveDown(sourceListId, oldPos, newPos));
             } else {
-                cardRepository.closeGapAfterMoveUp(sourceListId, oldPos, newPos);
+                boardMetrics.cardShift("close_gap_up", sourceListId, cardRepository.closeGapAfterMoveUp(sourceListId, oldPos, newPos));
             }
             card.setPosition(newPos);
         }
+        changeTracker.cardChanged(card);
+        return EntityDtoMapper.toCardResponse(card);
+    }
+
+    // Modo rank: una sola fila escrita, sin huecos que cerrar en origen ni desplazamientos en destino
+    private CardResponseDTO moveByRank(Card card, CardMoveDTO moveDto) {
+        Long targetListId = moveDto.getListId();
+        if (!card.getBoardList().getId().equals(targetListId)) {
+            BoardList targetList = boardListRepository.findById(targetListId)
+                    .orElseThrow(() -> new NotFoundException("Target list not found: " + targetListId));
+            leaveBoardIfMovedAcross(card, targetList);
+            card.setBoardList(targetList);
+        }
+        RankSlot slot = resolveRankSlotForCard(targetListId, card.getId(), moveDto.getPosition());
+        card.setRankKey(slot.rankKey());
+        card.setPosition(slot.index());
+        changeTracker.cardChanged(card);
         return EntityDtoMapper.toCardResponse(card);
     }
 
+    // Movimiento a una lista de otro board: para el board origen la tarjeta desaparece
+    private void leaveBoardIfMovedAcross(Card card, BoardList targetList) {
+        if (!boardIdOf(card).equals(targetList.getBoard().getId())) {
+            changeTracker.cardDeleted(card);
+        }
+    }
+
+    // Reordenación completa de la lista con un único UPDATE (sin desplazamientos por tarjeta)
+    @Transactional
+    public BoardListResponseDTO reorder(Long listId, OrderUpdateDTO dto) {
+        BoardList list = boardListRepository.findById(listId)
+                .orElseThrow(() -> new NotFoundException("List not found: " + listId));
+        changeTracker.cardsReordered(list);
+        FullOrder order = FullOrder.of(dto.getIds(), cardRepository.findIdsByListId(listId));
+        if (order.size() > 0) {
+            cardRepository.reorder(listId, order.ids(), order.rankKeys());
+        }
+        BoardList reordered = boardListRepository.findById(listId).orElseThrow();
+        return EntityDtoMapper.toBoardListResponse(reordered, true, ordering.getMode());
+    }
+
+    private static UUID boardIdOf(Card card) {
+        return card.getBoardList().getBoard().getId();
+    }
+
     @Transactional
     public void delete(Long id) {
         Card card = cardRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Card not found: " + id));
         Long listId = card.getBoardList().getId();
         int oldPos = card.getPosition();
+        changeTracker.cardDeleted(card);
         cardRepository.delete(card);
-        cardRepository.closeGapAfterMoveDown(listId, oldPos, oldPos + 1);
+        if (!ordering.isRankMode()) {
+            boardMetrics.cardShift("close_gap_down", listId, cardRepository.closeGapAfter(listId, oldPos));
+        }
     }
-}
\ No newline at end of file
+}
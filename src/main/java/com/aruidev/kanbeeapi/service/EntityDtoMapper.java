@@ -2,16 +2,31 @@ package com.aruidev.kanbeeapi.service.mapper;
 
 import com.aruidev.kanbeeapi.dto.*;
 import com.aruidev.kanbeeapi.entity.*;
+import com.aruidev.kanbeeapi.service.ordering.OrderingMode;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public final class EntityDtoMapper {
 
+    private static final Comparator<BoardList> LISTS_BY_POSITION = Comparator.comparing(BoardList::getPosition);
+    private static final Comparator<BoardList> LISTS_BY_RANK =
+            Comparator.comparing(BoardList::getRankKey, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(BoardList::getPosition);
+    private static final Comparator<Card> CARDS_BY_POSITION = Comparator.comparing(Card::getPosition);
+    private static final Comparator<Card> CARDS_BY_RANK =
+            Comparator.comparing(Card::getRankKey, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(Card::getPosition);
+
     private EntityDtoMapper() {}
 
     public static BoardResponseDTO toBoardResponse(Board board, boolean includeChildren) {
+        return toBoardResponse(board, includeChildren, OrderingMode.POSITION);
+    }
+
+    // En modo RANK la position expuesta es el índice dentro del orden por clave
+    public static BoardResponseDTO toBoardResponse(Board board, boolean includeChildren, OrderingMode mode) {
         BoardResponseDTO dto = new BoardResponseDTO(
                 board.getId(),
                 board.getTitle(),
@@ -19,16 +34,25 @@ public final class EntityDtoMapper {
                 board.getUpdatedAt()
         );
         if (includeChildren) {
-            List<BoardListResponseDTO> listDtos = board.getBoardLists().stream()
-                    .sorted(Comparator.comparing(BoardList::getPosition))
-                    .map(EntityDtoMapper::toBoardListResponseWithCards)
-                    .collect(Collectors.toList());
+            List<BoardList> lists = board.getBoardLists().stream()
+                    .sorted(mode == OrderingMode.RANK ? LISTS_BY_RANK : LISTS_BY_POSITION)
+                    .toList();
+            List<BoardListResponseDTO> listDtos = new ArrayList<>(lists.size());
+            for (int i = 0; i < lists.size(); i++) {
+                BoardListResponseDTO listDto = toBoardListResponse(lists.get(i), true, mode);
+                if (mode == OrderingMode.RANK) listDto.setPosition(i);
+                listDtos.add(listDto);
+            }
             dto.setBoardLists(listDtos);
         }
         return dto;
     }
 
     public static BoardListResponseDTO toBoardListResponse(BoardList list, boolean includeCards) {
+        return toBoardListResponse(list, includeCards, OrderingMode.POSITION);
+    }
+
+    public static BoardListResponseDTO toBoardListResponse(BoardList list, boolean includeCards, OrderingMode mode) {
         BoardListResponseDTO dto = new BoardListResponseDTO(
                 list.getId(),
                 list.getTitle(),
@@ -37,10 +61,15 @@ public final class EntityDtoMapper {
                 list.getUpdatedAt()
         );
         if (includeCards) {
-            List<CardResponseDTO> cards = list.getCards().stream()
-                    .sorted(Comparator.comparing(Card::getPosition))
-                    .map(EntityDtoMapper::toCardResponse)
-                    .collect(Collectors.toList());
+            List<Card> sorted = list.getCards().stream()
+                    .sorted(mode == OrderingMode.RANK ? CARDS_BY_RANK : CARDS_BY_POSITION)
+                    .toList();
+            List<CardResponseDTO> cards = new ArrayList<>(sorted.size());
+            for (int i = 0; i < sorted.size(); i++) {
+                CardResponseDTO cardDto = toCardResponse(sorted.get(i));
+                if (mode == OrderingMode.RANK) cardDto.setPosition(i);
+                cards.add(cardDto);
+            }
             dto.setCards(cards);
         }
         return dto;
@@ -60,4 +89,4 @@ public final class EntityDtoMapper {
                 card.getUpdatedAt()
         );
     }
-}
\ No newline at end of file
+}
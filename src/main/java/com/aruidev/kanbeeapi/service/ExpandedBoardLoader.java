@@ -0,0 +1,80 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.BoardListResponseDTO;
+import com.aruidev.kanbeeapi.dto.BoardResponseDTO;
+import com.aruidev.kanbeeapi.dto.CardResponseDTO;
+import com.aruidev.kanbeeapi.exception.NotFoundException;
+import com.aruidev.kanbeeapi.repository.BoardListRepository;
+import com.aruidev.kanbeeapi.repository.BoardRepository;
+import com.aruidev.kanbeeapi.repository.CardRepository;
+import com.aruidev.kanbeeapi.repository.projection.BoardListRow;
+import com.aruidev.kanbeeapi.repository.projection.BoardRow;
+import com.aruidev.kanbeeapi.repository.projection.CardRow;
+import com.aruidev.kanbeeapi.service.metrics.BoardMetrics;
+import com.aruidev.kanbeeapi.service.ordering.OrderingProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Lectura del board expandido con proyecciones planas: cabecera, listas y tarjetas en tres consultas
+// (sin el producto listas × tarjetas del EntityGraph y sin entidades gestionadas). Las tres en una
+// transacción REPEATABLE_READ (la de BoardService.getSnapshot si viene de ahí) para no mezclar commits.
+@Component
+@Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+public class ExpandedBoardLoader {
+
+    private final BoardRepository boardRepository;
+    private final BoardListRepository boardListRepository;
+    private final CardRepository cardRepository;
+    private final OrderingProperties ordering;
+    private final BoardMetrics boardMetrics;
+
+    public ExpandedBoardLoader(BoardRepository boardRepository,
+                               BoardListRepository boardListRepository,
+                               CardRepository cardRepository,
+                               OrderingProperties ordering,
+                               BoardMetrics boardMetrics) {
+        this.boardRepository = boardRepository;
+        this.boardListRepository = boardListRepository;
+        this.cardRepository = cardRepository;
+        this.ordering = ordering;
+        this.boardMetrics = boardMetrics;
+    }
+
+    public BoardSnapshot load(UUID boardId) {
+        // La cabecera (con la versión) se lee primero: el resto nunca es más viejo que su ETag
+        BoardRow board = boardRepository.findRowById(boardId)
+                .orElseThrow(() -> new NotFoundException("Board not found: " + boardId));
+        List<BoardListRow> lists = boardListRepository.findRowsByBoardId(boardId, ordering.readSort());
+        List<CardRow> cards = cardRepository.findRowsByBoardId(boardId, ordering.readSort());
+        boardMetrics.expandedBoard(lists.size(), cards.size());
+
+        // Las tarjetas llegan ordenadas dentro de cada lista; se agrupan por lista
+        Map<Long, List<CardResponseDTO>> cardsByList = new HashMap<>(lists.size() * 2);
+        for (CardRow row : cards) {
+            List<CardResponseDTO> listCards = cardsByList.computeIfAbsent(row.listId(), k -> new ArrayList<>());
+            Integer position = ordering.isRankMode() ? listCards.size() : row.position();
+            listCards.add(new CardResponseDTO(row.id(), row.title(), row.description(), position,
+                    row.createdAt(), row.updatedAt()));
+        }
+
+        List<BoardListResponseDTO> listDtos = new ArrayList<>(lists.size());
+        for (BoardListRow row : lists) {
+            Integer position = ordering.isRankMode() ? listDtos.size() : row.position();
+            BoardListResponseDTO listDto = new BoardListResponseDTO(row.id(), row.title(), position,
+                    row.createdAt(), row.updatedAt());
+            listDto.setCards(cardsByList.getOrDefault(row.id(), new ArrayList<>()));
+            listDtos.add(listDto);
+        }
+
+        BoardResponseDTO dto = new BoardResponseDTO(board.id(), board.title(), board.createdAt(), board.updatedAt());
+        dto.setBoardLists(listDtos);
+        return new BoardSnapshot(board.revision(), dto);
+    }
+}
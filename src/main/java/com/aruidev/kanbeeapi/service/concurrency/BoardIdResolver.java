@@ -0,0 +1,51 @@
+package com.aruidev.kanbeeapi.service.concurrency;
+
+import com.aruidev.kanbeeapi.repository.BoardListRepository;
+import com.aruidev.kanbeeapi.repository.CardRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+// Board de una tarjeta o lista para elegir carril. Un valor obsoleto (tras mover entre boards) solo cambia
+// el carril, no la corrección: los bloqueos de fila y @Version siguen aplicando
+@Component
+class BoardIdResolver {
+
+    private final CardRepository cardRepository;
+    private final BoardListRepository boardListRepository;
+    private final Cache<Long, UUID> cardBoards = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+    private final Cache<Long, UUID> listBoards = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+
+    BoardIdResolver(CardRepository cardRepository, BoardListRepository boardListRepository) {
+        this.cardRepository = cardRepository;
+        this.boardListRepository = boardListRepository;
+    }
+
+    // null si no existe: la mutación se ejecuta sin carril y el servicio responde 404
+    UUID ofCard(Long cardId) {
+        UUID boardId = cardBoards.getIfPresent(cardId);
+        if (boardId == null) {
+            boardId = cardRepository.findBoardIdById(cardId).orElse(null);
+            if (boardId != null) cardBoards.put(cardId, boardId);
+        }
+        return boardId;
+    }
+
+    UUID ofList(Long listId) {
+        UUID boardId = listBoards.getIfPresent(listId);
+        if (boardId == null) {
+            boardId = boardListRepository.findBoardIdById(listId).orElse(null);
+            if (boardId != null) listBoards.put(listId, boardId);
+        }
+        return boardId;
+    }
+}
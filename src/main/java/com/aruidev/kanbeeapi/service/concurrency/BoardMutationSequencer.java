@@ -0,0 +1,120 @@
+package com.aruidev.kanbeeapi.service.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Ejecuta las mutaciones de un mismo board de una en una, en un carril fijo (hash del board id).
+// Dos transacciones del mismo board no llegan a esperarse en los bloqueos de fila de Postgres, y boards
+// distintos siguen en paralelo en carriles distintos. Los movimientos entre boards se ordenan por el
+// board de origen; el destino sigue protegido por sus bloqueos de fila.
+// kanbee.sequencer.enabled=false ejecuta directamente en el hilo de la petición.
+@Component
+public class BoardMutationSequencer {
+
+    private final boolean enabled;
+    private final ThreadPoolExecutor[] lanes;
+    private final BoardIdResolver boardIdResolver;
+
+    // Carril del hilo actual: una mutación anidada se ejecuta en línea (sin reencolar ni bloquearse)
+    private static final ThreadLocal<Boolean> IN_LANE = ThreadLocal.withInitial(() -> false);
+
+    public BoardMutationSequencer(@Value("${kanbee.sequencer.enabled:false}") boolean enabled,
+                                  @Value("${kanbee.sequencer.lanes:0}") int lanes,
+                                  @Value("${kanbee.sequencer.queue-capacity:1000}") int queueCapacity,
+                                  BoardIdResolver boardIdResolver,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.boardIdResolver = boardIdResolver;
+        int count = enabled ? (lanes > 0 ? lanes : Runtime.getRuntime().availableProcessors()) : 0;
+        this.lanes = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            // Un hilo de plataforma por carril y cola acotada (llena = 503)
+            ThreadPoolExecutor lane = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    Thread.ofPlatform().name("board-lane-" + i).daemon(true).factory());
+            this.lanes[i] = lane;
+            // Pocas series (una por carril): tag de cardinalidad acotada
+            Gauge.builder("kanbee.sequencer.queue.depth", lane, l -> l.getQueue().size() + l.getActiveCount())
+                    .tag("lane", Integer.toString(i))
+                    .register(meterRegistry);
+        }
+    }
+
+    public <T> T call(UUID boardId, Supplier<T> mutation) {
+        if (!enabled || boardId == null || IN_LANE.get()) {
+            return mutation.get();
+        }
+        ThreadPoolExecutor lane = lanes[(boardId.hashCode() & 0x7fffffff) % lanes.length];
+        // Cola llena: RejectedExecutionException (503)
+        Future<T> result = lane.submit(() -> inLane(mutation));
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            // Si aún no ha empezado no llega a ejecutarse; la petición responde 503 como con la cola llena
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for board lane", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (ex.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private static <T> T inLane(Supplier<T> mutation) {
+        IN_LANE.set(true);
+        try {
+            return mutation.get();
+        } finally {
+            IN_LANE.set(false);
+        }
+    }
+
+    public void run(UUID boardId, Runnable mutation) {
+        call(boardId, () -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    // Por tarjeta o lista: el board se resuelve con una consulta por PK cacheada
+    public <T> T callForCard(Long cardId, Supplier<T> mutation) {
+        return call(enabled ? boardIdResolver.ofCard(cardId) : null, mutation);
+    }
+
+    public <T> T callForList(Long listId, Supplier<T> mutation) {
+        return call(enabled ? boardIdResolver.ofList(listId) : null, mutation);
+    }
+
+    public void runForCard(Long cardId, Runnable mutation) {
+        run(enabled ? boardIdResolver.ofCard(cardId) : null, mutation);
+    }
+
+    public void runForList(Long listId, Runnable mutation) {
+        run(enabled ? boardIdResolver.ofList(listId) : null, mutation);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(10, TimeUnit.SECONDS)) {
+                lane.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.aruidev.kanbeeapi.service.concurrency;
+
+import com.aruidev.kanbeeapi.dto.CardResponseDTO;
+import com.aruidev.kanbeeapi.dto.CardUpdateDTO;
+import com.aruidev.kanbeeapi.exception.BadRequestException;
+import com.aruidev.kanbeeapi.exception.ConflictException;
+import com.aruidev.kanbeeapi.exception.NotFoundException;
+import com.aruidev.kanbeeapi.service.CardService;
+import com.aruidev.kanbeeapi.service.validation.TextSanitizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Agrupa las ediciones de título/descripción de una tarjeta (autoguardado) durante una ventana corta y
+// escribe solo el último valor: una transacción por ventana en vez de una por pulsación.
+// La entrada pendiente sigue visible mientras se escribe (se quita después, y solo si no ha llegado otra
+// edición), así GET /cards/{id} siempre devuelve el valor más nuevo. El resto de lecturas (board expandido,
+// stream, /changes, export, búsqueda...) leen de la BD: antes de cualquier petición sobre un board se vuelcan
+// sus ediciones pendientes (flushBoard, desde CoalescingConfig), y esa escritura sube la revisión, así ETag,
+// cachés y eventos quedan bien. Los vencidos se escriben en hilos propios, no en el planificador compartido.
+// Al parar la app se vuelca todo.
+// kanbee.coalescing.enabled=false: PATCH /cards/{id} escribe directamente como siempre.
+@Component
+public class CardEditCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(CardEditCoalescer.class);
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final long flushIntervalMillis;
+    private final int flushThreads;
+    private final CardService cardService;
+    private final ConflictRetrier conflictRetrier;
+    private final BoardMutationSequencer sequencer;
+    private final BoardIdResolver boardIdResolver;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, PendingEdit> pending = new ConcurrentHashMap<>();
+    // Tarjetas con una escritura en curso (executor o flushBoard): una pasada lenta no encola la misma dos
+    // veces y flushBoard espera a que termine la que haya
+    private final Set<Long> flushing = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService flusher;
+
+    public CardEditCoalescer(@Value("${kanbee.coalescing.enabled:false}") boolean enabled,
+                             @Value("${kanbee.coalescing.window:500ms}") Duration window,
+                             @Value("${kanbee.coalescing.flush-interval-ms:100}") long flushIntervalMillis,
+                             @Value("${kanbee.coalescing.flush-threads:2}") int flushThreads,
+                             CardService cardService,
+                             ConflictRetrier conflictRetrier,
+                             BoardMutationSequencer sequencer,
+                             BoardIdResolver boardIdResolver,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.flushThreads = flushThreads;
+        this.cardService = cardService;
+        this.conflictRetrier = conflictRetrier;
+        this.sequencer = sequencer;
+        this.boardIdResolver = boardIdResolver;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Un hilo recorre las pendientes cada flush-interval-ms y reparte las vencidas entre los demás: los
+    // reintentos con backoff de una tarjeta no retrasan al resto ni a las tareas @Scheduled de la app
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        flusher = Executors.newScheduledThreadPool(flushThreads,
+                Thread.ofPlatform().name("card-edit-flush-", 0).daemon(true).factory());
+        flusher.scheduleWithFixedDelay(this::flushDue, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Valida como CardService.update, comprueba que la tarjeta existe y deja la edición pendiente
+    public CardResponseDTO buffer(Long id, CardUpdateDTO dto) {
+        if (dto.getTitle() == null && dto.getDescription() == null) {
+            throw new BadRequestException("No changes provided");
+        }
+        String title = dto.getTitle() != null ? TextSanitizer.title(dto.getTitle()) : null;
+        String description = dto.getDescription() != null ? TextSanitizer.description(dto.getDescription()) : null;
+        CardResponseDTO current = cardService.get(id);
+        UUID boardId = boardIdResolver.ofCard(id);
+        PendingEdit edit = pending.merge(id, new PendingEdit(boardId, title, description, System.nanoTime()),
+                PendingEdit::then);
+        meterRegistry.counter("kanbee.coalescing.edits", "result", "buffered").increment();
+        return apply(current, edit);
+    }
+
+    // Superpone la edición pendiente (si la hay) a una tarjeta leída de la BD
+    public CardResponseDTO overlay(CardResponseDTO card) {
+        if (card == null || pending.isEmpty()) return card;
+        PendingEdit edit = pending.get(card.getId());
+        return edit == null ? card : apply(card, edit);
+    }
+
+    // Para escrituras de la tarjeta dentro de otra transacción (p. ej. /operations): devuelve la edición
+    // pendiente para aplicarla antes y la retira solo si esa transacción confirma
+    public CardUpdateDTO claim(Long id) {
+        PendingEdit edit = pending.get(id);
+        if (edit == null) return null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.remove(id, edit);
+                }
+            });
+        } else {
+            pending.remove(id, edit);
+        }
+        return new CardUpdateDTO(edit.title(), edit.description());
+    }
+
+    // Antes de leer o modificar un board: escribe ya sus ediciones pendientes en el hilo de la petición.
+    // Si un hilo de volcado está escribiendo una de ellas se espera a que acabe: si no, su valor (más viejo)
+    // podría llegar a la BD después del nuevo
+    public void flushBoard(UUID boardId) {
+        if (boardId == null || pending.isEmpty()) return;
+        pending.forEach((id, edit) -> {
+            if (boardId.equals(edit.boardId())) flushNow(id);
+        });
+    }
+
+    public void flushForList(Long listId) {
+        if (pending.isEmpty()) return;
+        flushBoard(boardIdResolver.ofList(listId));
+    }
+
+    public void flushForCard(Long cardId) {
+        if (pending.isEmpty()) return;
+        flushBoard(boardIdResolver.ofCard(cardId));
+    }
+
+    void flushDue() {
+        if (pending.isEmpty()) return;
+        long now = System.nanoTime();
+        pending.forEach((id, edit) -> {
+            if (now - edit.since() < windowNanos || !flushing.add(id)) return;
+            try {
+                flusher.execute(() -> {
+                    try {
+                        flushCurrent(id);
+                    } finally {
+                        release(id);
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                // Parando: flushAll escribe lo que quede
+                release(id);
+            }
+        });
+    }
+
+    @PreDestroy
+    void flushAll() throws InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Coalesced edit flushers did not finish in time");
+            }
+        }
+        if (pending.isEmpty()) return;
+        log.info("Flushing {} coalesced card edits on shutdown", pending.size());
+        pending.forEach((id, edit) -> flushNow(id));
+    }
+
+    // Una sola escritura por tarjeta a la vez: se queda la tarjeta en flushing (esperando a la que esté en
+    // curso) y escribe la edición que haya pendiente en ese momento
+    private void flushNow(Long id) {
+        synchronized (flushing) {
+            while (!flushing.add(id)) {
+                try {
+                    flushing.wait();
+                } catch (InterruptedException ex) {
+                    // Sin esperar más: la edición sigue pendiente para la siguiente pasada
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        try {
+            flushCurrent(id);
+        } finally {
+            release(id);
+        }
+    }
+
+    private void release(Long id) {
+        synchronized (flushing) {
+            flushing.remove(id);
+            flushing.notifyAll();
+        }
+    }
+
+    // La de ahora y no la que vio la pasada que la encoló: puede haberse escrito ya o haber llegado otra
+    private void flushCurrent(Long id) {
+        PendingEdit edit = pending.get(id);
+        if (edit != null) flush(id, edit);
+    }
+
+    private void flush(Long id, PendingEdit edit) {
+        CardUpdateDTO dto = new CardUpdateDTO(edit.title(), edit.description());
+        try {
+            conflictRetrier.call("card.update",
+                    () -> sequencer.callForCard(id, () -> cardService.update(id, dto)), () -> null);
+            meterRegistry.counter("kanbee.coalescing.edits", "result", "flushed").increment();
+        } catch (ConflictException ex) {
+            // Se queda pendiente y se reintenta en la siguiente pasada
+            log.debug("Coalesced edit of card {} still conflicting, keeping it", id);
+            return;
+        } catch (NotFoundException ex) {
+            // La tarjeta se ha borrado mientras tanto
+            meterRegistry.counter("kanbee.coalescing.edits", "result", "dropped").increment();
+        } catch (RuntimeException ex) {
+            meterRegistry.counter("kanbee.coalescing.edits", "result", "dropped").increment();
+            log.warn("Dropping coalesced edit of card {}", id, ex);
+        }
+        // Solo si no ha llegado otra edición mientras tanto (merge crea una instancia nueva)
+        pending.remove(id, edit);
+    }
+
+    private static CardResponseDTO apply(CardResponseDTO card, PendingEdit edit) {
+        if (edit.title() != null) card.setTitle(edit.title());
+        if (edit.description() != null) card.setDescription(edit.description());
+        return card;
+    }
+
+    // Campos ya saneados (null = sin cambio); since = primera edición de la ventana, acota el retraso.
+    // boardId al encolar: una tarjeta no cambia de board sin pasar antes por flushBoard del de origen
+    private record PendingEdit(UUID boardId, String title, String description, long since) {
+        PendingEdit then(PendingEdit next) {
+            return new PendingEdit(boardId, next.title != null ? next.title : title,
+                    next.description != null ? next.description : description, since);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.aruidev.kanbeeapi.service.concurrency;
+
+import com.aruidev.kanbeeapi.exception.ConflictException;
+import com.aruidev.kanbeeapi.exception.NotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.StaleStateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Reintenta una operación transaccional completa cuando choca con otra concurrente (versión obsoleta,
+// unicidad de posiciones, serialización o deadlock). Backoff exponencial con jitter; agotados los intentos
+// lanza ConflictException (409) con el estado actual. Debe envolver la llamada al servicio, fuera de su transacción.
+@Component
+public class ConflictRetrier {
+
+    private static final Logger log = LoggerFactory.getLogger(ConflictRetrier.class);
+
+    // serialization_failure, deadlock_detected
+    private static final Set<String> CONFLICT_SQL_STATES = Set.of("40001", "40P01");
+    // unique_violation: solo es un choque sobre la unicidad de posiciones (cualquier otra es un error de datos).
+    // Las claves de rank no son únicas: dos claves iguales se desempatan por id
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final Set<String> ORDERING_CONSTRAINTS = Set.of("uq_board_lists_board_position");
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public ConflictRetrier(MeterRegistry meterRegistry,
+                           @Value("${kanbee.conflicts.max-attempts:4}") int maxAttempts,
+                           @Value("${kanbee.conflicts.initial-backoff:10ms}") Duration initialBackoff,
+                           @Value("${kanbee.conflicts.max-backoff:200ms}") Duration maxBackoff) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    // operation: nombre fijo y de baja cardinalidad (p. ej. "card.move"), usado como tag de las métricas
+    public <T> T call(String operation, Supplier<T> action, Supplier<?> current) {
+        // Dentro de una transacción ya abierta un reintento no vería datos nuevos: que decida el llamador
+        int attempts = TransactionSynchronizationManager.isActualTransactionActive() ? 1 : maxAttempts;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (RuntimeException ex) {
+                if (!isConflict(ex)) throw ex;
+                if (attempt >= attempts) {
+                    meterRegistry.counter("kanbee.conflicts.exhausted", "operation", operation).increment();
+                    log.debug("Conflict on {} after {} attempts", operation, attempt, ex);
+                    throw new ConflictException("Concurrent modification, retry with the current state", currentOrNull(current));
+                }
+                meterRegistry.counter("kanbee.conflicts.retries", "operation", operation).increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable action, Supplier<?> current) {
+        call(operation, () -> {
+            action.run();
+            return null;
+        }, current);
+    }
+
+    public static boolean isConflict(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConcurrencyFailureException
+                    || t instanceof OptimisticLockException
+                    || t instanceof StaleStateException) {
+                return true;
+            }
+            if (t instanceof SQLException sql && sql.getSQLState() != null
+                    && (CONFLICT_SQL_STATES.contains(sql.getSQLState()) || isOrderingViolation(sql))) {
+                return true;
+            }
+            if (t.getCause() == t) break;
+        }
+        return false;
+    }
+
+    // El nombre de la restricción va en el mensaje del servidor, traducido o no
+    private static boolean isOrderingViolation(SQLException sql) {
+        if (!UNIQUE_VIOLATION.equals(sql.getSQLState()) || sql.getMessage() == null) return false;
+        return ORDERING_CONSTRAINTS.stream().anyMatch(sql.getMessage()::contains);
+    }
+
+    private static Object currentOrNull(Supplier<?> current) {
+        try {
+            return current == null ? null : current.get();
+        } catch (NotFoundException ex) {
+            // Borrado por la operación concurrente
+            return null;
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while retrying", null);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.aruidev.kanbeeapi.service.events;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+// Evento compacto: qué cambió (tipo + ids) y la versión del board tras el commit.
+// El contenido se obtiene con GET de la tarjeta/lista o del board si hace falta.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BoardEvent(BoardEventType type, UUID boardId, Long id, Long listId, long revision) {
+}
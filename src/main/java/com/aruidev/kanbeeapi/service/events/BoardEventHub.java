@@ -0,0 +1,200 @@
+package com.aruidev.kanbeeapi.service.events;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Reparto en proceso de eventos SSE por board.
+// Una conexión inactiva solo cuesta su SseEmitter (petición asíncrona, sin hilo). Cada suscriptor tiene una
+// cola acotada: quien publica nunca se bloquea, y un cliente que no vacía su cola a tiempo se desconecta.
+// Los envíos se hacen en hilos virtuales, uno por suscriptor con datos pendientes.
+@Component
+public class BoardEventHub {
+
+    private static final Logger log = LoggerFactory.getLogger(BoardEventHub.class);
+
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders;
+    private final int bufferSize;
+    private final long timeoutMs;
+
+    @Autowired
+    public BoardEventHub(@Value("${kanbee.events.buffer-size:256}") int bufferSize,
+                         @Value("${kanbee.events.timeout:30m}") Duration timeout,
+                         MeterRegistry meterRegistry) {
+        this(bufferSize, timeout, meterRegistry, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    BoardEventHub(int bufferSize, Duration timeout, MeterRegistry meterRegistry, ExecutorService senders) {
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeout.toMillis();
+        this.senders = senders;
+        Gauge.builder("kanbee.events.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    // Registra un suscriptor; el primer evento ("ready") indica la versión de partida.
+    // La versión se lee después del alta: un cambio confirmado entre medias llega como evento (los ya incluidos
+    // en la versión se descartan); leída antes, ese evento se perdería con "ready" diciendo que está al día
+    public SseEmitter subscribe(UUID boardId, LongSupplier currentRevision) {
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(boardId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+        // Alta dentro de compute: no puede coincidir con la retirada de un conjunto vacío
+        subscribers.compute(boardId, (id, set) -> {
+            Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+        subscriberCount.incrementAndGet();
+        long revision;
+        try {
+            revision = currentRevision.getAsLong();
+        } catch (RuntimeException ex) {
+            remove(subscriber);
+            throw ex;
+        }
+        // Hasta aquí los eventos solo se encolan; el envío empieza por "ready"
+        subscriber.startRevision = revision;
+        subscriber.ready = SseEmitter.event().name("ready").id(Long.toString(revision))
+                .data(Map.of("boardId", boardId, "revision", revision), MediaType.APPLICATION_JSON);
+        scheduleDrain(subscriber);
+        return emitter;
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    public boolean hasSubscribers(UUID boardId) {
+        Set<Subscriber> set = subscribers.get(boardId);
+        return set != null && !set.isEmpty();
+    }
+
+    // Llamar tras el commit; no bloquea
+    public void publish(BoardEvent event) {
+        Set<Subscriber> set = subscribers.get(event.boardId());
+        if (set == null) return;
+        for (Subscriber subscriber : set) {
+            enqueue(subscriber, new Outgoing(event.revision(), SseEmitter.event()
+                    .name(event.type().wireName())
+                    .id(Long.toString(event.revision()))
+                    .data(event, MediaType.APPLICATION_JSON)));
+        }
+    }
+
+    // Mantiene vivas las conexiones a través de proxies y detecta clientes desaparecidos
+    @Scheduled(fixedDelayString = "${kanbee.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Set<Subscriber> set : subscribers.values()) {
+            for (Subscriber subscriber : set) {
+                enqueue(subscriber, new Outgoing(-1, SseEmitter.event().comment("hb")));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    private void enqueue(Subscriber subscriber, Outgoing event) {
+        if (subscriber.closed.get()) return;
+        if (!subscriber.queue.offer(event)) {
+            log.debug("Evicting slow SSE subscriber on board {}", subscriber.boardId);
+            remove(subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        if (subscriber.ready != null) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (!subscriber.readySent) {
+                subscriber.emitter.send(subscriber.ready);
+                subscriber.readySent = true;
+            }
+            Outgoing event;
+            while (!subscriber.closed.get() && (event = subscriber.queue.poll()) != null) {
+                if (event.revision() >= 0 && event.revision() <= subscriber.startRevision) {
+                    continue;
+                }
+                subscriber.emitter.send(event.event());
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // Cliente desconectado o emitter ya completado
+            remove(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Un evento encolado justo después del último poll no debe quedarse sin enviar
+        if (!subscriber.closed.get() && !subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) return;
+        subscriberCount.decrementAndGet();
+        subscriber.queue.clear();
+        subscribers.computeIfPresent(subscriber.boardId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    // revision = versión del board del evento; -1 en los que no son cambios (heartbeat)
+    private record Outgoing(long revision, SseEmitter.SseEventBuilder event) {}
+
+    private static final class Subscriber {
+        private final UUID boardId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Outgoing> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // ready se publica después de startRevision; readySent solo lo toca quien tiene draining
+        private volatile long startRevision;
+        private volatile SseEmitter.SseEventBuilder ready;
+        private boolean readySent;
+
+        private Subscriber(UUID boardId, SseEmitter emitter, BlockingQueue<Outgoing> queue) {
+            this.boardId = boardId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
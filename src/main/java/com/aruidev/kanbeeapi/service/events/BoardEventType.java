@@ -0,0 +1,40 @@
+package com.aruidev.kanbeeapi.service.events;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum BoardEventType {
+    CARD_UPSERTED(1, "card.upserted"),
+    CARD_DELETED(2, "card.deleted"),
+    LIST_UPSERTED(3, "list.upserted"),
+    LIST_DELETED(4, "list.deleted"),
+    // Orden completo reescrito (PUT .../order): id = lista (tarjetas) o null (listas del board)
+    CARDS_REORDERED(5, "cards.reordered"),
+    LISTS_REORDERED(6, "lists.reordered"),
+    BOARD_UPDATED(7, "board.updated"),
+    BOARD_DELETED(8, "board.deleted");
+
+    // Código estable para el log de cambios (board_changes.kind); no reutilizar valores
+    private final short code;
+    private final String wireName;
+
+    BoardEventType(int code, String wireName) {
+        this.code = (short) code;
+        this.wireName = wireName;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public static BoardEventType fromCode(short code) {
+        for (BoardEventType type : values()) {
+            if (type.code == code) return type;
+        }
+        throw new IllegalArgumentException("Unknown board event code: " + code);
+    }
+
+    @JsonValue
+    public String wireName() {
+        return wireName;
+    }
+}
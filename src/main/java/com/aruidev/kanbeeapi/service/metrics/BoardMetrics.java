@@ -0,0 +1,68 @@
+package com.aruidev.kanbeeapi.service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Amplificación de escritura y tamaño de boards.
+// kanbee.shift.rows: filas tocadas por cada desplazamiento de posiciones (tags entity y query).
+// kanbee.board.expanded.lists / .cards: tamaño de cada board expandido leído de BD.
+// El board no va como tag (cardinalidad sin límite): los desplazamientos grandes se registran en el log con su id.
+@Component
+public class BoardMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(BoardMetrics.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int largeShiftRows;
+    private final Map<String, DistributionSummary> shiftSummaries = new ConcurrentHashMap<>();
+    private final DistributionSummary expandedLists;
+    private final DistributionSummary expandedCards;
+
+    public BoardMetrics(MeterRegistry meterRegistry,
+                        @Value("${kanbee.metrics.large-shift-rows:500}") int largeShiftRows) {
+        this.meterRegistry = meterRegistry;
+        this.largeShiftRows = largeShiftRows;
+        this.expandedLists = DistributionSummary.builder("kanbee.board.expanded.lists")
+                .baseUnit("lists")
+                .register(meterRegistry);
+        this.expandedCards = DistributionSummary.builder("kanbee.board.expanded.cards")
+                .baseUnit("cards")
+                .register(meterRegistry);
+    }
+
+    // query: shift_up, close_gap_down o close_gap_up
+    public void cardShift(String query, Long listId, int rows) {
+        shiftSummary("card", query).record(rows);
+        if (rows >= largeShiftRows) {
+            log.info("Card shift {} moved {} rows in list {}", query, rows, listId);
+        }
+    }
+
+    public void listShift(String query, UUID boardId, int rows) {
+        shiftSummary("list", query).record(rows);
+        if (rows >= largeShiftRows) {
+            log.info("List shift {} moved {} rows in board {}", query, rows, boardId);
+        }
+    }
+
+    public void expandedBoard(int lists, int cards) {
+        expandedLists.record(lists);
+        expandedCards.record(cards);
+    }
+
+    private DistributionSummary shiftSummary(String entity, String query) {
+        return shiftSummaries.computeIfAbsent(entity + ":" + query, key -> DistributionSummary.builder("kanbee.shift.rows")
+                .baseUnit("rows")
+                .tag("entity", entity)
+                .tag("query", query)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,48 @@
+package com.aruidev.kanbeeapi.service.ordering;
+
+import com.aruidev.kanbeeapi.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Cursor opaco de GET /lists/{id}/cards: clave de orden + id de la última tarjeta devuelta
+// (keyset sobre (list_id, position) o (list_id, rank_key)) e índice para exponer position en modo rank.
+public record CardCursor(OrderingMode mode, String key, long id, int index) {
+
+    public static CardCursor position(int position, long id, int index) {
+        return new CardCursor(OrderingMode.POSITION, String.valueOf(position), id, index);
+    }
+
+    public static CardCursor rank(String rankKey, long id, int index) {
+        return new CardCursor(OrderingMode.RANK, rankKey, id, index);
+    }
+
+    public int positionKey() {
+        return Integer.parseInt(key);
+    }
+
+    public String encode() {
+        String raw = (mode == OrderingMode.RANK ? "r" : "p") + ":" + index + ":" + id + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // El cursor debe ser del modo de orden actual: uno emitido antes de cambiar de modo ya no sirve
+    public static CardCursor decode(String cursor, OrderingMode expected) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 4);
+            OrderingMode mode = switch (parts[0]) {
+                case "p" -> OrderingMode.POSITION;
+                case "r" -> OrderingMode.RANK;
+                default -> throw new IllegalArgumentException(parts[0]);
+            };
+            CardCursor decoded = new CardCursor(mode, parts[3], Long.parseLong(parts[2]), Integer.parseInt(parts[1]));
+            if (mode != expected || decoded.index() < 0 || (mode == OrderingMode.POSITION && decoded.positionKey() < 0)) {
+                throw new IllegalArgumentException(raw);
+            }
+            return decoded;
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
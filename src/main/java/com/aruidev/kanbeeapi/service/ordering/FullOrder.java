@@ -0,0 +1,32 @@
+package com.aruidev.kanbeeapi.service.ordering;
+
+import com.aruidev.kanbeeapi.exception.BadRequestException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Orden completo enviado por el cliente (PUT .../order): permutación exacta de los ids actuales,
+// serializada para los UPDATE con unnest(... WITH ORDINALITY)
+public record FullOrder(String ids, String rankKeys, int size) {
+
+    public static FullOrder of(List<Long> requested, List<Long> current) {
+        if (requested == null) {
+            throw new BadRequestException("Ids cannot be null");
+        }
+        Set<Long> seen = new HashSet<>(requested.size() * 2);
+        for (Long id : requested) {
+            if (id == null || !seen.add(id)) {
+                throw new BadRequestException("Ids must be non-null and unique");
+            }
+        }
+        if (requested.size() != current.size() || !seen.containsAll(current)) {
+            throw new BadRequestException("Ids must contain exactly the " + current.size() + " current items");
+        }
+        String ids = requested.stream().map(String::valueOf).collect(Collectors.joining(","));
+        // Claves nuevas equiespaciadas: el orden queda también listo para el modo rank
+        String rankKeys = String.join(",", RankKeys.spread(requested.size()));
+        return new FullOrder(ids, rankKeys, requested.size());
+    }
+}
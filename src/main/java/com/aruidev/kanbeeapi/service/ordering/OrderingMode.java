@@ -0,0 +1,8 @@
+package com.aruidev.kanbeeapi.service.ordering;
+
+public enum OrderingMode {
+    // Posiciones enteras densas; insertar o mover desplaza el resto de filas
+    POSITION,
+    // Claves de orden lexicográficas; insertar o mover escribe una sola fila
+    RANK
+}
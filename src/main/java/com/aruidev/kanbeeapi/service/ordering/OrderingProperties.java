@@ -0,0 +1,37 @@
+package com.aruidev.kanbeeapi.service.ordering;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "kanbee.ordering")
+public class OrderingProperties {
+
+    private OrderingMode mode = OrderingMode.POSITION;
+
+    // Longitud a partir de la cual una clave se considera demasiado densa
+    private int maxRankLength = 24;
+
+    public OrderingMode getMode() { return mode; }
+    public void setMode(OrderingMode mode) { this.mode = mode; }
+
+    public int getMaxRankLength() { return maxRankLength; }
+    public void setMaxRankLength(int maxRankLength) { this.maxRankLength = maxRankLength; }
+
+    public boolean isRankMode() { return mode == OrderingMode.RANK; }
+
+    // Orden de lectura para consultas con Sort sobre BoardList o Card
+    public Sort readSort() {
+        return isRankMode()
+                ? Sort.by("rankKey", "position", "id")
+                : Sort.by("position", "id");
+    }
+
+    // Orden de tarjetas de todo un board: primero por el orden de su lista, luego dentro de ella
+    public Sort boardCardSort() {
+        return isRankMode()
+                ? Sort.by("boardList.rankKey", "boardList.position", "boardList.id", "rankKey", "position", "id")
+                : Sort.by("boardList.position", "boardList.id", "position", "id");
+    }
+}
@@ -0,0 +1,91 @@
+package com.aruidev.kanbeeapi.service.ordering;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Claves de orden estilo LexoRank en base 36 (0-9a-z), comparables como String.
+// Ninguna clave termina en '0', así siempre existe otra clave entre dos dadas.
+public final class RankKeys {
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    // Huecos libres mínimos entre claves consecutivas tras un rebalanceo
+    private static final int SPREAD_GAP = 16;
+
+    private RankKeys() {}
+
+    // Clave estrictamente entre lo y hi; null significa sin límite por ese lado.
+    // Con lo >= hi no existe ninguna (claves duplicadas por inserciones concurrentes): quien llama rebalancea
+    public static String between(String lo, String hi) {
+        if (!ordered(lo, hi)) {
+            throw new IllegalArgumentException("Rank key bounds out of order: " + lo + " >= " + hi);
+        }
+        StringBuilder sb = new StringBuilder();
+        boolean hiBounded = hi != null;
+        for (int i = 0; ; i++) {
+            int l = lo != null && i < lo.length() ? digit(lo.charAt(i)) : 0;
+            int h = hiBounded && i < hi.length() ? digit(hi.charAt(i)) : BASE;
+            if (l == h) {
+                sb.append(DIGITS.charAt(l));
+                continue;
+            }
+            int mid = (l + h) >>> 1;
+            if (mid > l) {
+                sb.append(DIGITS.charAt(mid));
+                return sb.toString();
+            }
+            // h == l + 1: el prefijo ya es menor que hi, a partir de aquí no hay límite superior
+            sb.append(DIGITS.charAt(l));
+            hiBounded = false;
+        }
+    }
+
+    // Hay sitio entre lo y hi (null = sin límite)
+    public static boolean ordered(String lo, String hi) {
+        return lo == null || hi == null || lo.compareTo(hi) < 0;
+    }
+
+    // n claves equiespaciadas de igual longitud (inicialización y rebalanceo)
+    public static List<String> spread(int n) {
+        int width = 1;
+        long space = BASE;
+        while (space < (long) (n + 1) * SPREAD_GAP) {
+            space *= BASE;
+            width++;
+        }
+        long step = space / (n + 1);
+        List<String> keys = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            keys.add(encode(step * i, width));
+        }
+        return keys;
+    }
+
+    // Clave del index-ésimo elemento de una secuencia de longitud desconocida (importación en streaming):
+    // ancho fijo de 6 dígitos, con el mismo hueco que spread, hasta ~135 millones de elementos
+    public static String sequential(int index) {
+        return encode((index + 1L) * SPREAD_GAP, 6);
+    }
+
+    private static String encode(long value, int width) {
+        // step >= SPREAD_GAP, así que evitar el '0' final no rompe el orden
+        while (value % BASE == 0) {
+            value++;
+        }
+        char[] out = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            out[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return new String(out);
+    }
+
+    private static int digit(char c) {
+        int d = DIGITS.indexOf(c);
+        if (d < 0) {
+            throw new IllegalArgumentException("Invalid rank key character: " + c);
+        }
+        return d;
+    }
+}
@@ -0,0 +1,134 @@
+package com.aruidev.kanbeeapi.service.ordering;
+
+import com.aruidev.kanbeeapi.entity.BoardList;
+import com.aruidev.kanbeeapi.entity.Card;
+import com.aruidev.kanbeeapi.repository.BoardListRepository;
+import com.aruidev.kanbeeapi.repository.CardRepository;
+import com.aruidev.kanbeeapi.service.BoardChangeTracker;
+import com.aruidev.kanbeeapi.service.concurrency.ConflictRetrier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Reescribe en segundo plano las claves de listas/boards cuyas claves se han vuelto demasiado largas
+// (muchas inserciones en el mismo hueco) o que aún no tienen clave. También normaliza position.
+@Component
+public class RankRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(RankRebalancer.class);
+
+    private final OrderingProperties ordering;
+    private final CardRepository cardRepository;
+    private final BoardListRepository boardListRepository;
+    private final BoardChangeTracker changeTracker;
+    private final TransactionTemplate tx;
+
+    private final Set<Long> pendingCardLists = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> pendingBoards = ConcurrentHashMap.newKeySet();
+
+    public RankRebalancer(OrderingProperties ordering,
+                          CardRepository cardRepository,
+                          BoardListRepository boardListRepository,
+                          BoardChangeTracker changeTracker,
+                          PlatformTransactionManager transactionManager) {
+        this.ordering = ordering;
+        this.cardRepository = cardRepository;
+        this.boardListRepository = boardListRepository;
+        this.changeTracker = changeTracker;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    // Marca la lista si la clave recién generada supera el umbral
+    public void checkCardKey(Long listId, String rankKey) {
+        if (rankKey != null && rankKey.length() > ordering.getMaxRankLength()) {
+            pendingCardLists.add(listId);
+        }
+    }
+
+    // Marca el board si la clave recién generada supera el umbral
+    public void checkListKey(UUID boardId, String rankKey) {
+        if (rankKey != null && rankKey.length() > ordering.getMaxRankLength()) {
+            pendingBoards.add(boardId);
+        }
+    }
+
+    // Al arrancar en modo rank, encola los datos creados en modo position (sin clave)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingKeys() {
+        if (!ordering.isRankMode()) return;
+        pendingBoards.addAll(boardListRepository.findBoardIdsWithoutRankKey());
+        pendingCardLists.addAll(cardRepository.findListIdsWithoutRankKey());
+        log.info("Rank backfill queued: {} boards, {} lists", pendingBoards.size(), pendingCardLists.size());
+    }
+
+    @Scheduled(fixedDelayString = "${kanbee.ordering.rebalance-interval-ms:30000}")
+    public void rebalancePending() {
+        if (!ordering.isRankMode()) return;
+        for (UUID boardId : drain(pendingBoards)) {
+            try {
+                tx.executeWithoutResult(status -> rebalanceLists(boardId));
+            } catch (RuntimeException ex) {
+                if (ConflictRetrier.isConflict(ex)) {
+                    // Chocó con una mutación concurrente: se reintenta en la siguiente pasada
+                    pendingBoards.add(boardId);
+                    continue;
+                }
+                log.warn("Rank rebalance failed for board {}", boardId, ex);
+            }
+        }
+        for (Long listId : drain(pendingCardLists)) {
+            try {
+                tx.executeWithoutResult(status -> rebalanceCards(listId));
+            } catch (RuntimeException ex) {
+                if (ConflictRetrier.isConflict(ex)) {
+                    pendingCardLists.add(listId);
+                    continue;
+                }
+                log.warn("Rank rebalance failed for list {}", listId, ex);
+            }
+        }
+    }
+
+    // También en la transacción de una inserción cuyas vecinas comparten clave (RankSlot)
+    public void rebalanceCards(Long listId) {
+        List<Card> cards = cardRepository.findForRebalance(listId);
+        if (cards.isEmpty()) return;
+        changeTracker.boardChanged(cards.get(0).getBoardList().getBoard().getId());
+        List<String> keys = RankKeys.spread(cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            cards.get(i).setRankKey(keys.get(i));
+            cards.get(i).setPosition(i);
+        }
+    }
+
+    public void rebalanceLists(UUID boardId) {
+        List<BoardList> lists = boardListRepository.findForRebalance(boardId);
+        changeTracker.boardChanged(boardId);
+        List<String> keys = RankKeys.spread(lists.size());
+        // Dos fases para no chocar con uq_board_lists_board_position al renumerar
+        for (int i = 0; i < lists.size(); i++) {
+            lists.get(i).setPosition(-(i + 1));
+        }
+        boardListRepository.flush();
+        for (int i = 0; i < lists.size(); i++) {
+            lists.get(i).setRankKey(keys.get(i));
+            lists.get(i).setPosition(i);
+        }
+    }
+
+    private static <T> List<T> drain(Set<T> pending) {
+        List<T> batch = List.copyOf(pending);
+        batch.forEach(pending::remove);
+        return batch;
+    }
+}
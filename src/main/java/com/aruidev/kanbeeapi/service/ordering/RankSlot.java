@@ -0,0 +1,23 @@
+package com.aruidev.kanbeeapi.service.ordering;
+
+import java.util.function.IntFunction;
+
+// Hueco resuelto para insertar un elemento en modo rank: índice expuesto y clave nueva
+public record RankSlot(int index, String rankKey) {
+
+    // count: elementos del contenedor (sin el que se mueve); rankAt: clave en un índice dado;
+    // rebalance: reescribe las claves del contenedor en la transacción actual
+    public static RankSlot resolve(long count, Integer requested, IntFunction<String> rankAt, Runnable rebalance) {
+        int index = requested == null ? (int) count : (int) Math.min(requested, count);
+        String lo = index > 0 ? rankAt.apply(index - 1) : null;
+        String hi = index < count ? rankAt.apply(index) : null;
+        if (!RankKeys.ordered(lo, hi)) {
+            // Vecinas con la misma clave: no cabe ninguna entre ellas hasta rebalancear, y eso no puede
+            // esperar a la pasada en segundo plano
+            rebalance.run();
+            lo = rankAt.apply(index - 1);
+            hi = rankAt.apply(index);
+        }
+        return new RankSlot(index, RankKeys.between(lo, hi));
+    }
+}
@@ -0,0 +1,241 @@
+package com.aruidev.kanbeeapi.service.typeahead;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Índice invertido de las tarjetas de un board: término normalizado -> ids de tarjeta.
+// TreeMap para recorrer los términos por prefijo; cada lista de ids es un long[] ordenado (sin boxing).
+// Cada tarjeta guarda la versión del board en la que se indexó: los cambios ya incluidos en la carga
+// o superados por otro posterior (commits que llegan desordenados) se ignoran.
+// No es thread-safe: CardTypeaheadIndex lo usa siempre bajo su monitor.
+final class BoardTermIndex {
+
+    static final int MAX_TERM_LENGTH = 32;
+    static final int MAX_TERMS_PER_CARD = 64;
+
+    // Estimaciones aproximadas (JVM 64 bits, oops comprimidos) para el límite global de memoria
+    private static final int TERM_OVERHEAD = 96;
+    private static final int DOC_OVERHEAD = 120;
+    private static final int TOMBSTONE_OVERHEAD = 48;
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    // Borrados aplicados (id -> versión): un upsert anterior que llegue tarde no resucita la tarjeta
+    private final Map<Long, Long> removed = new HashMap<>();
+    private final long builtRevision;
+    private long bytes;
+
+    BoardTermIndex(long builtRevision) {
+        this.builtRevision = builtRevision;
+    }
+
+    // Carga inicial, coherente con builtRevision
+    void add(long id, Long listId, String title, String description) {
+        index(id, new Doc(listId, title, tokens(title, description), builtRevision));
+    }
+
+    // Alta o cambio confirmado en la versión 'revision' del board
+    void upsert(long id, Long listId, String title, String description, long revision) {
+        if (revision <= builtRevision) return;
+        Long removedAt = removed.get(id);
+        if (removedAt != null && removedAt >= revision) return;
+        Doc current = docs.get(id);
+        if (current != null) {
+            if (current.revision >= revision) return;
+            unindex(id, current);
+        }
+        index(id, new Doc(listId, title, tokens(title, description), revision));
+    }
+
+    void remove(long id, long revision) {
+        if (revision <= builtRevision) return;
+        Doc current = docs.get(id);
+        if (current != null) {
+            if (current.revision > revision) return;
+            unindex(id, current);
+        }
+        if (!removed.containsKey(id)) bytes += TOMBSTONE_OVERHEAD;
+        removed.merge(id, revision, Math::max);
+    }
+
+    // Tarjetas cuyo texto contiene, para cada palabra de la consulta, un término que empieza por ella.
+    // Primero las que lo cumplen solo con el título; después por título más corto e id
+    List<Hit> lookup(String query, int limit) {
+        String[] queryTokens = tokens(query, null);
+        if (queryTokens.length == 0) return List.of();
+        long[] candidates = null;
+        for (String token : queryTokens) {
+            long[] matches = prefixMatches(token);
+            candidates = candidates == null ? matches : intersect(candidates, matches);
+            if (candidates.length == 0) return List.of();
+        }
+        List<Hit> hits = new ArrayList<>(candidates.length);
+        for (long id : candidates) {
+            Doc doc = docs.get(id);
+            double score = titleMatches(doc.titleTerms(), queryTokens) ? 1.0 : 0.5;
+            hits.add(new Hit(id, doc.listId(), doc.title(), score));
+        }
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparingInt(hit -> hit.title().length())
+                .thenComparingLong(Hit::id));
+        return hits.size() > limit ? hits.subList(0, limit) : hits;
+    }
+
+    long bytes() {
+        return bytes;
+    }
+
+    int size() {
+        return docs.size();
+    }
+
+    private void index(long id, Doc doc) {
+        docs.put(id, doc);
+        bytes += DOC_OVERHEAD + doc.title().length() + 8L * (doc.terms().length + doc.titleTerms().length);
+        for (String term : doc.terms()) {
+            Postings postings = terms.get(term);
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(term, postings);
+                bytes += TERM_OVERHEAD + term.length();
+            }
+            if (postings.add(id)) bytes += 8;
+        }
+    }
+
+    private void unindex(long id, Doc doc) {
+        docs.remove(id);
+        bytes -= DOC_OVERHEAD + doc.title().length() + 8L * (doc.terms().length + doc.titleTerms().length);
+        for (String term : doc.terms()) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(id)) {
+                bytes -= 8;
+                if (postings.size == 0) {
+                    terms.remove(term);
+                    bytes -= TERM_OVERHEAD + term.length();
+                }
+            }
+        }
+    }
+
+    // Unión ordenada y sin repetidos de las listas de todos los términos con ese prefijo
+    private long[] prefixMatches(String prefix) {
+        NavigableMap<String, Postings> range = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.isEmpty()) return new long[0];
+        if (range.size() == 1) {
+            Postings only = range.firstEntry().getValue();
+            return Arrays.copyOf(only.ids, only.size);
+        }
+        int total = 0;
+        for (Postings postings : range.values()) total += postings.size;
+        long[] all = new long[total];
+        int n = 0;
+        for (Postings postings : range.values()) {
+            System.arraycopy(postings.ids, 0, all, n, postings.size);
+            n += postings.size;
+        }
+        Arrays.sort(all);
+        int unique = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) all[unique++] = all[i];
+        }
+        return Arrays.copyOf(all, unique);
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static boolean titleMatches(String[] titleTerms, String[] queryTokens) {
+        for (String token : queryTokens) {
+            boolean found = false;
+            for (String term : titleTerms) {
+                if (term.startsWith(token)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    // Minúsculas, sin tildes ("canción" -> "cancion") y partido por todo lo que no sea letra o dígito
+    static String[] tokens(String title, String description) {
+        Set<String> out = new LinkedHashSet<>();
+        collect(title, out);
+        collect(description, out);
+        return out.toArray(String[]::new);
+    }
+
+    private static void collect(String text, Set<String> out) {
+        if (text == null || text.isEmpty()) return;
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i <= folded.length() && out.size() < MAX_TERMS_PER_CARD; i++) {
+            char c = i < folded.length() ? folded.charAt(i) : ' ';
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(c)) {
+                if (term.length() < MAX_TERM_LENGTH) term.append(c);
+            } else if (!term.isEmpty()) {
+                out.add(term.toString());
+                term.setLength(0);
+            }
+        }
+    }
+
+    record Hit(long id, Long listId, String title, double score) {}
+
+    // terms: de título y descripción; titleTerms: solo del título (puntuación)
+    private record Doc(Long listId, String title, String[] terms, String[] titleTerms, long revision) {
+        Doc(Long listId, String title, String[] terms, long revision) {
+            this(listId, title, terms, tokens(title, null), revision);
+        }
+    }
+
+    // Ids ordenados; inserción y borrado por búsqueda binaria
+    private static final class Postings {
+        private long[] ids = new long[2];
+        private int size;
+
+        boolean add(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) return false;
+            at = -at - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+            return true;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) return false;
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.aruidev.kanbeeapi.service.typeahead;
+
+import com.aruidev.kanbeeapi.dto.CardSearchHitDTO;
+import com.aruidev.kanbeeapi.entity.Card;
+import com.aruidev.kanbeeapi.exception.NotFoundException;
+import com.aruidev.kanbeeapi.repository.BoardRepository;
+import com.aruidev.kanbeeapi.repository.CardRepository;
+import com.aruidev.kanbeeapi.repository.projection.CardExportRow;
+import com.aruidev.kanbeeapi.service.events.BoardEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Índice en memoria para autocompletar tarjetas por prefijo sin ir a la BD en cada pulsación.
+// Se construye por board en la primera consulta (una lectura de sus tarjetas) y después se mantiene con los
+// cambios confirmados que notifica BoardChangeTracker: altas, ediciones y movimientos de tarjetas se aplican
+// sobre el índice; borrados de listas o del board y movimientos de listas entre boards lo descartan.
+// Los boards se descartan por LRU cuando la memoria estimada del conjunto supera kanbee.typeahead.max-memory.
+// kanbee.typeahead.enabled=false: no se construye nada y el endpoint usa CardSearchService.
+@Component
+public class CardTypeaheadIndex {
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final BoardRepository boardRepository;
+    private final CardRepository cardRepository;
+    private final TransactionTemplate readTx;
+    private final MeterRegistry meterRegistry;
+
+    // Orden de acceso (LRU); el mapa y totalBytes se protegen con el monitor del mapa (operaciones O(1)),
+    // y cada índice con el monitor de su Entry (carga, consultas y cambios del mismo board)
+    private final LinkedHashMap<UUID, Entry> boards = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    public CardTypeaheadIndex(@Value("${kanbee.typeahead.enabled:false}") boolean enabled,
+                              @Value("${kanbee.typeahead.max-memory:64MB}") DataSize maxMemory,
+                              BoardRepository boardRepository,
+                              CardRepository cardRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxBytes = maxMemory.toBytes();
+        this.boardRepository = boardRepository;
+        this.cardRepository = cardRepository;
+        this.meterRegistry = meterRegistry;
+        this.readTx = new TransactionTemplate(transactionManager);
+        // Versión del board y tarjetas deben ver el mismo estado. Sin readOnly a propósito: con réplica de
+        // lectura la carga va al primario, que ya incluye todo cambio notificado (una réplica con retraso
+        // perdería los cambios aplicados antes de la carga)
+        this.readTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        meterRegistry.gauge("kanbee.typeahead.bytes", totalBytes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<CardSearchHitDTO> lookup(UUID boardId, String query, int limit) {
+        Entry entry;
+        synchronized (boards) {
+            entry = boards.computeIfAbsent(boardId, id -> new Entry());
+        }
+        List<BoardTermIndex.Hit> hits;
+        long bytes;
+        synchronized (entry) {
+            if (entry.index == null) {
+                try {
+                    entry.index = build(boardId);
+                } catch (RuntimeException ex) {
+                    discard(boardId, entry);
+                    throw ex;
+                }
+            }
+            hits = entry.index.lookup(query, limit);
+            bytes = entry.index.bytes();
+        }
+        account(boardId, entry, bytes);
+        return hits.stream()
+                .map(hit -> new CardSearchHitDTO(hit.id(), hit.listId(), hit.title(), null, hit.score()))
+                .toList();
+    }
+
+    // Cambios de una transacción confirmada (afterCommit); cards: tarjetas con CARD_UPSERTED, por id
+    public void apply(List<BoardEvent> committed, Map<Long, Card> cards, Collection<UUID> resets) {
+        if (!enabled) return;
+        for (BoardEvent event : committed) {
+            switch (event.type()) {
+                case CARD_UPSERTED -> {
+                    Card card = cards.get(event.id());
+                    if (card == null) {
+                        invalidate(event.boardId());
+                    } else {
+                        // Entidad ya desligada: solo campos simples y el id de la lista (proxy sin inicializar)
+                        update(event.boardId(), index -> index.upsert(card.getId(), card.getBoardList().getId(),
+                                card.getTitle(), card.getDescription(), event.revision()));
+                    }
+                }
+                case CARD_DELETED -> update(event.boardId(), index -> index.remove(event.id(), event.revision()));
+                case LIST_DELETED, BOARD_DELETED -> invalidate(event.boardId());
+                default -> {
+                    // Títulos de listas y reordenaciones no cambian el índice
+                }
+            }
+        }
+        resets.forEach(this::invalidate);
+    }
+
+    public void invalidate(UUID boardId) {
+        if (!enabled) return;
+        synchronized (boards) {
+            Entry entry = boards.remove(boardId);
+            if (entry != null) totalBytes.addAndGet(-entry.accounted);
+        }
+    }
+
+    private void update(UUID boardId, Consumer<BoardTermIndex> change) {
+        Entry entry;
+        synchronized (boards) {
+            entry = boards.get(boardId);
+        }
+        if (entry == null) return;
+        long bytes;
+        synchronized (entry) {
+            // Sin cargar todavía: la carga leerá ya este commit
+            if (entry.index == null) return;
+            change.accept(entry.index);
+            bytes = entry.index.bytes();
+        }
+        account(boardId, entry, bytes);
+    }
+
+    private BoardTermIndex build(UUID boardId) {
+        BoardTermIndex index = readTx.execute(status -> {
+            long revision = boardRepository.findRevisionById(boardId)
+                    .orElseThrow(() -> new NotFoundException("Board not found: " + boardId));
+            BoardTermIndex built = new BoardTermIndex(revision);
+            try (Stream<CardExportRow> rows = cardRepository.streamExportRowsByBoardId(boardId, Sort.unsorted())) {
+                rows.forEach(row -> built.add(row.id(), row.listId(), row.title(), row.description()));
+            }
+            return built;
+        });
+        meterRegistry.counter("kanbee.typeahead.builds").increment();
+        return index;
+    }
+
+    // Actualiza la memoria del board y descarta los menos usados hasta quedar bajo el límite.
+    // Un board que por sí solo supera el límite se sirve pero no se conserva
+    private void account(UUID boardId, Entry entry, long bytes) {
+        synchronized (boards) {
+            if (boards.get(boardId) != entry) return;
+            totalBytes.addAndGet(bytes - entry.accounted);
+            entry.accounted = bytes;
+            Iterator<Entry> eldest = boards.values().iterator();
+            while (totalBytes.get() > maxBytes && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                totalBytes.addAndGet(-evicted.accounted);
+                meterRegistry.counter("kanbee.typeahead.evictions").increment();
+            }
+        }
+    }
+
+    private void discard(UUID boardId, Entry entry) {
+        synchronized (boards) {
+            if (boards.remove(boardId, entry)) totalBytes.addAndGet(-entry.accounted);
+        }
+    }
+
+    private static final class Entry {
+        private BoardTermIndex index;
+        // Bytes sumados a totalBytes por este board (bajo el monitor del mapa)
+        private long accounted;
+    }
+}
@@ -0,0 +1,83 @@
+package com.aruidev.kanbeeapi.service.validation;
+
+import com.aruidev.kanbeeapi.exception.BadRequestException;
+
+// Saneado y validación de títulos y descripciones, compartido por los servicios.
+// Equivale a raw.trim().replaceAll("\\s+", " ") pero en una pasada, sin regex ni cadenas intermedias,
+// y devuelve la misma instancia cuando el texto ya está limpio.
+public final class TextSanitizer {
+
+    public static final int MAX_TITLE_LENGTH = 255;
+    public static final int MAX_DESCRIPTION_LENGTH = 2000;
+
+    private TextSanitizer() {}
+
+    public static String title(String raw) {
+        if (raw == null) {
+            throw new BadRequestException("Title cannot be null");
+        }
+        String sanitized = collapseWhitespace(raw);
+        if (sanitized.isEmpty()) {
+            throw new BadRequestException("Title cannot be blank");
+        }
+        if (sanitized.length() > MAX_TITLE_LENGTH) {
+            throw new BadRequestException("Title length must be <= " + MAX_TITLE_LENGTH);
+        }
+        return sanitized;
+    }
+
+    // Las descripciones conservan saltos de línea: solo se recortan los extremos
+    public static String description(String raw) {
+        if (raw == null) return null;
+        String sanitized = raw.trim();
+        if (sanitized.length() > MAX_DESCRIPTION_LENGTH) {
+            throw new BadRequestException("Description length must be <= " + MAX_DESCRIPTION_LENGTH);
+        }
+        return sanitized;
+    }
+
+    // trim() (extremos <= ' ') y cada tramo interior de \s ([ \t\n\x0B\f\r]) a un solo espacio
+    public static String collapseWhitespace(String raw) {
+        int len = raw.length();
+        int start = 0;
+        while (start < len && raw.charAt(start) <= ' ') start++;
+        int end = len;
+        while (end > start && raw.charAt(end - 1) <= ' ') end--;
+
+        // Primer punto que obliga a reescribir: \s distinto de ' ' o dos \s seguidos
+        int dirty = -1;
+        for (int i = start; i < end; i++) {
+            char c = raw.charAt(i);
+            if (isRegexWhitespace(c) && (c != ' ' || isRegexWhitespace(raw.charAt(i + 1)))) {
+                dirty = i;
+                break;
+            }
+        }
+        if (dirty < 0) {
+            return start == 0 && end == len ? raw : raw.substring(start, end);
+        }
+
+        char[] out = new char[end - start];
+        raw.getChars(start, dirty, out, 0);
+        int n = dirty - start;
+        boolean inRun = false;
+        for (int i = dirty; i < end; i++) {
+            char c = raw.charAt(i);
+            if (isRegexWhitespace(c)) {
+                if (!inRun) {
+                    out[n++] = ' ';
+                    inRun = true;
+                }
+            } else {
+                out[n++] = c;
+                inRun = false;
+            }
+        }
+        return new String(out, 0, n);
+    }
+
+    // Misma clase que \s en java.util.regex sin UNICODE_CHARACTER_CLASS
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,199 @@
+package com.aruidev.kanbeeapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Muchos clientes moviendo tarjetas y listas del mismo board a la vez, y editando cada uno su propia tarjeta.
+// Comprueba que no se pierden tarjetas ni ediciones, que las posiciones quedan densas (0..n-1) y que los
+// choques acaban en reintentos o 409, nunca en 500. Informa de la tasa de reintentos.
+// Ejecutar con: ./mvnw test -Dtest=ConcurrentMoveStressTest -Dkanbee.bench=true
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"kanbee.cache.boards.max-size=0", "spring.jpa.show-sql=false"})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@EnabledIfSystemProperty(named = "kanbee.bench", matches = "true")
+class ConcurrentMoveStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrentMoveStressTest.class);
+
+    private static final int LISTS = 4;
+    private static final int CARDS_PER_LIST = 25;
+    private static final int CLIENTS = 32;
+    private static final int OPERATIONS_PER_CLIENT = 100;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void concurrentMovesKeepDenseOrderAndLoseNoUpdates() throws Exception {
+        applyMigrations();
+        String base = "http://localhost:" + port + "/api/v1";
+        String boardId = post(base + "/boards", "{\"title\":\"Stress\"}").get("id").asText();
+        List<Long> listIds = new ArrayList<>();
+        List<Long> cardIds = new ArrayList<>();
+        for (int l = 0; l < LISTS; l++) {
+            long listId = post(base + "/boards/" + boardId + "/lists", "{\"title\":\"List " + l + "\"}").get("id").asLong();
+            listIds.add(listId);
+            for (int c = 0; c < CARDS_PER_LIST; c++) {
+                cardIds.add(post(base + "/lists/" + listId + "/cards", "{\"title\":\"Card " + c + "\"}").get("id").asLong());
+            }
+        }
+
+        ConcurrentHashMap<String, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        // Última descripción confirmada (2xx) por cada cliente en su tarjeta
+        String[] lastWritten = new String[CLIENTS];
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                int client = i;
+                long ownCard = cardIds.get(client);
+                clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int op = 0; op < OPERATIONS_PER_CLIENT; op++) {
+                        int dice = random.nextInt(10);
+                        int status;
+                        String kind;
+                        if (dice < 7) {
+                            kind = "card.move";
+                            long cardId = cardIds.get(random.nextInt(cardIds.size()));
+                            long listId = listIds.get(random.nextInt(listIds.size()));
+                            status = patch(base + "/cards/" + cardId + "/move",
+                                    "{\"listId\":" + listId + ",\"position\":" + random.nextInt(CARDS_PER_LIST * 2) + "}");
+                        } else if (dice < 8) {
+                            kind = "list.move";
+                            long listId = listIds.get(random.nextInt(listIds.size()));
+                            status = patch(base + "/lists/" + listId + "/move",
+                                    "{\"boardId\":\"" + boardId + "\",\"position\":" + random.nextInt(LISTS) + "}");
+                        } else {
+                            kind = "card.update";
+                            String description = "client-" + client + "-" + op;
+                            status = patch(base + "/cards/" + ownCard, "{\"description\":\"" + description + "\"}");
+                            if (status / 100 == 2) {
+                                lastWritten[client] = description;
+                            }
+                        }
+                        statuses.computeIfAbsent(kind + " " + status, k -> new AtomicInteger()).incrementAndGet();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        JsonNode board = get(base + "/boards/" + boardId + "?expand=cards");
+        Set<Long> seen = new HashSet<>();
+        JsonNode lists = board.get("boardLists");
+        for (int l = 0; l < lists.size(); l++) {
+            JsonNode list = lists.get(l);
+            assertEquals(l, list.get("position").asInt(), "list positions must be dense");
+            JsonNode cards = list.get("cards");
+            for (int c = 0; c < cards.size(); c++) {
+                JsonNode card = cards.get(c);
+                assertEquals(c, card.get("position").asInt(), "card positions must be dense in list " + list.get("id"));
+                seen.add(card.get("id").asLong());
+            }
+        }
+        assertEquals(new HashSet<>(cardIds), seen, "no card may be lost or duplicated");
+        for (int client = 0; client < CLIENTS; client++) {
+            if (lastWritten[client] == null) continue;
+            JsonNode card = get(base + "/cards/" + cardIds.get(client));
+            assertEquals(lastWritten[client], card.get("description").asText(), "lost update on client " + client);
+        }
+        statuses.keySet().forEach(key -> {
+            int status = Integer.parseInt(key.substring(key.indexOf(' ') + 1));
+            assertTrue(status / 100 == 2 || status == 409, "unexpected status " + key);
+        });
+
+        int total = CLIENTS * OPERATIONS_PER_CLIENT;
+        log.info("Concurrent moves: {} clients x {} ops in {}s ({} ops/s)", CLIENTS, OPERATIONS_PER_CLIENT,
+                String.format("%.1f", seconds), String.format("%.0f", total / seconds));
+        statuses.entrySet().stream().sorted(Map.Entry.comparingByKey())
+                .forEach(e -> log.info("  {} {}", e.getKey(), e.getValue().get()));
+        for (String operation : List.of("card.move", "list.move", "card.update")) {
+            log.info("  {} retries {}, exhausted {}", operation,
+                    count("kanbee.conflicts.retries", operation), count("kanbee.conflicts.exhausted", operation));
+        }
+        double retries = count("kanbee.conflicts.retries", null);
+        log.info("  retry rate {} per operation", String.format("%.3f", retries / total));
+    }
+
+    // Unicidad diferible por sentencia (migración 003) y el resto de migraciones, como en producción
+    private void applyMigrations() throws Exception {
+        try (Stream<Path> files = Files.list(Path.of("sql/supabase/migrations"))) {
+            for (Path file : files.sorted().toList()) {
+                jdbc.execute(Files.readString(file));
+            }
+        }
+    }
+
+    private double count(String name, String operation) {
+        return meterRegistry.find(name).counters().stream()
+                .filter(counter -> operation == null || operation.equals(counter.getId().getTag("operation")))
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private int patch(String url, String json) {
+        try {
+            return http.send(HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(json))
+                    .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception ex) {
+            return -1;
+        }
+    }
+
+    private JsonNode get(String url) throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readTree(response.body());
+    }
+
+    private JsonNode post(String url, String json) throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,115 @@
+package com.aruidev.kanbeeapi;
+
+import com.aruidev.kanbeeapi.support.SqlStatementCounter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Alta masiva de tarjetas por /operations con y sin lotes JDBC (ids por secuencia pooled, migración 006).
+// Sin lotes cada fila es un INSERT (un viaje a la BD); con lotes, un INSERT multi-fila cada 50 filas.
+// Sentencias contadas con SqlStatementCounter (una por sentencia preparada = un viaje en ambos modos).
+// Ejecutar con: ./mvnw test -Dtest=InsertBatchingBenchmarkTest -Dkanbee.bench=true
+@EnabledIfSystemProperty(named = "kanbee.bench", matches = "true")
+class InsertBatchingBenchmarkTest {
+
+    private static final int CARDS_PER_REQUEST = 500;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void batchedVersusRowByRowInserts() throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            String jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+            List<String> report = new ArrayList<>();
+            for (boolean batched : new boolean[]{false, true}) {
+                try (ConfigurableApplicationContext app = start(jdbcUrl, batched)) {
+                    applyMigrations(postgres);
+                    String base = "http://localhost:" + ((ServletWebServerApplicationContext) app).getWebServer().getPort() + "/api/v1";
+                    String boardId = post(base + "/boards", "{\"title\":\"Batching\"}").get("id").asText();
+                    long listId = post(base + "/boards/" + boardId + "/lists", "{\"title\":\"Inbox\"}").get("id").asLong();
+                    String ops = createOps(listId);
+
+                    for (int i = 0; i < WARMUP; i++) {
+                        post(base + "/boards/" + boardId + "/operations", ops);
+                    }
+                    SqlStatementCounter.reset();
+                    long start = System.nanoTime();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        JsonNode results = post(base + "/boards/" + boardId + "/operations", ops);
+                        assertEquals(CARDS_PER_REQUEST, results.size());
+                    }
+                    double ms = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+                    double statements = SqlStatementCounter.count() / (double) ITERATIONS;
+                    report.add(String.format("%-11s %7.1f statements/request, %8.2f ms/request",
+                            batched ? "batched" : "row-by-row", statements, ms));
+                }
+            }
+            System.out.printf("Bulk card creation, %d cards per /operations request, %d requests%n",
+                    CARDS_PER_REQUEST, ITERATIONS);
+            report.forEach(line -> System.out.println("  " + line));
+        }
+    }
+
+    // Como argumentos: properties() solo pone valores por defecto y application.properties los pisa
+    private static ConfigurableApplicationContext start(String jdbcUrl, boolean batched) {
+        return new SpringApplicationBuilder(KanbeeApiApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.session_factory.statement_inspector=" + SqlStatementCounter.class.getName(),
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + (batched ? 50 : 1),
+                "--spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=" + batched);
+    }
+
+    private static void applyMigrations(EmbeddedPostgres postgres) throws Exception {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement();
+             Stream<Path> files = Files.list(Path.of("sql/supabase/migrations"))) {
+            for (Path file : files.sorted().toList()) {
+                statement.execute(Files.readString(file));
+            }
+        }
+    }
+
+    private static String createOps(long listId) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < CARDS_PER_REQUEST; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"op\":\"card.create\",\"listId\":").append(listId)
+                    .append(",\"title\":\"Card ").append(i).append("\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private JsonNode post(String url, String json) throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readTree(response.body());
+    }
+}
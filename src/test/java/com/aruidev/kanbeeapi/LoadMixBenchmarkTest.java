@@ -0,0 +1,292 @@
+package com.aruidev.kanbeeapi;
+
+import com.aruidev.kanbeeapi.support.SqlPerEndpointFilter;
+import com.aruidev.kanbeeapi.support.SqlStatementCounter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// Carga de extremo a extremo con tres mezclas realistas contra la app completa sobre Postgres embebido:
+//  - poll: clientes que refrescan el board (GET expandido con ETag y deltas por ?since=) y editan de vez en cuando
+//  - drag: sesiones que arrastran tarjetas y listas
+//  - bulk: creadores masivos (ráfagas de /operations y altas sueltas)
+// Informa por mezcla de throughput, p50/p99 por endpoint y sentencias SQL medias por petición.
+// Ejecutar con: ./mvnw test -Dtest=LoadMixBenchmarkTest -Dkanbee.bench=true
+// Opcional: -Dkanbee.load.clients=64 -Dkanbee.load.seconds=30 -Dspring.threads.virtual.enabled=true
+@EnabledIfSystemProperty(named = "kanbee.bench", matches = "true")
+class LoadMixBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("kanbee.load.clients", 32);
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration RUN = Duration.ofSeconds(Integer.getInteger("kanbee.load.seconds", 15));
+    private static final int BOARDS = 8;
+    private static final int LISTS = 6;
+    private static final int CARDS_PER_LIST = 40;
+    private static final int BULK_BATCH = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void pollDragAndBulkMixes() throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            SqlPerEndpointFilter sqlFilter = new SqlPerEndpointFilter();
+            try (ConfigurableApplicationContext app = start(postgres.getJdbcUrl("postgres", "postgres"), sqlFilter)) {
+                applyMigrations(postgres);
+                String base = "http://localhost:" + ((ServletWebServerApplicationContext) app).getWebServer().getPort() + "/api/v1";
+                List<Fixture> boards = new ArrayList<>();
+                for (int b = 0; b < BOARDS; b++) {
+                    boards.add(seed(base, b));
+                }
+
+                System.out.printf("Load mixes: %d clients, %d boards x %d lists x %d cards, %ds per mix%n",
+                        CLIENTS, BOARDS, LISTS, CARDS_PER_LIST, RUN.toSeconds());
+                for (Mix mix : Mix.values()) {
+                    run(mix, base, boards, WARMUP, new Recorder());
+                    sqlFilter.reset();
+                    Recorder recorder = new Recorder();
+                    run(mix, base, boards, RUN, recorder);
+                    recorder.print(mix, sqlFilter.statementsPerRequest());
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String jdbcUrl, SqlPerEndpointFilter sqlFilter) {
+        return new SpringApplicationBuilder(KanbeeApiApplication.class)
+                // Bean Filter: Spring Boot lo registra en el contenedor
+                .initializers(context -> context.getBeanFactory().registerSingleton("sqlPerEndpointFilter", sqlFilter))
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + jdbcUrl,
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=postgres",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" + SqlStatementCounter.class.getName()
+                ).run();
+    }
+
+    // Unicidad diferible (migración 003) y el resto de migraciones, como en producción
+    private static void applyMigrations(EmbeddedPostgres postgres) throws Exception {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement();
+             Stream<Path> files = Files.list(Path.of("sql/supabase/migrations"))) {
+            for (Path file : files.sorted().toList()) {
+                statement.execute(Files.readString(file));
+            }
+        }
+    }
+
+    private enum Mix { POLL, DRAG, BULK }
+
+    private record Fixture(String boardId, List<Long> listIds, List<Long> cardIds) {}
+
+    // Listas por la API y tarjetas en ráfagas de /operations (una por lista)
+    private Fixture seed(String base, int index) throws Exception {
+        String boardId = post(base + "/boards", "{\"title\":\"Load " + index + "\"}").get("id").asText();
+        List<Long> listIds = new ArrayList<>();
+        List<Long> cardIds = new ArrayList<>();
+        for (int l = 0; l < LISTS; l++) {
+            long listId = post(base + "/boards/" + boardId + "/lists", "{\"title\":\"List " + l + "\"}").get("id").asLong();
+            listIds.add(listId);
+            JsonNode results = post(base + "/boards/" + boardId + "/operations", createOps(listId, CARDS_PER_LIST));
+            results.forEach(result -> cardIds.add(result.get("card").get("id").asLong()));
+        }
+        return new Fixture(boardId, listIds, cardIds);
+    }
+
+    private static String createOps(long listId, int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"op\":\"card.create\",\"listId\":").append(listId)
+                    .append(",\"title\":\"Card ").append(i).append("\",\"description\":\"Seeded card ").append(i).append("\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    // CLIENTS clientes en bucle cerrado; cada uno trabaja sobre un board fijo (como una pestaña abierta)
+    private void run(Mix mix, String base, List<Fixture> boards, Duration duration, Recorder recorder) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                Fixture board = boards.get(i % boards.size());
+                clients.submit(() -> {
+                    Session session = new Session(base, board, recorder);
+                    while (System.nanoTime() < deadline) {
+                        switch (mix) {
+                            case POLL -> session.poll();
+                            case DRAG -> session.drag();
+                            case BULK -> session.bulk();
+                        }
+                    }
+                });
+            }
+        }
+        recorder.elapsedNanos = System.nanoTime() - start;
+    }
+
+    // Estado de un cliente: ETag y versión conocidos del board
+    private final class Session {
+
+        private final String base;
+        private final Fixture board;
+        private final Recorder recorder;
+        private String etag;
+        private long revision;
+
+        Session(String base, Fixture board, Recorder recorder) {
+            this.base = base;
+            this.board = board;
+            this.recorder = recorder;
+        }
+
+        void poll() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int dice = random.nextInt(20);
+            if (dice < 9) {
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + "/boards/" + board.boardId() + "?expand=cards"));
+                if (etag != null) request.header("If-None-Match", etag);
+                HttpResponse<String> response = send("GET /boards/{id}?expand=cards", request.GET().build());
+                if (response != null) {
+                    etag = response.headers().firstValue("ETag").orElse(etag);
+                }
+            } else if (dice < 18) {
+                HttpResponse<String> response = send("GET /boards/{id}/changes",
+                        HttpRequest.newBuilder(URI.create(base + "/boards/" + board.boardId() + "/changes?since=" + revision)).GET().build());
+                if (response != null && response.statusCode() == 200) {
+                    revision = readTree(response.body()).path("revision").asLong(revision);
+                }
+            } else {
+                long cardId = randomCard(random);
+                send("PATCH /cards/{id}", json("PATCH", base + "/cards/" + cardId,
+                        "{\"description\":\"Edited " + random.nextInt(1000) + "\"}"));
+            }
+        }
+
+        void drag() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextInt(10) < 8) {
+                long cardId = randomCard(random);
+                long listId = board.listIds().get(random.nextInt(LISTS));
+                send("PATCH /cards/{id}/move", json("PATCH", base + "/cards/" + cardId + "/move",
+                        "{\"listId\":" + listId + ",\"position\":" + random.nextInt(CARDS_PER_LIST) + "}"));
+            } else {
+                long listId = board.listIds().get(random.nextInt(LISTS));
+                send("PATCH /lists/{id}/move", json("PATCH", base + "/lists/" + listId + "/move",
+                        "{\"boardId\":\"" + board.boardId() + "\",\"position\":" + random.nextInt(LISTS) + "}"));
+            }
+        }
+
+        void bulk() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long listId = board.listIds().get(random.nextInt(LISTS));
+            if (random.nextInt(10) < 7) {
+                send("POST /boards/{id}/operations", json("POST", base + "/boards/" + board.boardId() + "/operations",
+                        createOps(listId, BULK_BATCH)));
+            } else {
+                send("POST /lists/{id}/cards", json("POST", base + "/lists/" + listId + "/cards",
+                        "{\"title\":\"Bulk\",\"description\":\"Created under load\"}"));
+            }
+        }
+
+        private long randomCard(ThreadLocalRandom random) {
+            return board.cardIds().get(random.nextInt(board.cardIds().size()));
+        }
+
+        private HttpResponse<String> send(String endpoint, HttpRequest request) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                recorder.record(endpoint, response.statusCode(), System.nanoTime() - start);
+                return response;
+            } catch (Exception ex) {
+                recorder.record(endpoint, -1, System.nanoTime() - start);
+                return null;
+            }
+        }
+    }
+
+    // Latencias de las respuestas correctas (2xx/304) y recuento de estados por endpoint
+    private static final class Recorder {
+
+        private final Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        private volatile long elapsedNanos;
+
+        void record(String endpoint, int status, long nanos) {
+            statuses.computeIfAbsent(endpoint + " " + status, k -> new AtomicInteger()).incrementAndGet();
+            if (status / 100 == 2 || status == 304) {
+                latencies.computeIfAbsent(endpoint, k -> new ConcurrentLinkedQueue<>()).add(nanos);
+            }
+        }
+
+        void print(Mix mix, Map<String, Double> sqlPerRequest) {
+            double seconds = elapsedNanos / 1e9;
+            long ok = latencies.values().stream().mapToLong(ConcurrentLinkedQueue::size).sum();
+            System.out.printf("%n%s mix: %.1f ok req/s%n", mix, ok / seconds);
+            new TreeMap<>(latencies).forEach((endpoint, samples) -> {
+                long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+                System.out.printf("  %-32s %8.1f req/s, p50 %7.2f ms, p99 %8.2f ms%n", endpoint, sorted.length / seconds,
+                        percentile(sorted, 0.50), percentile(sorted, 0.99));
+            });
+            System.out.println("  statuses:");
+            new TreeMap<>(statuses).forEach((key, count) -> System.out.printf("    %-36s %7d%n", key, count.get()));
+            System.out.println("  SQL statements per request (server side):");
+            sqlPerRequest.forEach((route, avg) -> System.out.printf("    %-48s %6.2f%n", route, avg));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1_000_000.0;
+        }
+    }
+
+    private static HttpRequest json(String method, String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (Exception ex) {
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    private JsonNode post(String url, String json) throws Exception {
+        HttpResponse<String> response = http.send(json("POST", url, json), HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,290 @@
+package com.aruidev.kanbeeapi;
+
+import com.aruidev.kanbeeapi.support.SqlStatementCounter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+// Presupuesto de sentencias SQL por endpoint: cada ruta de /api/v1 declara cuántas sentencias puede lanzar
+// sobre un board de 2 listas x 3 tarjetas (modo position, sin caché de snapshots, sin secuenciador).
+// Un N+1 o una carga perezosa nueva rompe el test; una ruta nueva sin presupuesto también.
+// Los presupuestos son techos: bajar uno tras una optimización es bienvenido.
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.aruidev.kanbeeapi.support.SqlStatementCounter",
+        "spring.jpa.show-sql=false",
+        "kanbee.cache.boards.max-size=0",
+        "kanbee.ordering.mode=position",
+        "kanbee.sequencer.enabled=false"})
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class QueryBudgetTest {
+
+    private static final int LISTS = 2;
+    private static final int CARDS_PER_LIST = 3;
+
+    // Clave: método + patrón (+ parámetros obligatorios del mapping)
+    private static final Map<String, Integer> BUDGETS = Map.ofEntries(
+            // insert
+            Map.entry("POST /api/v1/boards", 1),
+            // versión + board
+            Map.entry("GET /api/v1/boards/{id}", 2),
+            // versión + board, listas y tarjetas en tres consultas planas
+            Map.entry("GET /api/v1/boards/{id}?stream=true", 4),
+            // versión
+            Map.entry("GET /api/v1/boards/{id}/events", 1),
+            // versión, suelo, log, filas de listas y de tarjetas
+            Map.entry("GET /api/v1/boards/{id}/changes", 5),
+            // board, update, versión++, versión final, log
+            Map.entry("PATCH /api/v1/boards/{id}", 5),
+            // ver opsBatch(): existe, versión++; alta por CardService (lista, última posición, desplazamiento, nextval);
+            // movimiento (tarjeta, insert pendiente, relectura, última posición, cerrar hueco); update y relectura
+            // final de las 2 tarjetas; versión final, 2 de log
+            Map.entry("POST /api/v1/boards/{boardId}/operations", 17),
+            // cabecera, listas + tarjetas (INSERT ... SELECT), relectura del board nuevo
+            Map.entry("POST /api/v1/boards/{id}/clone", 3),
+            // versión + board + listas + cursor de tarjetas
+            Map.entry("GET /api/v1/boards/{id}/export", 4),
+            // 2 nextval (listas y tarjetas, pooled) + un INSERT en lote por tabla
+            Map.entry("POST /api/v1/boards/import", 5),
+            // existe, versión++, y un DELETE en bloque por tabla (log, tarjetas, listas, board), versión final
+            Map.entry("DELETE /api/v1/boards/{id}", 7),
+            // board, versión++, última posición, desplazamiento, nextval (1 de cada 50), insert, versión final, log
+            Map.entry("POST /api/v1/boards/{boardId}/lists", 8),
+            // lista + tarjetas (expand=cards)
+            Map.entry("GET /api/v1/lists/{id}", 2),
+            // lista, update, versión++, versión final, log
+            Map.entry("PATCH /api/v1/lists/{id}", 5),
+            // lista, versión++, última posición, aparcar, cerrar hueco, update, versión final, log
+            Map.entry("PATCH /api/v1/lists/{id}/move", 8),
+            // existe, versión++, ids, unicidad diferible (una vez), UPDATE único, relectura, versión final, log
+            Map.entry("PUT /api/v1/boards/{boardId}/lists/order", 8),
+            // lista, DELETE en bloque de sus tarjetas, colección de la cascada (ya vacía), delete, versión++,
+            // cerrar hueco, versión final, log
+            Map.entry("DELETE /api/v1/lists/{id}", 8),
+            // lista, versión++, última posición, desplazamiento, nextval (1 de cada 50), insert, versión final, log
+            Map.entry("POST /api/v1/lists/{listId}/cards", 8),
+            Map.entry("GET /api/v1/cards/{id}", 1),
+            // modo (primera búsqueda) + existe el board + búsqueda
+            Map.entry("GET /api/v1/boards/{boardId}/cards/search", 3),
+            // índice en memoria desactivado: existe el board + búsqueda like
+            Map.entry("GET /api/v1/boards/{boardId}/cards/typeahead", 2),
+            // existe + ventana
+            Map.entry("GET /api/v1/lists/{listId}/cards", 2),
+            // tarjeta, su lista (boardId), versión++, update, versión final, log
+            Map.entry("PATCH /api/v1/cards/{id}", 6),
+            // tarjeta, su lista, versión++, última posición, cerrar hueco, update, versión final, log
+            Map.entry("PATCH /api/v1/cards/{id}/move", 8),
+            // lista, versión++, ids, UPDATE único, relectura lista + tarjetas, versión final, log
+            Map.entry("PUT /api/v1/lists/{listId}/cards/order", 8),
+            // tarjeta, su lista, versión++, delete, cerrar hueco, versión final, log
+            Map.entry("DELETE /api/v1/cards/{id}", 7));
+
+    // Variantes medidas aparte dentro de una misma ruta (p. ej. ?expand=cards)
+    private static final Map<String, Integer> VARIANT_BUDGETS = Map.of(
+            "GET /api/v1/boards/{id}?expand=cards", 4);
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbc;
+    // El de la app: actuator registra otro del mismo tipo (controllerEndpointHandlerMapping)
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    private final Map<String, Integer> measured = new TreeMap<>();
+
+    @Test
+    void everyRouteHasABudget() {
+        TreeSet<String> routes = new TreeSet<>();
+        for (RequestMappingInfo info : handlerMapping.getHandlerMethods().keySet()) {
+            String params = String.join("&", info.getParamsCondition().getExpressions().stream()
+                    .map(Object::toString).sorted().toList());
+            for (String pattern : info.getPatternValues()) {
+                if (!pattern.startsWith("/api/v1/")) continue;
+                for (var method : info.getMethodsCondition().getMethods()) {
+                    routes.add(method + " " + pattern + (params.isEmpty() ? "" : "?" + params));
+                }
+            }
+        }
+        assertEquals(new TreeSet<>(BUDGETS.keySet()), routes, "routes without a SQL budget (or stale budgets)");
+    }
+
+    @Test
+    void endpointsStayWithinTheirSqlBudget() throws Exception {
+        applyMigrations();
+
+        measure("POST /api/v1/boards", post("/api/v1/boards"), "{\"title\":\"Budget\"}");
+
+        Fixture reads = seed();
+        measure("GET /api/v1/boards/{id}", get("/api/v1/boards/{id}", reads.boardId()), null);
+        measure("GET /api/v1/boards/{id}?expand=cards", get("/api/v1/boards/{id}?expand=cards", reads.boardId()), null);
+        measure("GET /api/v1/boards/{id}?stream=true", get("/api/v1/boards/{id}?stream=true", reads.boardId()), null);
+        measure("GET /api/v1/boards/{id}/changes", get("/api/v1/boards/{id}/changes?since=0", reads.boardId()), null);
+        measure("GET /api/v1/lists/{id}", get("/api/v1/lists/{id}?expand=cards", reads.list(0)), null);
+        measure("GET /api/v1/cards/{id}", get("/api/v1/cards/{id}", reads.card(0, 0)), null);
+        measure("GET /api/v1/lists/{listId}/cards", get("/api/v1/lists/{listId}/cards?limit=2", reads.list(0)), null);
+        measure("GET /api/v1/boards/{boardId}/cards/search",
+                get("/api/v1/boards/{boardId}/cards/search?q=card&limit=2", reads.boardId()), null);
+        measure("GET /api/v1/boards/{boardId}/cards/typeahead",
+                get("/api/v1/boards/{boardId}/cards/typeahead?q=ca", reads.boardId()), null);
+
+        Fixture writes = seed();
+        measure("PATCH /api/v1/boards/{id}", patch("/api/v1/boards/{id}", writes.boardId()), "{\"title\":\"Renamed\"}");
+        measure("POST /api/v1/boards/{boardId}/lists", post("/api/v1/boards/{boardId}/lists", writes.boardId()),
+                "{\"title\":\"Extra\"}");
+        measure("PATCH /api/v1/lists/{id}", patch("/api/v1/lists/{id}", writes.list(0)), "{\"title\":\"Renamed\"}");
+        measure("PATCH /api/v1/lists/{id}/move", patch("/api/v1/lists/{id}/move", writes.list(0)),
+                "{\"boardId\":\"" + writes.boardId() + "\",\"position\":1}");
+        measure("POST /api/v1/lists/{listId}/cards", post("/api/v1/lists/{listId}/cards", writes.list(1)),
+                "{\"title\":\"Extra\"}");
+        measure("PATCH /api/v1/cards/{id}", patch("/api/v1/cards/{id}", writes.card(0, 0)), "{\"description\":\"Edited\"}");
+        measure("PATCH /api/v1/cards/{id}/move", patch("/api/v1/cards/{id}/move", writes.card(0, 0)),
+                "{\"listId\":" + writes.list(0) + ",\"position\":2}");
+        measure("DELETE /api/v1/cards/{id}", delete("/api/v1/cards/{id}", writes.card(0, 1)), null);
+
+        Fixture orders = seed();
+        measure("PUT /api/v1/boards/{boardId}/lists/order", put("/api/v1/boards/{boardId}/lists/order", orders.boardId()),
+                "{\"ids\":[" + orders.list(1) + "," + orders.list(0) + "]}");
+        measure("PUT /api/v1/lists/{listId}/cards/order", put("/api/v1/lists/{listId}/cards/order", orders.list(0)),
+                "{\"ids\":[" + orders.card(0, 2) + "," + orders.card(0, 1) + "," + orders.card(0, 0) + "]}");
+
+        Fixture batch = seed();
+        measure("POST /api/v1/boards/{boardId}/operations", post("/api/v1/boards/{boardId}/operations", batch.boardId()),
+                opsBatch(batch));
+
+        measure("POST /api/v1/boards/{id}/clone", post("/api/v1/boards/{id}/clone", reads.boardId()),
+                "{\"title\":\"Copy\"}");
+
+        String ndjson = measure("GET /api/v1/boards/{id}/export", get("/api/v1/boards/{id}/export", reads.boardId()), null)
+                .getResponse().getContentAsString();
+        measure("POST /api/v1/boards/import",
+                post("/api/v1/boards/import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson), null);
+
+        Fixture deletes = seed();
+        measure("DELETE /api/v1/lists/{id}", delete("/api/v1/lists/{id}", deletes.list(0)), null);
+        measure("DELETE /api/v1/boards/{id}", delete("/api/v1/boards/{id}", seed().boardId()), null);
+
+        // La suscripción SSE queda abierta: se mide la última
+        measureAsyncOpen("GET /api/v1/boards/{id}/events", get("/api/v1/boards/{id}/events", reads.boardId()));
+
+        List<String> over = new ArrayList<>();
+        measured.forEach((route, count) -> {
+            if (count > budget(route)) over.add(route + " ran " + count + " statements, budget " + budget(route));
+        });
+        assertTrue(over.isEmpty(), String.join("\n", over));
+        assertTrue(measured.keySet().containsAll(BUDGETS.keySet()), "every budgeted route must be measured");
+    }
+
+    // Crear una tarjeta al final de la lista 0 y subir su última tarjeta a la cabeza
+    private String opsBatch(Fixture fixture) {
+        return "[{\"op\":\"card.create\",\"listId\":" + fixture.list(0) + ",\"title\":\"Batched\"}," +
+               "{\"op\":\"card.move\",\"id\":" + fixture.card(0, CARDS_PER_LIST - 1) + ",\"listId\":" + fixture.list(0) +
+               ",\"position\":0}]";
+    }
+
+    private int budget(String route) {
+        Integer budget = BUDGETS.getOrDefault(route, VARIANT_BUDGETS.get(route));
+        return budget == null ? 0 : budget;
+    }
+
+    private MvcResult measure(String route, MockHttpServletRequestBuilder request, String json) throws Exception {
+        if (json != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(json);
+        }
+        SqlStatementCounter.reset();
+        MvcResult result = mvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            // Respuestas en streaming: se cuentan también las sentencias del hilo que escribe el cuerpo
+            result = mvc.perform(asyncDispatch(result)).andReturn();
+        }
+        int count = SqlStatementCounter.count();
+        int status = result.getResponse().getStatus();
+        assertTrue(status / 100 == 2, route + " answered " + status + ": " + result.getResponse().getContentAsString());
+        measured.put(route, count);
+        return result;
+    }
+
+    private void measureAsyncOpen(String route, MockHttpServletRequestBuilder request) throws Exception {
+        SqlStatementCounter.reset();
+        MvcResult result = mvc.perform(request).andReturn();
+        assertTrue(result.getRequest().isAsyncStarted(), route + " should keep the connection open");
+        measured.put(route, SqlStatementCounter.count());
+    }
+
+    // Board de LISTS listas x CARDS_PER_LIST tarjetas creado por la API (con su log de cambios)
+    private Fixture seed() throws Exception {
+        String boardId = create(post("/api/v1/boards"), "{\"title\":\"Fixture\"}").get("id").asText();
+        List<Long> lists = new ArrayList<>();
+        List<List<Long>> cards = new ArrayList<>();
+        for (int l = 0; l < LISTS; l++) {
+            long listId = create(post("/api/v1/boards/{boardId}/lists", boardId), "{\"title\":\"List " + l + "\"}")
+                    .get("id").asLong();
+            lists.add(listId);
+            List<Long> listCards = new ArrayList<>();
+            for (int c = 0; c < CARDS_PER_LIST; c++) {
+                listCards.add(create(post("/api/v1/lists/{listId}/cards", listId), "{\"title\":\"Card " + c + "\"}")
+                        .get("id").asLong());
+            }
+            cards.add(listCards);
+        }
+        return new Fixture(boardId, lists, cards);
+    }
+
+    private JsonNode create(MockHttpServletRequestBuilder request, String json) throws Exception {
+        MvcResult result = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(json)).andReturn();
+        assertEquals(201, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    // Unicidad diferible (migración 003) y el resto de migraciones, como en producción
+    private void applyMigrations() throws Exception {
+        try (Stream<Path> files = Files.list(Path.of("sql/supabase/migrations"))) {
+            for (Path file : files.sorted().toList()) {
+                jdbc.execute(Files.readString(file));
+            }
+        }
+    }
+
+    private record Fixture(String boardId, List<Long> lists, List<List<Long>> cards) {
+        long list(int index) {
+            return lists.get(index);
+        }
+
+        long card(int list, int index) {
+            return cards.get(list).get(index);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.aruidev.kanbeeapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Dos Postgres embebidos hacen de primario y réplica, sin replicación entre ellos: un board creado solo existe
+// en el primario, así que 404 = leído de la réplica y 200 = leído del primario.
+// Comprueba lecturas a la réplica, leer lo propio tras escribir (por cliente y solo durante la ventana)
+// y vuelta al primario cuando el retraso medido supera el tolerado.
+class ReadReplicaRoutingTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void routesReadOnlyRequestsToTheReplica() throws Exception {
+        try (EmbeddedPostgres primary = EmbeddedPostgres.builder().start();
+             EmbeddedPostgres replica = EmbeddedPostgres.builder().start()) {
+            String replicaUrl = replica.getJdbcUrl("postgres", "postgres");
+            // Mismo esquema en la réplica: un arranque contra ella con ddl-auto
+            start(replicaUrl).close();
+            JdbcTemplate replicaJdbc = new JdbcTemplate(replica.getPostgresDatabase());
+            replicaJdbc.execute("CREATE TABLE replica_lag (ms bigint NOT NULL)");
+            replicaJdbc.update("INSERT INTO replica_lag VALUES (0)");
+
+            try (ConfigurableApplicationContext app = start(primary.getJdbcUrl("postgres", "postgres"),
+                    "kanbee.datasource.replica.url=" + replicaUrl,
+                    "kanbee.datasource.replica.lag-query=SELECT ms FROM replica_lag",
+                    "kanbee.datasource.replica.max-lag=500ms",
+                    "kanbee.datasource.replica.lag-check-interval-ms=50",
+                    "kanbee.datasource.replica.sticky-window=3s")) {
+                String base = "http://localhost:" + ((ServletWebServerApplicationContext) app).getWebServer().getPort() + "/api/v1";
+                String board = base + "/boards/" + createBoard(base, "writer");
+
+                // Ventana holgada: las primeras peticiones de la app recién arrancada pueden tardar
+                assertEquals(200, get(board, "writer"), "the writer reads its own write from the primary");
+                assertEquals(404, get(board, "reader"), "other clients read from the replica");
+
+                Thread.sleep(3200);
+                assertEquals(404, get(board, "writer"), "after the sticky window the writer reads from the replica");
+
+                replicaJdbc.update("UPDATE replica_lag SET ms = 5000");
+                Thread.sleep(300);
+                assertEquals(200, get(board, "reader"), "a lagging replica is skipped");
+
+                replicaJdbc.update("UPDATE replica_lag SET ms = 0");
+                Thread.sleep(300);
+                assertEquals(404, get(board, "reader"), "a replica back within tolerance is used again");
+            }
+        }
+    }
+
+    // Como argumentos: properties() solo pone valores por defecto y application.properties los pisa
+    private static ConfigurableApplicationContext start(String jdbcUrl, String... extra) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.jpa.show-sql=false",
+                "--kanbee.cache.boards.max-size=0"));
+        for (String property : extra) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(KanbeeApiApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private String createBoard(String base, String client) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/boards"))
+                .header("Content-Type", "application/json")
+                .header("X-Kanbee-Client", client)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Replica\"}"))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode());
+        return objectMapper.readTree(response.body()).get("id").asText();
+    }
+
+    private int get(String url, String client) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).header("X-Kanbee-Client", client).GET().build();
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,159 @@
+package com.aruidev.kanbeeapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Compara hilos de plataforma y virtuales (throughput y p99) en GET expandido y PATCH move.
+// Arranca la app dos veces sobre el mismo Postgres embebido, una por modo.
+// Ejecutar con: ./mvnw test -Dtest=ThreadModeBenchmarkTest -Dkanbee.bench=true
+@EnabledIfSystemProperty(named = "kanbee.bench", matches = "true")
+class ThreadModeBenchmarkTest {
+
+    private static final int LISTS = 10;
+    private static final int CARDS_PER_LIST = 50;
+    // Más clientes que hilos de Tomcat (200) y que conexiones del pool (10)
+    private static final int CLIENTS = 400;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration RUN = Duration.ofSeconds(10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            String jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+            List<String> report = new ArrayList<>();
+            for (boolean virtual : new boolean[]{false, true}) {
+                try (ConfigurableApplicationContext app = start(jdbcUrl, virtual)) {
+                    String base = "http://localhost:" + ((ServletWebServerApplicationContext) app).getWebServer().getPort() + "/api/v1";
+                    Fixture fixture = seed(base);
+                    String mode = virtual ? "virtual " : "platform";
+                    report.add(mode + " GET  expand=cards : " + load(fixture, f -> get(base + "/boards/" + f.boardId + "?expand=cards")));
+                    report.add(mode + " PATCH cards/move  : " + load(fixture, f -> moveRandomCard(base, f)));
+                }
+            }
+            System.out.printf("Thread modes, %d clients, %d lists x %d cards, %ds per run%n",
+                    CLIENTS, LISTS, CARDS_PER_LIST, RUN.toSeconds());
+            report.forEach(line -> System.out.println("  " + line));
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String jdbcUrl, boolean virtual) {
+        return new SpringApplicationBuilder(KanbeeApiApplication.class).properties(
+                "server.port=0",
+                "spring.datasource.url=" + jdbcUrl,
+                "spring.datasource.username=postgres",
+                "spring.datasource.password=postgres",
+                "spring.jpa.show-sql=false",
+                "spring.threads.virtual.enabled=" + virtual,
+                // Sin caché: cada GET expandido llega a la BD
+                "kanbee.cache.boards.max-size=0"
+        ).run();
+    }
+
+    private record Fixture(String boardId, List<Long> listIds, List<Long> cardIds) {}
+
+    private Fixture seed(String base) throws Exception {
+        String boardId = post(base + "/boards", "{\"title\":\"Bench\"}").get("id").asText();
+        List<Long> listIds = new ArrayList<>();
+        List<Long> cardIds = new ArrayList<>();
+        for (int l = 0; l < LISTS; l++) {
+            long listId = post(base + "/boards/" + boardId + "/lists", "{\"title\":\"List " + l + "\"}").get("id").asLong();
+            listIds.add(listId);
+            for (int c = 0; c < CARDS_PER_LIST; c++) {
+                cardIds.add(post(base + "/lists/" + listId + "/cards",
+                        "{\"title\":\"Card " + c + "\",\"description\":\"Description " + c + "\"}").get("id").asLong());
+            }
+        }
+        return new Fixture(boardId, listIds, cardIds);
+    }
+
+    // Lanza CLIENTS clientes en bucle cerrado; devuelve throughput, p50/p99 y errores
+    private String load(Fixture fixture, Function<Fixture, Integer> call) throws InterruptedException {
+        run(fixture, call, WARMUP, new ConcurrentLinkedQueue<>(), new AtomicInteger());
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger errors = new AtomicInteger();
+        run(fixture, call, RUN, latencies, errors);
+
+        long[] samples = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (samples.length == 0) return "no successful requests, " + errors.get() + " errors";
+        double throughput = samples.length / (double) RUN.toSeconds();
+        double p50 = samples[(int) (samples.length * 0.50)] / 1_000_000.0;
+        double p99 = samples[Math.min(samples.length - 1, (int) (samples.length * 0.99))] / 1_000_000.0;
+        return String.format("%8.1f req/s, p50 %7.2f ms, p99 %8.2f ms, %d errors", throughput, p50, p99, errors.get());
+    }
+
+    private void run(Fixture fixture, Function<Fixture, Integer> call, Duration duration,
+                     ConcurrentLinkedQueue<Long> latencies, AtomicInteger errors) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        int status = call.apply(fixture);
+                        if (status / 100 == 2) {
+                            latencies.add(System.nanoTime() - start);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private int moveRandomCard(String base, Fixture fixture) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long cardId = fixture.cardIds().get(random.nextInt(fixture.cardIds().size()));
+        long listId = fixture.listIds().get(random.nextInt(fixture.listIds().size()));
+        return send(HttpRequest.newBuilder(URI.create(base + "/cards/" + cardId + "/move"))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                        "{\"listId\":" + listId + ",\"position\":" + random.nextInt(CARDS_PER_LIST) + "}"))
+                .build());
+    }
+
+    private int get(String url) {
+        return send(HttpRequest.newBuilder(URI.create(url)).GET().build());
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception ex) {
+            return -1;
+        }
+    }
+
+    private JsonNode post(String url, String json) throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readTree(response.body());
+    }
+}
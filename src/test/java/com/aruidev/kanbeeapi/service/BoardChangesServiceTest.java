@@ -0,0 +1,142 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.BoardCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardDeltaDTO;
+import com.aruidev.kanbeeapi.dto.BoardListCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardListMoveDTO;
+import com.aruidev.kanbeeapi.dto.BoardListResponseDTO;
+import com.aruidev.kanbeeapi.dto.CardCreateDTO;
+import com.aruidev.kanbeeapi.dto.CardResponseDTO;
+import com.aruidev.kanbeeapi.dto.CardUpdateDTO;
+import com.aruidev.kanbeeapi.repository.BoardRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// GET /boards/{id}/changes: plegado del log (última operación por entidad), vuelta al snapshot completo
+// por debajo de change_log_floor, reinicio del log al recibir una lista de otro board y poda
+@SpringBootTest(properties = {"kanbee.ordering.mode=position", "kanbee.cache.boards.max-size=0"})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class BoardChangesServiceTest {
+
+    @Autowired
+    private BoardChangesService changesService;
+    @Autowired
+    private BoardService boardService;
+    @Autowired
+    private BoardListService boardListService;
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private BoardChangeLog changeLog;
+    @Autowired
+    private BoardRepository boardRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void foldsAnUpsertFollowedByADeleteIntoADeletion() {
+        UUID boardId = board("Fold");
+        Long listId = list(boardId, "Todo");
+        long since = boardService.getRevision(boardId);
+
+        Long removed = card(listId, "removed").getId();
+        cardService.update(removed, new CardUpdateDTO("renamed", null));
+        cardService.delete(removed);
+        Long kept = card(listId, "kept").getId();
+
+        BoardDeltaDTO delta = changesService.changesSince(boardId, since);
+        assertFalse(delta.isFull());
+        assertEquals(boardService.getRevision(boardId), delta.getRevision());
+        assertEquals(List.of(removed), delta.getDeletedCardIds());
+        assertEquals(List.of(kept), delta.getCards().stream().map(CardResponseDTO::getId).toList());
+        assertEquals(0, delta.getCards().get(0).getPosition());
+        assertTrue(delta.getLists().isEmpty());
+        assertTrue(delta.getDeletedListIds().isEmpty());
+    }
+
+    @Test
+    void answersWithAnEmptyDeltaWhenNothingChanged() {
+        UUID boardId = board("Quiet");
+        list(boardId, "Todo");
+        long revision = boardService.getRevision(boardId);
+
+        BoardDeltaDTO delta = changesService.changesSince(boardId, revision);
+        assertFalse(delta.isFull());
+        assertEquals(revision, delta.getRevision());
+        assertTrue(delta.getCards().isEmpty());
+        assertTrue(delta.getLists().isEmpty());
+    }
+
+    @Test
+    void pruningAdvancesTheFloorAndOlderVersionsGetTheFullSnapshot() {
+        UUID boardId = board("Pruned");
+        Long listId = list(boardId, "Todo");
+        long since = boardService.getRevision(boardId);
+        card(listId, "a");
+        card(listId, "b");
+        long pruned = boardService.getRevision(boardId);
+
+        jdbc.update("UPDATE board_changes SET created_at = now() - interval '30 days' WHERE board_id = ?", boardId);
+        changeLog.prune();
+        assertEquals(pruned, boardRepository.findChangeLogFloorById(boardId).orElseThrow());
+
+        BoardDeltaDTO full = changesService.changesSince(boardId, since);
+        assertTrue(full.isFull());
+        assertEquals(pruned, full.getRevision());
+        assertEquals(List.of("Todo"), full.getBoard().getBoardLists().stream().map(BoardListResponseDTO::getTitle).toList());
+        assertEquals(2, full.getBoard().getBoardLists().get(0).getCards().size());
+
+        // Desde el suelo el log vuelve a servir
+        Long later = card(listId, "c").getId();
+        BoardDeltaDTO delta = changesService.changesSince(boardId, pruned);
+        assertFalse(delta.isFull());
+        assertEquals(List.of(later), delta.getCards().stream().map(CardResponseDTO::getId).toList());
+    }
+
+    @Test
+    void aListArrivingFromAnotherBoardResetsTheTargetLog() {
+        UUID sourceId = board("Source");
+        UUID targetId = board("Target");
+        Long moving = list(sourceId, "Moving");
+        card(moving, "travels");
+        list(targetId, "Existing");
+        long sourceSince = boardService.getRevision(sourceId);
+        long targetSince = boardService.getRevision(targetId);
+
+        boardListService.move(moving, new BoardListMoveDTO(targetId, 0));
+
+        // Sus tarjetas no están en el log del destino: quien venía de antes necesita el snapshot
+        BoardDeltaDTO target = changesService.changesSince(targetId, targetSince);
+        assertTrue(target.isFull());
+        assertEquals(List.of("Moving", "Existing"),
+                target.getBoard().getBoardLists().stream().map(BoardListResponseDTO::getTitle).toList());
+        assertFalse(changesService.changesSince(targetId, target.getRevision()).isFull());
+
+        // Para el origen la lista simplemente desaparece
+        BoardDeltaDTO source = changesService.changesSince(sourceId, sourceSince);
+        assertFalse(source.isFull());
+        assertEquals(List.of(moving), source.getDeletedListIds());
+    }
+
+    private UUID board(String title) {
+        return boardService.create(new BoardCreateDTO(title)).getId();
+    }
+
+    private Long list(UUID boardId, String title) {
+        return boardListService.create(boardId, new BoardListCreateDTO(title, null)).getId();
+    }
+
+    private CardResponseDTO card(Long listId, String title) {
+        return cardService.create(listId, new CardCreateDTO(title, null, null));
+    }
+}
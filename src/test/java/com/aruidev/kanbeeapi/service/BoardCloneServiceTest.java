@@ -0,0 +1,140 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.BoardCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardListCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardResponseDTO;
+import com.aruidev.kanbeeapi.dto.CardCreateDTO;
+import com.aruidev.kanbeeapi.exception.NotFoundException;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// POST /boards/{id}/clone: mismas listas y tarjetas con sus posiciones y claves, ids nuevos de bloques de
+// las secuencias pooled que no pisan los que Hibernate ya tiene reservados, y el origen intacto
+@SpringBootTest(properties = {"kanbee.ordering.mode=rank", "kanbee.cache.boards.max-size=0"})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class BoardCloneServiceTest {
+
+    private static final String LISTS = "SELECT id, title, position, rank_key, version FROM board_lists " +
+                                        "WHERE board_id = ? ORDER BY position";
+    private static final String CARDS = "SELECT c.id, l.position AS list_position, c.title, c.description, " +
+                                        "c.position, c.rank_key, c.version FROM cards c " +
+                                        "JOIN board_lists l ON l.id = c.list_id WHERE l.board_id = ? " +
+                                        "ORDER BY l.position, c.position";
+
+    @Autowired
+    private BoardService boardService;
+    @Autowired
+    private BoardListService boardListService;
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void copiesListsAndCardsWithTheirOrderAndKeys() {
+        // Una lista vacía y otra que ocupa más de un bloque de ids
+        UUID sourceId = seedBoard(new int[]{2, 0, 60});
+        List<Map<String, Object>> sourceLists = jdbc.queryForList(LISTS, sourceId);
+        List<Map<String, Object>> sourceCards = jdbc.queryForList(CARDS, sourceId);
+        long sourceRevision = boardService.getRevision(sourceId);
+
+        BoardResponseDTO clone = boardService.clone(sourceId, "Copy");
+
+        assertNotEquals(sourceId, clone.getId());
+        assertEquals("Copy", clone.getTitle());
+        assertEquals(0, boardService.getRevision(clone.getId()));
+        List<Map<String, Object>> cloneLists = jdbc.queryForList(LISTS, clone.getId());
+        List<Map<String, Object>> cloneCards = jdbc.queryForList(CARDS, clone.getId());
+        assertEquals(withoutIdentity(sourceLists), withoutIdentity(cloneLists));
+        assertEquals(withoutIdentity(sourceCards), withoutIdentity(cloneCards));
+        cloneCards.forEach(card -> assertNotNull(card.get("rank_key")));
+
+        // El origen no se toca: mismas filas, versiones y revisión
+        assertEquals(sourceLists, jdbc.queryForList(LISTS, sourceId));
+        assertEquals(sourceCards, jdbc.queryForList(CARDS, sourceId));
+        assertEquals(sourceRevision, boardService.getRevision(sourceId));
+    }
+
+    @Test
+    void takesIdsFromFreshSequenceBlocks() {
+        UUID sourceId = seedBoard(new int[]{1, 55});
+        // Hibernate ya tiene reservado (en memoria) un bloque que acaba, como mucho, en last_value
+        long listsBefore = lastValue("board_lists_seq");
+        long cardsBefore = lastValue("cards_seq");
+
+        UUID cloneId = boardService.clone(sourceId, null).getId();
+
+        Set<Long> listIds = ids(LISTS, cloneId);
+        Set<Long> cardIds = ids(CARDS, cloneId);
+        assertEquals(2, listIds.size());
+        assertEquals(56, cardIds.size());
+        long listsAfter = lastValue("board_lists_seq");
+        long cardsAfter = lastValue("cards_seq");
+        listIds.forEach(id -> assertTrue(id > listsBefore && id <= listsAfter, "list id " + id));
+        cardIds.forEach(id -> assertTrue(id > cardsBefore && id <= cardsAfter, "card id " + id));
+        assertTrue(disjoint(listIds, ids(LISTS, sourceId)));
+        assertTrue(disjoint(cardIds, ids(CARDS, sourceId)));
+
+        // Las altas siguientes por JPA siguen con su bloque sin chocar con las copiadas
+        Long listId = boardListService.create(cloneId, new BoardListCreateDTO("After", null)).getId();
+        Long cardId = cardService.create(listId, new CardCreateDTO("after", null, null)).getId();
+        assertFalse(listIds.contains(listId));
+        assertFalse(cardIds.contains(cardId));
+    }
+
+    @Test
+    void cloningAMissingBoardIsNotFound() {
+        assertThrows(NotFoundException.class, () -> boardService.clone(UUID.randomUUID(), null));
+    }
+
+    private UUID seedBoard(int[] cardsPerList) {
+        UUID boardId = boardService.create(new BoardCreateDTO("Template")).getId();
+        for (int l = 0; l < cardsPerList.length; l++) {
+            Long listId = boardListService.create(boardId, new BoardListCreateDTO("List " + l, null)).getId();
+            for (int c = 0; c < cardsPerList[l]; c++) {
+                cardService.create(listId, new CardCreateDTO("Card " + l + "-" + c, c % 2 == 0 ? "desc " + c : null, null));
+            }
+        }
+        return boardId;
+    }
+
+    private long lastValue(String sequence) {
+        return jdbc.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+    }
+
+    private Set<Long> ids(String query, UUID boardId) {
+        Set<Long> ids = new HashSet<>();
+        jdbc.queryForList(query, boardId).forEach(row -> ids.add(((Number) row.get("id")).longValue()));
+        return ids;
+    }
+
+    private static boolean disjoint(Set<Long> a, Set<Long> b) {
+        return a.stream().noneMatch(b::contains);
+    }
+
+    private static List<Map<String, Object>> withoutIdentity(List<Map<String, Object>> rows) {
+        return rows.stream().map(row -> {
+            Map<String, Object> copy = new LinkedHashMap<>(row);
+            copy.remove("id");
+            copy.remove("version");
+            return copy;
+        }).toList();
+    }
+}
@@ -0,0 +1,130 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.BoardCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardListCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardOperationDTO;
+import com.aruidev.kanbeeapi.dto.BoardOperationResultDTO;
+import com.aruidev.kanbeeapi.dto.CardCreateDTO;
+import com.aruidev.kanbeeapi.entity.Card;
+import com.aruidev.kanbeeapi.exception.NotFoundException;
+import com.aruidev.kanbeeapi.repository.CardRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Lote de operaciones (modo position): el resultado es el de aplicar cada operación por su endpoint, en orden,
+// y si una falla no queda nada escrito
+@SpringBootTest(properties = {"kanbee.ordering.mode=position", "kanbee.cache.boards.max-size=0"})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class BoardOperationServiceTest {
+
+    @Autowired
+    private BoardOperationService operationService;
+    @Autowired
+    private BoardService boardService;
+    @Autowired
+    private BoardListService boardListService;
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private CardRepository cardRepository;
+
+    private UUID boardId;
+    private Long todo;
+    private Long done;
+    private List<Long> cards;
+
+    @BeforeEach
+    void seed() {
+        boardId = boardService.create(new BoardCreateDTO("Operations")).getId();
+        todo = boardListService.create(boardId, new BoardListCreateDTO("Todo", null)).getId();
+        done = boardListService.create(boardId, new BoardListCreateDTO("Done", null)).getId();
+        cards = List.of(card(todo, "a0"), card(todo, "a1"), card(todo, "a2"));
+        card(done, "b0");
+    }
+
+    @Test
+    void mixedBatchLeavesContiguousPositionsAndReportsFinalState() {
+        List<BoardOperationResultDTO> results = operationService.apply(boardId, List.of(
+                op("card.create", null, todo, "new", 1),
+                op("card.move", cards.get(2), todo, null, 0),
+                op("card.update", cards.get(1), null, "  a1 renamed ", null),
+                op("card.delete", cards.get(0), null, null, null),
+                op("card.move", cards.get(1), done, null, 0)));
+
+        assertEquals(List.of("a2", "new"), titles(todo));
+        assertEquals(List.of("a1 renamed", "b0"), titles(done));
+        assertEquals(List.of(0, 1), positions(todo));
+        assertEquals(List.of(0, 1), positions(done));
+        // Respuestas con la posición tras todo el lote, no la del momento de cada operación
+        assertEquals(1, results.get(0).getCard().getPosition());
+        assertEquals(0, results.get(1).getCard().getPosition());
+        assertEquals("a1 renamed", results.get(4).getCard().getTitle());
+        assertEquals(0, results.get(4).getCard().getPosition());
+    }
+
+    @Test
+    void appendsContinueAtTheEndAcrossMovesAndDeletes() {
+        List<BoardOperationResultDTO> results = operationService.apply(boardId, List.of(
+                op("card.create", null, todo, "c3", null),
+                op("card.create", null, todo, "c4", null),
+                op("card.create", null, done, "d1", null),
+                op("card.move", cards.get(0), done, null, 0),
+                op("card.create", null, todo, "c5", null),
+                op("card.delete", cards.get(1), null, null, null),
+                op("card.create", null, todo, "c6", null),
+                op("card.create", null, todo, "c7", null)));
+
+        assertEquals(List.of("a2", "c3", "c4", "c5", "c6", "c7"), titles(todo));
+        assertEquals(List.of("a0", "b0", "d1"), titles(done));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), positions(todo));
+        assertEquals(List.of(0, 1, 2), positions(done));
+        // Las altas anteriores a un movimiento o borrado responden con su posición final
+        assertEquals(1, results.get(0).getCard().getPosition());
+        assertEquals(2, results.get(1).getCard().getPosition());
+        assertEquals(2, results.get(2).getCard().getPosition());
+        assertEquals(3, results.get(4).getCard().getPosition());
+        assertEquals(5, results.get(7).getCard().getPosition());
+        assertEquals("c7", results.get(7).getCard().getTitle());
+        assertTrue(results.get(7).getCard().getId() > results.get(6).getCard().getId());
+    }
+
+    @Test
+    void failingOperationRollsBackTheWholeBatch() {
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> operationService.apply(boardId, List.of(
+                op("card.create", null, todo, "new", 0),
+                op("card.move", cards.get(2), done, null, 0),
+                op("card.update", cards.get(0), null, "renamed", null),
+                op("card.delete", Long.MAX_VALUE, null, null, null))));
+
+        assertTrue(ex.getMessage().startsWith("Operation 3 (card.delete)"), ex.getMessage());
+        assertEquals(List.of("a0", "a1", "a2"), titles(todo));
+        assertEquals(List.of("b0"), titles(done));
+        assertEquals(List.of(0, 1, 2), positions(todo));
+    }
+
+    private Long card(Long listId, String title) {
+        return cardService.create(listId, new CardCreateDTO(title, null, null)).getId();
+    }
+
+    private static BoardOperationDTO op(String op, Long id, Long listId, String title, Integer position) {
+        return new BoardOperationDTO(op, id, listId, title, null, position);
+    }
+
+    private List<String> titles(Long listId) {
+        return cardRepository.findByBoardList_IdOrderByPositionAsc(listId).stream().map(Card::getTitle).toList();
+    }
+
+    private List<Integer> positions(Long listId) {
+        return cardRepository.findByBoardList_IdOrderByPositionAsc(listId).stream().map(Card::getPosition).toList();
+    }
+}
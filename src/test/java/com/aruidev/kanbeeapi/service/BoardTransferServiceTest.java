@@ -0,0 +1,192 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.BoardCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardImportResultDTO;
+import com.aruidev.kanbeeapi.dto.BoardResponseDTO;
+import com.aruidev.kanbeeapi.entity.Board;
+import com.aruidev.kanbeeapi.entity.BoardList;
+import com.aruidev.kanbeeapi.entity.Card;
+import com.aruidev.kanbeeapi.exception.BadRequestException;
+import com.aruidev.kanbeeapi.repository.BoardRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Exportar a NDJSON e importar debe dar un board con las mismas listas y tarjetas en el mismo orden.
+// El caso grande (100k tarjetas, vía fichero) informa del pico de heap: debe quedarse plano.
+// Ejecutar el grande con: ./mvnw test -Dtest=BoardTransferServiceTest -Dkanbee.bench=true
+@SpringBootTest(properties = {"kanbee.cache.boards.max-size=0", "spring.jpa.show-sql=false"})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class BoardTransferServiceTest {
+
+    @Autowired
+    private BoardTransferService transferService;
+    @Autowired
+    private BoardService boardService;
+    @Autowired
+    private BoardRepository boardRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void roundTripKeepsListsCardsAndOrder() {
+        // Una lista vacía y otra que supera un lote de inserción
+        UUID sourceId = seedBoard(new int[]{3, 0, 120});
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transferService.export(sourceId, out);
+        BoardImportResultDTO result = transferService.importBoard(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(3, result.getLists());
+        assertEquals(123, result.getCards());
+        assertNotEquals(sourceId, result.getBoard().getId());
+        assertEquals(shape(boardService.get(sourceId, true)), shape(boardService.get(result.getBoard().getId(), true)));
+    }
+
+    @Test
+    void rejectsCardsOfUnknownLists() {
+        String ndjson = """
+                {"type":"board","title":"Broken"}
+                {"type":"card","id":1,"listId":99,"title":"Orphan"}
+                """;
+        long boards = boardRepository.count();
+        assertThrows(BadRequestException.class,
+                () -> transferService.importBoard(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))));
+        // La importación es una sola transacción: no queda un board a medias
+        assertEquals(boards, boardRepository.count());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "kanbee.bench", matches = "true")
+    void largeBoardRoundTripKeepsHeapFlat() throws Exception {
+        applyMigrations();
+        int lists = 20;
+        int cardsPerList = 5_000;
+        UUID sourceId = seedBoardWithSql(lists, cardsPerList);
+        Path file = Files.createTempFile("kanbee-export", ".ndjson");
+        try {
+            HeapSampler heap = new HeapSampler();
+            long start = System.nanoTime();
+            try (OutputStream out = Files.newOutputStream(file)) {
+                transferService.export(sourceId, out);
+            }
+            long exportMs = (System.nanoTime() - start) / 1_000_000;
+            long exportPeak = heap.stop();
+
+            heap = new HeapSampler();
+            start = System.nanoTime();
+            BoardImportResultDTO result;
+            try (InputStream in = Files.newInputStream(file)) {
+                result = transferService.importBoard(in);
+            }
+            long importMs = (System.nanoTime() - start) / 1_000_000;
+            long importPeak = heap.stop();
+
+            assertEquals(lists * cardsPerList, result.getCards());
+            System.out.printf("NDJSON round trip, %d lists x %d cards, %d KB file%n",
+                    lists, cardsPerList, Files.size(file) / 1024);
+            System.out.printf("  export: %6d ms, heap growth peak %5d MB%n", exportMs, exportPeak / (1024 * 1024));
+            System.out.printf("  import: %6d ms, heap growth peak %5d MB%n", importMs, importPeak / (1024 * 1024));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private UUID seedBoard(int[] cardsPerList) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Board board = new Board("Transfer");
+            for (int l = 0; l < cardsPerList.length; l++) {
+                BoardList list = new BoardList("List " + l, l);
+                board.addBoardList(list);
+                for (int c = 0; c < cardsPerList[l]; c++) {
+                    list.addCard(new Card("Card " + l + "-" + c, c % 2 == 0 ? "Line 1\nLine 2" : null, c));
+                }
+            }
+            return boardRepository.save(board).getId();
+        });
+    }
+
+    // Inserción directa en SQL: por la API tardaría demasiado con 100k tarjetas
+    private UUID seedBoardWithSql(int lists, int cardsPerList) {
+        UUID boardId = boardService.create(new BoardCreateDTO("Large")).getId();
+        jdbc.update("INSERT INTO board_lists (board_id, title, position, version, created_at, updated_at) " +
+                "SELECT ?, 'List ' || l, l, 0, now(), now() FROM generate_series(0, ? - 1) l", boardId, lists);
+        jdbc.update("INSERT INTO cards (list_id, title, description, position, version, created_at, updated_at) " +
+                "SELECT bl.id, 'Card ' || c, 'Description of card ' || c, c, 0, now(), now() " +
+                "FROM board_lists bl CROSS JOIN generate_series(0, ? - 1) c WHERE bl.board_id = ?", cardsPerList, boardId);
+        return boardId;
+    }
+
+    // Títulos, descripciones y posiciones (sin ids ni fechas)
+    private static List<String> shape(BoardResponseDTO board) {
+        return board.getBoardLists().stream()
+                .map(list -> list.getPosition() + ":" + list.getTitle() + list.getCards().stream()
+                        .map(card -> card.getPosition() + ":" + card.getTitle() + "|" + card.getDescription())
+                        .toList())
+                .toList();
+    }
+
+    private void applyMigrations() throws Exception {
+        try (Stream<Path> files = Files.list(Path.of("sql/supabase/migrations"))) {
+            for (Path file : files.sorted().toList()) {
+                jdbc.execute(Files.readString(file));
+            }
+        }
+    }
+
+    // Muestrea el heap usado cada 5 ms y devuelve el mayor crecimiento respecto al inicio
+    private static final class HeapSampler {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final AtomicBoolean running = new AtomicBoolean(true);
+        private final AtomicLong peak = new AtomicLong();
+        private final long baseline;
+        private final Thread thread;
+
+        private HeapSampler() {
+            System.gc();
+            baseline = memory.getHeapMemoryUsage().getUsed();
+            thread = Thread.ofPlatform().daemon().start(() -> {
+                while (running.get()) {
+                    peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed() - baseline, Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        private long stop() throws InterruptedException {
+            running.set(false);
+            thread.join();
+            return peak.get();
+        }
+    }
+}
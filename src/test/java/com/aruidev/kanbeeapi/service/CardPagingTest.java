@@ -0,0 +1,138 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.BoardCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardListCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardListResponseDTO;
+import com.aruidev.kanbeeapi.dto.CardCreateDTO;
+import com.aruidev.kanbeeapi.dto.CardMoveDTO;
+import com.aruidev.kanbeeapi.dto.CardPageDTO;
+import com.aruidev.kanbeeapi.dto.CardResponseDTO;
+import com.aruidev.kanbeeapi.service.ordering.CardCursor;
+import com.aruidev.kanbeeapi.service.ordering.OrderingMode;
+import com.aruidev.kanbeeapi.service.ordering.OrderingProperties;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// GET /lists/{id}/cards: recorrer una lista página a página en los dos modos de orden, con altas y movimientos
+// entre página y página, sin repetir ni saltarse tarjetas; un cursor mal formado o manipulado es un 400
+@SpringBootTest(properties = "kanbee.cache.boards.max-size=0")
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class CardPagingTest {
+
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private BoardService boardService;
+    @Autowired
+    private BoardListService boardListService;
+    @Autowired
+    private OrderingProperties ordering;
+    @Autowired
+    private MockMvc mvc;
+
+    @AfterEach
+    void restoreMode() {
+        ordering.setMode(OrderingMode.POSITION);
+    }
+
+    @Test
+    void walksAListInPositionModeWhileItChanges() {
+        walkWhileChanging(OrderingMode.POSITION);
+    }
+
+    @Test
+    void walksAListInRankModeWhileItChanges() {
+        walkWhileChanging(OrderingMode.RANK);
+    }
+
+    @Test
+    void rejectsMalformedAndTamperedCursors() throws Exception {
+        Long listId = list(OrderingMode.POSITION, 3);
+        String valid = cardService.page(listId, null, 1).getNextCursor();
+        assertEquals(200, status(listId, valid));
+
+        assertEquals(400, status(listId, "not a cursor!"));
+        assertEquals(400, status(listId, encode("p:0:1")));
+        assertEquals(400, status(listId, encode("p:zero:1:0")));
+        assertEquals(400, status(listId, encode("p:0:1:-4")));
+        assertEquals(400, status(listId, encode("p:-1:1:0")));
+        assertEquals(400, status(listId, encode("x:0:1:0")));
+        // Cursor de otro modo de orden
+        assertEquals(400, status(listId, CardCursor.rank("a0", 1, 0).encode()));
+    }
+
+    // Página de 2; antes de la segunda, una tarjeta nueva delante del cursor, otra al final y la última
+    // movida justo detrás del cursor: se ven todas las que ya había una vez y la del final, en su orden
+    private void walkWhileChanging(OrderingMode mode) {
+        Long listId = list(mode, 6);
+        CardPageDTO first = cardService.page(listId, null, 2);
+        List<Long> seen = new ArrayList<>(ids(first));
+
+        Long ahead = cardService.create(listId, new CardCreateDTO("ahead", null, 0)).getId();
+        Long appended = cardService.create(listId, new CardCreateDTO("appended", null, null)).getId();
+        List<Long> before = ids(cardService.page(listId, null, 50));
+        Long last = before.get(before.size() - 2);
+        // ahead, c0, c1 | last, c2, c3, c4, appended
+        cardService.move(last, new CardMoveDTO(listId, 3));
+
+        String cursor = first.getNextCursor();
+        int pages = 1;
+        while (cursor != null) {
+            CardPageDTO page = cardService.page(listId, cursor, 2);
+            seen.addAll(ids(page));
+            cursor = page.getNextCursor();
+            pages++;
+        }
+
+        List<Long> expected = new ArrayList<>(ids(cardService.page(listId, null, 50)));
+        expected.remove(ahead);
+        assertEquals(expected, seen);
+        assertEquals(appended, seen.get(seen.size() - 1));
+        assertEquals(4, pages);
+        if (mode == OrderingMode.POSITION) {
+            // Las posiciones de cada página son las de la lista en ese momento
+            assertEquals(List.of(3, 4), cardService.page(listId, cardService.page(listId, null, 3).getNextCursor(), 2)
+                    .getCards().stream().map(CardResponseDTO::getPosition).toList());
+        }
+        assertNull(cardService.page(listId, null, 50).getNextCursor());
+    }
+
+    private Long list(OrderingMode mode, int cards) {
+        ordering.setMode(mode);
+        UUID boardId = boardService.create(new BoardCreateDTO("Paging " + mode)).getId();
+        BoardListResponseDTO list = boardListService.create(boardId, new BoardListCreateDTO("Todo", null));
+        for (int i = 0; i < cards; i++) {
+            cardService.create(list.getId(), new CardCreateDTO("c" + i, null, null));
+        }
+        return list.getId();
+    }
+
+    private static List<Long> ids(CardPageDTO page) {
+        return page.getCards().stream().map(CardResponseDTO::getId).toList();
+    }
+
+    private int status(Long listId, String cursor) throws Exception {
+        return mvc.perform(get("/api/v1/lists/{listId}/cards", listId).param("after", cursor).param("limit", "1"))
+                .andReturn().getResponse().getStatus();
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,106 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.CardSearchHitDTO;
+import com.aruidev.kanbeeapi.dto.CardSearchPageDTO;
+import com.aruidev.kanbeeapi.entity.Board;
+import com.aruidev.kanbeeapi.entity.BoardList;
+import com.aruidev.kanbeeapi.entity.Card;
+import com.aruidev.kanbeeapi.repository.BoardRepository;
+import com.aruidev.kanbeeapi.repository.CardRepository;
+import com.aruidev.kanbeeapi.service.typeahead.CardTypeaheadIndex;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Las dos implementaciones (texto completo con la migración 007 y LIKE) sobre los mismos datos:
+// mismo conjunto de resultados, coincidencias de título primero, limitadas al board y paginadas.
+@SpringBootTest(properties = "kanbee.cache.boards.max-size=0")
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class CardSearchServiceTest {
+
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private BoardRepository boardRepository;
+    @Autowired
+    private CardTypeaheadIndex typeaheadIndex;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private UUID boardId;
+
+    @BeforeEach
+    void seed() throws Exception {
+        try (Stream<Path> files = Files.list(Path.of("sql/supabase/migrations"))) {
+            for (Path file : files.sorted().toList()) {
+                jdbc.execute(Files.readString(file));
+            }
+        }
+        boardId = board("Search", new Card("Deploy pipeline", null, 0), new Card("Write docs", "Deploy notes", 1),
+                new Card("50% done", null, 2), new Card("500 done", null, 3));
+        board("Other", new Card("Deploy elsewhere", null, 0));
+    }
+
+    @Test
+    void fullTextAndLikeFindTheSameCardsTitleMatchesFirst() {
+        for (String mode : List.of("fulltext", "like")) {
+            CardSearchPageDTO page = service(mode).search(boardId, "  deploy ", 0, 10);
+            assertEquals(List.of("Deploy pipeline", "Write docs"), titles(page.getResults()), mode);
+            assertEquals("deploy", page.getQuery(), mode);
+            assertNull(page.getNextOffset(), mode);
+        }
+    }
+
+    @Test
+    void pagesWithOffset() {
+        for (String mode : List.of("fulltext", "like")) {
+            CardSearchService service = service(mode);
+            CardSearchPageDTO first = service.search(boardId, "deploy", 0, 1);
+            assertEquals(List.of("Deploy pipeline"), titles(first.getResults()), mode);
+            assertEquals(1, first.getNextOffset(), mode);
+            CardSearchPageDTO second = service.search(boardId, "deploy", first.getNextOffset(), 1);
+            assertEquals(List.of("Write docs"), titles(second.getResults()), mode);
+            assertNull(second.getNextOffset(), mode);
+        }
+    }
+
+    @Test
+    void likeTreatsWildcardsLiterally() {
+        assertEquals(List.of("50% done"), titles(service("like").search(boardId, "50%", 0, 10).getResults()));
+    }
+
+    @Test
+    void autoPicksFullTextWhenTheMigrationIsApplied() {
+        assertEquals(CardSearchService.Mode.FULLTEXT, service("auto").mode());
+    }
+
+    private CardSearchService service(String mode) {
+        return new CardSearchService(cardRepository, boardRepository, typeaheadIndex, mode);
+    }
+
+    private UUID board(String title, Card... cards) {
+        Board board = new Board(title);
+        BoardList list = new BoardList("List", 0);
+        board.addBoardList(list);
+        for (Card card : cards) {
+            list.addCard(card);
+        }
+        return boardRepository.save(board).getId();
+    }
+
+    private static List<String> titles(List<CardSearchHitDTO> hits) {
+        return hits.stream().map(CardSearchHitDTO::getTitle).toList();
+    }
+}
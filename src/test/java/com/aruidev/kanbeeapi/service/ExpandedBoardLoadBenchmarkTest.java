@@ -0,0 +1,104 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.BoardResponseDTO;
+import com.aruidev.kanbeeapi.entity.Board;
+import com.aruidev.kanbeeapi.entity.BoardList;
+import com.aruidev.kanbeeapi.entity.Card;
+import com.aruidev.kanbeeapi.repository.BoardRepository;
+import com.aruidev.kanbeeapi.service.mapper.EntityDtoMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Compara la carga expandida con EntityGraph (listas × tarjetas) frente a ExpandedBoardLoader.
+// Ejecutar con: ./mvnw test -Dtest=ExpandedBoardLoadBenchmarkTest -Dkanbee.bench=true
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@EnabledIfSystemProperty(named = "kanbee.bench", matches = "true")
+class ExpandedBoardLoadBenchmarkTest {
+
+    private static final int LISTS = 20;
+    private static final int CARDS_PER_LIST = 100;
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private BoardRepository boardRepository;
+    @Autowired
+    private ExpandedBoardLoader expandedBoardLoader;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void entityGraphVersusFlatProjections() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        UUID boardId = tx.execute(status -> seedBoard());
+        tx.setReadOnly(true);
+
+        Supplier<BoardResponseDTO> graphPath = () -> tx.execute(status -> EntityDtoMapper.toBoardResponse(
+                boardRepository.findWithBoardListsById(boardId).orElseThrow(), true));
+        Supplier<BoardResponseDTO> flatPath = () -> tx.execute(status -> expandedBoardLoader.load(boardId).board());
+
+        // Mismo JSON por ambos caminos
+        assertEquals(objectMapper.writeValueAsString(graphPath.get()), objectMapper.writeValueAsString(flatPath.get()));
+
+        // Tamaño del result set (celdas = filas × columnas devueltas)
+        long graphRows = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM boards b JOIN board_lists bl ON bl.board_id = b.id " +
+                "LEFT JOIN cards c ON c.list_id = bl.id WHERE b.id = ?", Long.class, boardId);
+        long graphCells = graphRows * (columns("boards") + columns("board_lists") + columns("cards"));
+        long flatRows = 1 + LISTS + (long) LISTS * CARDS_PER_LIST;
+        long flatCells = 5 + LISTS * 5L + (long) LISTS * CARDS_PER_LIST * 7;
+
+        System.out.printf("Expanded board %d lists x %d cards%n", LISTS, CARDS_PER_LIST);
+        System.out.printf("  entity graph : 1 query,  %6d rows, %8d cells, %s%n", graphRows, graphCells, time(graphPath));
+        System.out.printf("  projections  : 3 queries, %6d rows, %8d cells, %s%n", flatRows, flatCells, time(flatPath));
+    }
+
+    private UUID seedBoard() {
+        Board board = new Board("Benchmark board");
+        for (int l = 0; l < LISTS; l++) {
+            BoardList list = new BoardList("List " + l, l);
+            board.addBoardList(list);
+            for (int c = 0; c < CARDS_PER_LIST; c++) {
+                list.addCard(new Card("Card " + l + "-" + c, "Description of card " + c, c));
+            }
+        }
+        return boardRepository.save(board).getId();
+    }
+
+    private long columns(String table) {
+        return jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_name = ?", Long.class, table);
+    }
+
+    private static String time(Supplier<BoardResponseDTO> path) {
+        for (int i = 0; i < WARMUP; i++) path.get();
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            path.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        double avgMs = Arrays.stream(samples).average().orElse(0) / 1_000_000;
+        double p95Ms = samples[(int) (ITERATIONS * 0.95) - 1] / 1_000_000.0;
+        return String.format("avg %.2f ms, p95 %.2f ms", avgMs, p95Ms);
+    }
+}
@@ -0,0 +1,62 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.BoardCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardListCreateDTO;
+import com.aruidev.kanbeeapi.dto.CardCreateDTO;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// El board expandido es el de una sola revisión aunque otro hilo confirme altas mientras se lee: cada alta
+// sube la revisión en uno, así que tarjetas - revisión no cambia en ningún snapshot
+@SpringBootTest(properties = {"kanbee.cache.boards.max-size=0"})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class ExpandedBoardSnapshotTest {
+
+    @Autowired
+    private BoardService boardService;
+    @Autowired
+    private BoardListService boardListService;
+    @Autowired
+    private CardService cardService;
+
+    @Test
+    void cardsAndRevisionComeFromTheSameCommit() throws Exception {
+        UUID boardId = boardService.create(new BoardCreateDTO("Snapshot")).getId();
+        Long listId = boardListService.create(boardId, new BoardListCreateDTO("Todo", null)).getId();
+        long offset = cardCount(boardService.getSnapshot(boardId, true)) - boardService.getRevision(boardId);
+
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; !stop.get(); i++) {
+                cardService.create(listId, new CardCreateDTO("c" + i, null, null));
+            }
+        });
+        int loads = 0;
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+            while (System.nanoTime() < deadline) {
+                BoardSnapshot snapshot = boardService.getSnapshot(boardId, true);
+                assertEquals(offset, cardCount(snapshot) - snapshot.revision(),
+                        "cards and revision of one snapshot must match");
+                loads++;
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+        assertTrue(loads > 0);
+    }
+
+    private static long cardCount(BoardSnapshot snapshot) {
+        return snapshot.board().getBoardLists().stream().mapToLong(list -> list.getCards().size()).sum();
+    }
+}
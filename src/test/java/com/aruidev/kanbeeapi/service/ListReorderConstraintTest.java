@@ -0,0 +1,114 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.BoardCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardListCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardListResponseDTO;
+import com.aruidev.kanbeeapi.dto.OrderUpdateDTO;
+import com.aruidev.kanbeeapi.repository.BoardListRepository;
+import com.aruidev.kanbeeapi.repository.BoardRepository;
+import com.aruidev.kanbeeapi.repository.CardRepository;
+import com.aruidev.kanbeeapi.service.metrics.BoardMetrics;
+import com.aruidev.kanbeeapi.service.ordering.OrderingProperties;
+import com.aruidev.kanbeeapi.service.ordering.RankRebalancer;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// PUT /boards/{id}/lists/order con la unicidad (board_id, position) diferible (migración 003, UPDATE directo)
+// y sin diferir (ddl-auto, aparcando posiciones antes); la comprobación mira solo el esquema actual
+@SpringBootTest(properties = {"kanbee.ordering.mode=position", "kanbee.cache.boards.max-size=0"})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class ListReorderConstraintTest {
+
+    @Autowired
+    private BoardService boardService;
+    @Autowired
+    private BoardListService boardListService;
+    @Autowired
+    private BoardRepository boardRepository;
+    @Autowired
+    private BoardListRepository boardListRepository;
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private OrderingProperties ordering;
+    @Autowired
+    private RankRebalancer rankRebalancer;
+    @Autowired
+    private BoardChangeTracker changeTracker;
+    @Autowired
+    private BoardMetrics boardMetrics;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void restore() {
+        jdbc.execute("DROP SCHEMA IF EXISTS other_app CASCADE");
+        positionConstraint("DEFERRABLE INITIALLY IMMEDIATE");
+    }
+
+    @Test
+    void reordersWithANonDeferrableConstraint() {
+        positionConstraint("");
+        assertFalse(inTransaction(() -> boardListRepository.isPositionConstraintDeferrable()));
+        assertReversed();
+    }
+
+    @Test
+    void reordersWithADeferrableConstraint() {
+        positionConstraint("DEFERRABLE INITIALLY IMMEDIATE");
+        assertTrue(inTransaction(() -> boardListRepository.isPositionConstraintDeferrable()));
+        assertReversed();
+    }
+
+    @Test
+    void ignoresAConstraintWithTheSameNameInAnotherSchema() {
+        positionConstraint("");
+        jdbc.execute("CREATE SCHEMA other_app");
+        jdbc.execute("CREATE TABLE other_app.board_lists (board_id uuid, position int, " +
+                "CONSTRAINT uq_board_lists_board_position UNIQUE (board_id, position) DEFERRABLE)");
+        assertFalse(inTransaction(() -> boardListRepository.isPositionConstraintDeferrable()));
+        assertReversed();
+    }
+
+    // Invierte 3 listas con un servicio nuevo (el resultado de la comprobación se recuerda por instancia)
+    private void assertReversed() {
+        UUID boardId = boardService.create(new BoardCreateDTO("Reorder")).getId();
+        List<Long> ids = List.of(list(boardId, "A"), list(boardId, "B"), list(boardId, "C"));
+        BoardListService service = new BoardListService(boardRepository, boardListRepository, cardRepository, ordering,
+                rankRebalancer, changeTracker, boardMetrics);
+        List<BoardListResponseDTO> lists = inTransaction(() ->
+                service.reorder(boardId, new OrderUpdateDTO(List.of(ids.get(2), ids.get(1), ids.get(0)))));
+        assertEquals(List.of("C", "B", "A"), lists.stream().map(BoardListResponseDTO::getTitle).toList());
+        assertEquals(List.of(0, 1, 2), lists.stream().map(BoardListResponseDTO::getPosition).toList());
+    }
+
+    private Long list(UUID boardId, String title) {
+        return boardListService.create(boardId, new BoardListCreateDTO(title, null)).getId();
+    }
+
+    private void positionConstraint(String deferrable) {
+        jdbc.execute("ALTER TABLE board_lists DROP CONSTRAINT IF EXISTS uq_board_lists_board_position");
+        jdbc.execute("ALTER TABLE board_lists ADD CONSTRAINT uq_board_lists_board_position " +
+                "UNIQUE (board_id, position) " + deferrable);
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+}
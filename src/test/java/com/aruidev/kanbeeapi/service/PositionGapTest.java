@@ -0,0 +1,100 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.BoardCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardListCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardListMoveDTO;
+import com.aruidev.kanbeeapi.dto.CardCreateDTO;
+import com.aruidev.kanbeeapi.dto.CardMoveDTO;
+import com.aruidev.kanbeeapi.entity.BoardList;
+import com.aruidev.kanbeeapi.entity.Card;
+import com.aruidev.kanbeeapi.repository.BoardListRepository;
+import com.aruidev.kanbeeapi.repository.CardRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Modo position: lo que sale de una lista o de un board (movido o borrado) deja las posiciones densas,
+// también cuando detrás hay más de un elemento
+@SpringBootTest(properties = {"kanbee.ordering.mode=position", "kanbee.cache.boards.max-size=0"})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class PositionGapTest {
+
+    @Autowired
+    private BoardService boardService;
+    @Autowired
+    private BoardListService boardListService;
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private BoardListRepository boardListRepository;
+
+    @Test
+    void deletingOrMovingACardOutClosesItsGap() {
+        UUID boardId = board("Cards");
+        Long todo = list(boardId, "Todo");
+        Long done = list(boardId, "Done");
+        List<Long> cards = cards(todo, 5);
+
+        cardService.delete(cards.get(0));
+        assertEquals(List.of(0, 1, 2, 3), cardPositions(todo));
+
+        cardService.move(cards.get(1), new CardMoveDTO(done, 0));
+        assertEquals(List.of(0, 1, 2), cardPositions(todo));
+        assertEquals(List.of(cards.get(2), cards.get(3), cards.get(4)), cardIds(todo));
+        assertEquals(List.of(0), cardPositions(done));
+    }
+
+    @Test
+    void deletingOrMovingAListOutClosesItsGap() {
+        UUID boardId = board("Lists");
+        UUID otherId = board("Other");
+        List<Long> lists = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            lists.add(list(boardId, "L" + i));
+        }
+
+        boardListService.delete(lists.get(0));
+        assertEquals(List.of(0, 1, 2, 3), listPositions(boardId));
+
+        boardListService.move(lists.get(1), new BoardListMoveDTO(otherId, 0));
+        assertEquals(List.of(0, 1, 2), listPositions(boardId));
+        assertEquals(List.of(0), listPositions(otherId));
+    }
+
+    private UUID board(String title) {
+        return boardService.create(new BoardCreateDTO(title)).getId();
+    }
+
+    private Long list(UUID boardId, String title) {
+        return boardListService.create(boardId, new BoardListCreateDTO(title, null)).getId();
+    }
+
+    private List<Long> cards(Long listId, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(cardService.create(listId, new CardCreateDTO("c" + i, null, null)).getId());
+        }
+        return ids;
+    }
+
+    private List<Integer> cardPositions(Long listId) {
+        return cardRepository.findByBoardList_IdOrderByPositionAsc(listId).stream().map(Card::getPosition).toList();
+    }
+
+    private List<Long> cardIds(Long listId) {
+        return cardRepository.findByBoardList_IdOrderByPositionAsc(listId).stream().map(Card::getId).toList();
+    }
+
+    private List<Integer> listPositions(UUID boardId) {
+        return boardListRepository.findByBoard_IdOrderByPositionAsc(boardId).stream().map(BoardList::getPosition).toList();
+    }
+}
@@ -0,0 +1,83 @@
+package com.aruidev.kanbeeapi.service;
+
+import com.aruidev.kanbeeapi.dto.BoardCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardListCreateDTO;
+import com.aruidev.kanbeeapi.dto.CardCreateDTO;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Modo rank: insertar entre dos vecinas con la misma clave (altas concurrentes en el mismo hueco) rebalancea
+// el contenedor en la misma transacción y deja la nueva en su sitio, con todas las claves distintas
+@SpringBootTest(properties = {"kanbee.ordering.mode=rank", "kanbee.cache.boards.max-size=0"})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class RankCollisionTest {
+
+    @Autowired
+    private BoardService boardService;
+    @Autowired
+    private BoardListService boardListService;
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void insertingBetweenCardsWithTheSameKeyRebalancesTheList() {
+        UUID boardId = boardService.create(new BoardCreateDTO("Cards")).getId();
+        Long listId = boardListService.create(boardId, new BoardListCreateDTO("Todo", null)).getId();
+        List<Long> cards = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            cards.add(cardService.create(listId, new CardCreateDTO("c" + i, null, null)).getId());
+        }
+        jdbc.update("UPDATE cards SET rank_key = (SELECT rank_key FROM cards WHERE id = ?) WHERE id = ?",
+                cards.get(0), cards.get(1));
+
+        Long inserted = cardService.create(listId, new CardCreateDTO("between", null, 1)).getId();
+
+        List<Map<String, Object>> rows = jdbc.queryForList(
+                "SELECT id, rank_key FROM cards WHERE list_id = ? ORDER BY rank_key, id", listId);
+        assertEquals(List.of(cards.get(0), inserted, cards.get(1), cards.get(2)), ids(rows));
+        assertStrictlyIncreasing(rows);
+    }
+
+    @Test
+    void insertingBetweenListsWithTheSameKeyRebalancesTheBoard() {
+        UUID boardId = boardService.create(new BoardCreateDTO("Lists")).getId();
+        List<Long> lists = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            lists.add(boardListService.create(boardId, new BoardListCreateDTO("L" + i, null)).getId());
+        }
+        jdbc.update("UPDATE board_lists SET rank_key = (SELECT rank_key FROM board_lists WHERE id = ?) WHERE id = ?",
+                lists.get(0), lists.get(1));
+
+        Long inserted = boardListService.create(boardId, new BoardListCreateDTO("between", 1)).getId();
+
+        List<Map<String, Object>> rows = jdbc.queryForList(
+                "SELECT id, rank_key FROM board_lists WHERE board_id = ? ORDER BY rank_key, id", boardId);
+        assertEquals(List.of(lists.get(0), inserted, lists.get(1), lists.get(2)), ids(rows));
+        assertStrictlyIncreasing(rows);
+    }
+
+    private static List<Long> ids(List<Map<String, Object>> rows) {
+        return rows.stream().map(row -> ((Number) row.get("id")).longValue()).toList();
+    }
+
+    private static void assertStrictlyIncreasing(List<Map<String, Object>> rows) {
+        for (int i = 1; i < rows.size(); i++) {
+            String previous = (String) rows.get(i - 1).get("rank_key");
+            String current = (String) rows.get(i).get("rank_key");
+            assertTrue(previous.compareTo(current) < 0, previous + " < " + current);
+        }
+    }
+}
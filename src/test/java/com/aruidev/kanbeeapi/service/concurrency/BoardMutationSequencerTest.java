@@ -0,0 +1,151 @@
+package com.aruidev.kanbeeapi.service.concurrency;
+
+import com.aruidev.kanbeeapi.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Carriles por board: orden dentro del board, paralelismo entre boards, cola llena e interrupción = 503
+class BoardMutationSequencerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoardMutationSequencer sequencer;
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        if (sequencer != null) sequencer.shutdown();
+    }
+
+    @Test
+    void runsOneBoardInOrderWhileOtherBoardsProceed() throws Exception {
+        sequencer = sequencer(2, 10);
+        UUID board = UUID.randomUUID();
+        UUID other = boardInOtherLane(board, 2);
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> sequencer.run(board, () -> {
+            firstStarted.countDown();
+            await(release);
+            order.add("first");
+        }));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> sequencer.run(board, () -> order.add("second")));
+
+        // Otro board no espera al primero
+        assertEquals("other", sequencer.call(other, () -> "other"));
+        assertTrue(order.isEmpty());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("first", "second"), order);
+    }
+
+    @Test
+    void aFullLaneRejectsWithServiceUnavailable() throws Exception {
+        sequencer = sequencer(1, 1);
+        UUID board = UUID.randomUUID();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> busy = CompletableFuture.runAsync(() -> sequencer.run(board, () -> {
+            running.countDown();
+            await(release);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        // Ocupa el único hueco de la cola
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> sequencer.run(board, () -> { }));
+        waitUntil(() -> depth(0) == 2);
+        assertEquals(2, depth(0));
+
+        RejectedExecutionException ex = assertThrows(RejectedExecutionException.class,
+                () -> sequencer.call(board, () -> "rejected"));
+        assertEquals(503, new GlobalExceptionHandler()
+                .handleLaneFull(ex, new MockHttpServletRequest("PATCH", "/api/v1/cards/1/move"))
+                .getStatusCode().value());
+
+        release.countDown();
+        busy.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void anInterruptedWaitKeepsTheFlagAndRejects() throws Exception {
+        sequencer = sequencer(1, 10);
+        UUID board = UUID.randomUUID();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> busy = CompletableFuture.runAsync(() -> sequencer.run(board, () -> {
+            running.countDown();
+            await(release);
+        }));
+        // Con el carril libre la tarea acabaría antes del get() y no habría espera que interrumpir
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(RejectedExecutionException.class, () -> sequencer.call(board, () -> "never"));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+            release.countDown();
+        }
+        busy.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void nestedMutationsRunInline() {
+        sequencer = sequencer(1, 1);
+        UUID board = UUID.randomUUID();
+        String lane = sequencer.call(board, () -> sequencer.call(board, () -> Thread.currentThread().getName()));
+        assertEquals("board-lane-0", lane);
+    }
+
+    private BoardMutationSequencer sequencer(int lanes, int queueCapacity) {
+        return new BoardMutationSequencer(true, lanes, queueCapacity, null, meterRegistry);
+    }
+
+    private static UUID boardInOtherLane(UUID board, int lanes) {
+        UUID other;
+        do {
+            other = UUID.randomUUID();
+        } while ((other.hashCode() & 0x7fffffff) % lanes == (board.hashCode() & 0x7fffffff) % lanes);
+        return other;
+    }
+
+    // Profundidad del carril (en curso + en cola) según su gauge
+    private double depth(int lane) {
+        return meterRegistry.find("kanbee.sequencer.queue.depth").tag("lane", Integer.toString(lane)).gauge().value();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
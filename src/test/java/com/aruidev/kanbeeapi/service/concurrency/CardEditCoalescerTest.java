@@ -0,0 +1,218 @@
+package com.aruidev.kanbeeapi.service.concurrency;
+
+import com.aruidev.kanbeeapi.dto.BoardCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardListCreateDTO;
+import com.aruidev.kanbeeapi.dto.CardCreateDTO;
+import com.aruidev.kanbeeapi.dto.CardResponseDTO;
+import com.aruidev.kanbeeapi.dto.CardUpdateDTO;
+import com.aruidev.kanbeeapi.service.BoardListService;
+import com.aruidev.kanbeeapi.service.BoardService;
+import com.aruidev.kanbeeapi.service.CardService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Ediciones agrupadas: quedan pendientes sin tocar la BD, se ven en GET /cards/{id}, se vuelcan antes de
+// cualquier lectura del board (con revisión nueva), claim solo las retira si su transacción confirma y
+// los vencidos y el apagado las escriben
+@SpringBootTest(properties = {"kanbee.coalescing.enabled=true", "kanbee.coalescing.window=1h",
+        "kanbee.cache.boards.max-size=0"})
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class CardEditCoalescerTest {
+
+    @Autowired
+    private CardEditCoalescer coalescer;
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private BoardService boardService;
+    @Autowired
+    private BoardListService boardListService;
+    @Autowired
+    private ConflictRetrier conflictRetrier;
+    @Autowired
+    private BoardMutationSequencer sequencer;
+    @Autowired
+    private BoardIdResolver boardIdResolver;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void buffersAndMergesEditsWithoutWriting() {
+        Long id = card(board("Buffer"), "original");
+
+        CardResponseDTO buffered = coalescer.buffer(id, new CardUpdateDTO("draft", null));
+        assertEquals("draft", buffered.getTitle());
+        coalescer.buffer(id, new CardUpdateDTO(null, "notes"));
+
+        CardResponseDTO stored = cardService.get(id);
+        assertEquals("original", stored.getTitle());
+        assertNull(stored.getDescription());
+        CardResponseDTO overlaid = coalescer.overlay(cardService.get(id));
+        assertEquals("draft", overlaid.getTitle());
+        assertEquals("notes", overlaid.getDescription());
+    }
+
+    @Test
+    void readingTheBoardFlushesItsEditsAndAdvancesTheRevision() throws Exception {
+        UUID boardId = board("Flush on read");
+        Long id = card(boardId, "original");
+        Long other = card(board("Untouched"), "other");
+        String etag = mvc.perform(get("/api/v1/boards/{id}", boardId).param("expand", "cards"))
+                .andReturn().getResponse().getHeader("ETag");
+        long revision = boardService.getRevision(boardId);
+
+        coalescer.buffer(id, new CardUpdateDTO("draft", null));
+        coalescer.buffer(other, new CardUpdateDTO("elsewhere", null));
+        MockHttpServletResponse response = mvc.perform(get("/api/v1/boards/{id}", boardId)
+                        .param("expand", "cards").header("If-None-Match", etag))
+                .andReturn().getResponse();
+
+        // Nada de 304 con el valor viejo
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getContentAsString().contains("\"draft\""));
+        assertTrue(boardService.getRevision(boardId) > revision);
+        assertEquals("draft", cardService.get(id).getTitle());
+        // Las de otros boards siguen pendientes
+        assertEquals("other", cardService.get(other).getTitle());
+        assertEquals("elsewhere", coalescer.overlay(cardService.get(other)).getTitle());
+    }
+
+    @Test
+    void aClaimIsReleasedOnlyWhenItsTransactionCommits() {
+        Long id = card(board("Claim"), "original");
+        coalescer.buffer(id, new CardUpdateDTO("draft", null));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals("draft", coalescer.claim(id).getTitle());
+            status.setRollbackOnly();
+        });
+        assertEquals("draft", coalescer.overlay(cardService.get(id)).getTitle());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            CardUpdateDTO claimed = coalescer.claim(id);
+            cardService.update(id, claimed);
+        });
+        assertNull(coalescer.claim(id));
+        assertEquals("draft", cardService.get(id).getTitle());
+    }
+
+    @Test
+    void dueEditsAreWrittenByTheFlushThreads() throws Exception {
+        Long id = card(board("Due"), "original");
+        CardEditCoalescer eager = coalescer(Duration.ZERO);
+        eager.start();
+        try {
+            eager.buffer(id, new CardUpdateDTO("flushed", null));
+            waitUntil(() -> "flushed".equals(cardService.get(id).getTitle()));
+            assertEquals("flushed", cardService.get(id).getTitle());
+        } finally {
+            eager.flushAll();
+        }
+    }
+
+    @Test
+    void aBoardFlushWaitsForTheDueFlushOfTheSameCard() throws Exception {
+        UUID boardId = board("Race");
+        Long id = card(boardId, "original");
+        Long blocker = card(board("Blocker"), "blocker");
+        // Un único hilo de volcado y sin pasadas propias: flushDue se llama a mano
+        CardEditCoalescer racing = new CardEditCoalescer(true, Duration.ZERO, TimeUnit.HOURS.toMillis(1), 1,
+                cardService, conflictRetrier, sequencer, boardIdResolver, meterRegistry);
+        racing.start();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch unlock = new CountDownLatch(1);
+        Thread holder = Thread.ofPlatform().start(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbc.queryForList("SELECT id FROM cards WHERE id = ? FOR UPDATE", blocker);
+            locked.countDown();
+            try {
+                unlock.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        try {
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+            // El hilo de volcado se queda esperando el bloqueo de fila; la edición vieja queda encolada detrás
+            racing.buffer(blocker, new CardUpdateDTO("blocked", null));
+            racing.flushDue();
+            racing.buffer(id, new CardUpdateDTO("old", null));
+            racing.flushDue();
+            racing.buffer(id, new CardUpdateDTO("new", null));
+
+            Thread reader = Thread.ofPlatform().start(() -> racing.flushBoard(boardId));
+            reader.join(300);
+            assertTrue(reader.isAlive(), "flushBoard must wait for the queued flush of the same card");
+            unlock.countDown();
+            reader.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse(reader.isAlive());
+        } finally {
+            unlock.countDown();
+            holder.join();
+            racing.flushAll();
+        }
+        assertEquals("new", cardService.get(id).getTitle());
+        assertEquals("blocked", cardService.get(blocker).getTitle());
+        assertNull(racing.claim(id));
+    }
+
+    @Test
+    void shutdownWritesWhateverIsPending() throws Exception {
+        Long id = card(board("Shutdown"), "original");
+        CardEditCoalescer stopping = coalescer(Duration.ofHours(1));
+        stopping.start();
+        stopping.buffer(id, new CardUpdateDTO("last words", null));
+        assertEquals("original", cardService.get(id).getTitle());
+
+        stopping.flushAll();
+        assertEquals("last words", cardService.get(id).getTitle());
+        assertNull(stopping.claim(id));
+    }
+
+    private CardEditCoalescer coalescer(Duration window) {
+        return new CardEditCoalescer(true, window, 10, 1, cardService, conflictRetrier, sequencer,
+                boardIdResolver, meterRegistry);
+    }
+
+    private UUID board(String title) {
+        return boardService.create(new BoardCreateDTO(title)).getId();
+    }
+
+    private Long card(UUID boardId, String title) {
+        Long listId = boardListService.create(boardId, new BoardListCreateDTO("Todo", null)).getId();
+        return cardService.create(listId, new CardCreateDTO(title, null, null)).getId();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.aruidev.kanbeeapi.service.concurrency;
+
+import com.aruidev.kanbeeapi.exception.ConflictException;
+import com.aruidev.kanbeeapi.exception.NotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Qué cuenta como choque (tipo o SQLSTATE), reintentos con backoff y ConflictException al agotarlos
+class ConflictRetrierTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConflictRetrier retrier = new ConflictRetrier(meterRegistry, 3, Duration.ofMillis(20), Duration.ofMillis(40));
+
+    @Test
+    void recognisesConflictsByTypeAndSqlState() {
+        assertTrue(ConflictRetrier.isConflict(new ObjectOptimisticLockingFailureException("Card", 1L)));
+        assertTrue(ConflictRetrier.isConflict(new CannotAcquireLockException("deadlock")));
+        assertTrue(ConflictRetrier.isConflict(new RuntimeException(new OptimisticLockException())));
+        assertTrue(ConflictRetrier.isConflict(wrapped(new SQLException("could not serialize access", "40001"))));
+        assertTrue(ConflictRetrier.isConflict(wrapped(new SQLException("deadlock detected", "40P01"))));
+        assertTrue(ConflictRetrier.isConflict(wrapped(new SQLException(
+                "duplicate key value violates unique constraint \"uq_board_lists_board_position\"", "23505"))));
+
+        // Otras unicidades, claves ajenas o nulos no se arreglan reintentando
+        assertFalse(ConflictRetrier.isConflict(wrapped(new SQLException(
+                "duplicate key value violates unique constraint \"cards_pkey\"", "23505"))));
+        assertFalse(ConflictRetrier.isConflict(wrapped(new SQLException("violates foreign key constraint", "23503"))));
+        assertFalse(ConflictRetrier.isConflict(wrapped(new SQLException("null value in column", "23502"))));
+        assertFalse(ConflictRetrier.isConflict(new IllegalStateException("boom")));
+    }
+
+    @Test
+    void retriesUntilTheActionSucceeds() {
+        AtomicInteger calls = new AtomicInteger();
+        String result = retrier.call("card.move", () -> {
+            if (calls.incrementAndGet() < 3) throw new CannotAcquireLockException("deadlock");
+            return "moved";
+        }, () -> "current");
+
+        assertEquals("moved", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, meterRegistry.counter("kanbee.conflicts.retries", "operation", "card.move").count());
+        assertEquals(0, meterRegistry.counter("kanbee.conflicts.exhausted", "operation", "card.move").count());
+    }
+
+    @Test
+    void givesUpWithTheCurrentStateAfterBackingOff() {
+        AtomicInteger calls = new AtomicInteger();
+        long start = System.nanoTime();
+        ConflictException ex = assertThrows(ConflictException.class, () -> retrier.call("list.move", () -> {
+            calls.incrementAndGet();
+            throw new CannotAcquireLockException("deadlock");
+        }, () -> "current"));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("current", ex.getCurrent());
+        assertEquals(3, calls.get());
+        // Esperas de [10, 20] y [20, 40] ms entre los tres intentos
+        assertTrue(elapsedMillis >= 30, "backoff too short: " + elapsedMillis + "ms");
+        assertEquals(2, meterRegistry.counter("kanbee.conflicts.retries", "operation", "list.move").count());
+        assertEquals(1, meterRegistry.counter("kanbee.conflicts.exhausted", "operation", "list.move").count());
+    }
+
+    @Test
+    void reportsNoCurrentStateWhenTheEntityIsGone() {
+        ConflictException ex = assertThrows(ConflictException.class, () -> retrier.run("card.update", () -> {
+            throw new ObjectOptimisticLockingFailureException("Card", 1L);
+        }, () -> {
+            throw new NotFoundException("Card not found: 1");
+        }));
+        assertNull(ex.getCurrent());
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(DataIntegrityViolationException.class, () -> retrier.run("card.create", () -> {
+            calls.incrementAndGet();
+            throw new DataIntegrityViolationException("fk", new SQLException("violates foreign key constraint", "23503"));
+        }, null));
+        assertEquals(1, calls.get());
+    }
+
+    private static RuntimeException wrapped(SQLException ex) {
+        return new DataIntegrityViolationException("could not execute statement", ex);
+    }
+}
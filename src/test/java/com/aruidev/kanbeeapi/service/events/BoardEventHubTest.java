@@ -0,0 +1,178 @@
+package com.aruidev.kanbeeapi.service.events;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Suscripción, reparto, desconexión por cola llena y retirada de suscriptores.
+// Los envíos se ejecutan a mano (ManualExecutor) y el emitter anota lo que se le envía.
+class BoardEventHubTest {
+
+    private final UUID boardId = UUID.randomUUID();
+    private final ManualExecutor senders = new ManualExecutor();
+    private final RecordingEmitter emitter = new RecordingEmitter();
+
+    @Test
+    void sendsReadyFirstAndKeepsChangesCommittedWhileSubscribing() {
+        BoardEventHub hub = hub(16);
+        hub.subscribe(boardId, () -> {
+            // Confirmados tras el alta: el 5 ya está en la versión leída, el 6 no
+            hub.publish(event(5));
+            hub.publish(event(6));
+            return 5;
+        });
+        hub.publish(event(7));
+        senders.runPending();
+
+        assertEquals(List.of("ready:5", "card.upserted:6", "card.upserted:7"), emitter.sent);
+        assertTrue(hub.hasSubscribers(boardId));
+    }
+
+    @Test
+    void onlyDeliversToSubscribersOfTheSameBoard() {
+        BoardEventHub hub = hub(16);
+        hub.subscribe(boardId, () -> 1);
+        hub.publish(new BoardEvent(BoardEventType.CARD_UPSERTED, UUID.randomUUID(), 1L, 1L, 2));
+        senders.runPending();
+
+        assertEquals(List.of("ready:1"), emitter.sent);
+    }
+
+    @Test
+    void evictsASubscriberWhoseBufferOverflows() {
+        BoardEventHub hub = hub(2);
+        hub.subscribe(boardId, () -> 1);
+        // Sin vaciar la cola: el tercer evento no cabe
+        hub.publish(event(2));
+        hub.publish(event(3));
+        assertTrue(hub.hasSubscribers(boardId));
+        hub.publish(event(4));
+
+        assertFalse(hub.hasSubscribers(boardId));
+        assertTrue(emitter.completed);
+        senders.runPending();
+        assertEquals(List.of("ready:1"), emitter.sent);
+    }
+
+    @Test
+    void removesASubscriberWhenSendingFails() {
+        BoardEventHub hub = hub(16);
+        hub.subscribe(boardId, () -> 1);
+        senders.runPending();
+        emitter.failing = true;
+        hub.publish(event(2));
+        senders.runPending();
+
+        assertFalse(hub.hasSubscribers(boardId));
+        hub.publish(event(3));
+        assertTrue(senders.pending.isEmpty(), "removed subscribers get nothing scheduled");
+    }
+
+    @Test
+    void doesNotKeepTheSubscriberWhenTheRevisionCannotBeRead() {
+        BoardEventHub hub = hub(16);
+        assertThrows(IllegalStateException.class, () -> hub.subscribe(boardId, () -> {
+            throw new IllegalStateException("board gone");
+        }));
+        assertFalse(hub.hasSubscribers(boardId));
+    }
+
+    private BoardEventHub hub(int bufferSize) {
+        return new BoardEventHub(bufferSize, Duration.ofMinutes(1), new SimpleMeterRegistry(), senders) {
+            @Override
+            SseEmitter newEmitter() {
+                return emitter;
+            }
+        };
+    }
+
+    private BoardEvent event(long revision) {
+        return new BoardEvent(BoardEventType.CARD_UPSERTED, boardId, revision, 1L, revision);
+    }
+
+    // Anota "nombre:id" de cada evento enviado
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new ArrayList<>();
+        private volatile boolean failing;
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("client gone");
+            }
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String chunk) text.append(chunk);
+            }
+            String name = null;
+            String id = null;
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("event:")) name = line.substring(6);
+                if (line.startsWith("id:")) id = line.substring(3);
+            }
+            sent.add(name + ":" + id);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+
+    private static final class ManualExecutor extends AbstractExecutorService {
+        private final Queue<Runnable> pending = new ArrayDeque<>();
+
+        void runPending() {
+            Runnable task;
+            while ((task = pending.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            pending.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.copyOf(pending);
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.aruidev.kanbeeapi.service.ordering;
+
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Orden de las claves generadas: siempre estrictamente entre sus límites, nunca terminadas en '0', y sin
+// clave posible (excepción) cuando los límites no dejan sitio
+class RankKeysTest {
+
+    @Property
+    void betweenIsStrictlyInsideItsBounds(@ForAll("keys") String a, @ForAll("keys") String b) {
+        Assume.that(!a.equals(b));
+        String lo = a.compareTo(b) < 0 ? a : b;
+        String hi = a.compareTo(b) < 0 ? b : a;
+        String key = RankKeys.between(lo, hi);
+        assertTrue(lo.compareTo(key) < 0 && key.compareTo(hi) < 0, lo + " < " + key + " < " + hi);
+        assertNotEquals('0', key.charAt(key.length() - 1));
+    }
+
+    @Property
+    void unboundedSidesStayOnTheirSide(@ForAll("keys") String bound) {
+        assertTrue(RankKeys.between(bound, null).compareTo(bound) > 0);
+        assertTrue(RankKeys.between(null, bound).compareTo(bound) < 0);
+    }
+
+    // Claves duplicadas (altas concurrentes en el mismo hueco): antes se devolvía lo + 'i', mayor que hi
+    @Property
+    void equalBoundsHaveNoKey(@ForAll("keys") String key) {
+        assertFalse(RankKeys.ordered(key, key));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between(key, key));
+    }
+
+    @Property
+    void reversedBoundsHaveNoKey(@ForAll("keys") String a, @ForAll("keys") String b) {
+        Assume.that(a.compareTo(b) > 0);
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between(a, b));
+    }
+
+    @Property(tries = 200)
+    void spreadIsStrictlyIncreasing(@ForAll @IntRange(min = 1, max = 5000) int n) {
+        List<String> keys = RankKeys.spread(n);
+        assertEquals(n, keys.size());
+        for (int i = 1; i < n; i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+        }
+    }
+
+    @Example
+    void firstKeyOfAnEmptyContainer() {
+        assertEquals("i", RankKeys.between(null, null));
+    }
+
+    // Claves válidas: base 36 en minúsculas y sin '0' final
+    @Provide
+    Arbitrary<String> keys() {
+        Arbitrary<String> body = Arbitraries.strings().withChars("0123456789abcdefghijklmnopqrstuvwxyz").ofMaxLength(6);
+        Arbitrary<Character> last = Arbitraries.chars().with("123456789abcdefghijklmnopqrstuvwxyz".toCharArray());
+        return Combinators.combine(body, last).as((prefix, end) -> prefix + end);
+    }
+}
@@ -0,0 +1,124 @@
+package com.aruidev.kanbeeapi.service.typeahead;
+
+import net.jqwik.api.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// El índice debe devolver lo mismo que recorrer todas las tarjetas, y aplicar bien cambios desordenados
+class BoardTermIndexTest {
+
+    private static final String[] WORDS = {"deploy", "deploying", "design", "docs", "bug", "build", "backend",
+            "canción", "cancel", "api", "apio", "release", "review", "fix", "fixture"};
+
+    @Property(tries = 300)
+    void lookupMatchesFullScan(@ForAll("cards") List<String> titles, @ForAll("queries") String query) {
+        BoardTermIndex index = new BoardTermIndex(0);
+        for (int i = 0; i < titles.size(); i++) {
+            index.add(i, 1L, titles.get(i), null);
+        }
+        Set<Long> expected = new TreeSet<>();
+        String[] queryTokens = BoardTermIndex.tokens(query, null);
+        for (int i = 0; i < titles.size(); i++) {
+            String[] terms = BoardTermIndex.tokens(titles.get(i), null);
+            boolean all = queryTokens.length > 0 && Arrays.stream(queryTokens)
+                    .allMatch(token -> Arrays.stream(terms).anyMatch(term -> term.startsWith(token)));
+            if (all) expected.add((long) i);
+        }
+        Set<Long> actual = index.lookup(query, Integer.MAX_VALUE).stream()
+                .map(BoardTermIndex.Hit::id).collect(Collectors.toCollection(TreeSet::new));
+        assertEquals(expected, actual);
+    }
+
+    @Provide
+    Arbitrary<List<String>> cards() {
+        Arbitrary<String> title = Arbitraries.of(WORDS).list().ofMinSize(1).ofMaxSize(4).map(words -> String.join(" ", words));
+        return title.list().ofMaxSize(40);
+    }
+
+    @Provide
+    Arbitrary<String> queries() {
+        return Arbitraries.of(WORDS)
+                .map(word -> word.substring(0, 1 + Math.abs(word.hashCode()) % word.length()))
+                .list().ofMinSize(1).ofMaxSize(2).map(parts -> String.join(" ", parts));
+    }
+
+    @Test
+    void foldsCaseAndAccentsAndRanksTitleMatchesFirst() {
+        BoardTermIndex index = new BoardTermIndex(0);
+        index.add(1, 10L, "Notas", "Canción de cierre");
+        index.add(2, 10L, "CANCIÓN final", null);
+        assertEquals(List.of(2L, 1L), ids(index.lookup("cancion", 10)));
+        assertEquals(List.of(2L), ids(index.lookup("can fin", 10)));
+    }
+
+    @Test
+    void appliesOutOfOrderChangesByRevision() {
+        BoardTermIndex index = new BoardTermIndex(5);
+        index.add(1, 10L, "Deploy", null);
+
+        // Ya incluido en la carga
+        index.upsert(1, 10L, "Stale", null, 5);
+        assertEquals(List.of(1L), ids(index.lookup("deploy", 10)));
+
+        // Edición 7 aplicada antes que la 6
+        index.upsert(1, 10L, "Release", null, 7);
+        index.upsert(1, 10L, "Review", null, 6);
+        assertEquals(List.of(1L), ids(index.lookup("release", 10)));
+        assertTrue(index.lookup("review", 10).isEmpty());
+
+        // Borrado 9 antes que una edición 8: no resucita
+        index.remove(1, 9);
+        index.upsert(1, 10L, "Zombie", null, 8);
+        assertTrue(index.lookup("zombie", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void memoryEstimateReturnsToBaselineAfterRemovals() {
+        BoardTermIndex index = new BoardTermIndex(0);
+        index.upsert(1, 10L, "Deploy pipeline", "Notes", 1);
+        long withCard = index.bytes();
+        index.remove(1, 2);
+        assertTrue(index.bytes() < withCard);
+        assertEquals(0, index.lookup("d", 10).size());
+    }
+
+    // Ejecutar con: ./mvnw test -Dtest=BoardTermIndexTest -Dkanbee.bench=true
+    @Test
+    @EnabledIfSystemProperty(named = "kanbee.bench", matches = "true")
+    void prefixLookupLatency() {
+        int cards = 20_000;
+        Random random = new Random(42);
+        BoardTermIndex index = new BoardTermIndex(0);
+        for (int i = 0; i < cards; i++) {
+            index.add(i, (long) (i % 20), WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + i, "Description " + WORDS[random.nextInt(WORDS.length)]);
+        }
+        List<String> queries = new ArrayList<>();
+        for (String word : WORDS) {
+            for (int len = 1; len <= Math.min(4, word.length()); len++) queries.add(word.substring(0, len));
+        }
+        for (int i = 0; i < 20_000; i++) index.lookup(queries.get(i % queries.size()), 10);
+        int iterations = 100_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) index.lookup(queries.get(i % queries.size()), 10);
+        double micros = (System.nanoTime() - start) / 1_000.0 / iterations;
+        System.out.printf("Typeahead index: %d cards, %d KB estimated, %.1f us per prefix lookup%n",
+                cards, index.bytes() / 1024, micros);
+    }
+
+    private static List<Long> ids(List<BoardTermIndex.Hit> hits) {
+        return hits.stream().map(BoardTermIndex.Hit::id).toList();
+    }
+}
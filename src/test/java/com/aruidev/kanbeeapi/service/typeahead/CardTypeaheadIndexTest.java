@@ -0,0 +1,78 @@
+package com.aruidev.kanbeeapi.service.typeahead;
+
+import com.aruidev.kanbeeapi.dto.BoardCreateDTO;
+import com.aruidev.kanbeeapi.dto.BoardListCreateDTO;
+import com.aruidev.kanbeeapi.dto.CardCreateDTO;
+import com.aruidev.kanbeeapi.dto.CardMoveDTO;
+import com.aruidev.kanbeeapi.dto.CardSearchHitDTO;
+import com.aruidev.kanbeeapi.dto.CardUpdateDTO;
+import com.aruidev.kanbeeapi.service.BoardListService;
+import com.aruidev.kanbeeapi.service.BoardService;
+import com.aruidev.kanbeeapi.service.CardService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Tras la primera consulta el índice sigue a CardService (alta, edición, movimiento y borrado) sin recargarse;
+// borrar una lista lo descarta y la siguiente consulta lo reconstruye
+@SpringBootTest(properties = {"kanbee.typeahead.enabled=true", "kanbee.cache.boards.max-size=0"})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class CardTypeaheadIndexTest {
+
+    @Autowired
+    private CardTypeaheadIndex typeaheadIndex;
+    @Autowired
+    private BoardService boardService;
+    @Autowired
+    private BoardListService boardListService;
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void followsCardChangesIncrementally() {
+        UUID boardId = boardService.create(new BoardCreateDTO("Typeahead")).getId();
+        Long todo = boardListService.create(boardId, new BoardListCreateDTO("Todo", null)).getId();
+        Long done = boardListService.create(boardId, new BoardListCreateDTO("Done", null)).getId();
+        Long deploy = cardService.create(todo, new CardCreateDTO("Deploy pipeline", null, null)).getId();
+        cardService.create(todo, new CardCreateDTO("Write docs", "Deployment notes", null));
+
+        assertEquals(List.of("Deploy pipeline", "Write docs"), titles(boardId, "depl"));
+        double builds = builds();
+
+        Long release = cardService.create(todo, new CardCreateDTO("Release notes", null, null)).getId();
+        assertEquals(List.of("Release notes"), titles(boardId, "rel"));
+
+        cardService.update(deploy, new CardUpdateDTO("Rollback pipeline", null));
+        assertEquals(List.of("Write docs"), titles(boardId, "depl"));
+        assertEquals(List.of("Rollback pipeline"), titles(boardId, "roll pipe"));
+
+        cardService.move(release, new CardMoveDTO(done, 0));
+        assertEquals(done, typeaheadIndex.lookup(boardId, "release", 10).get(0).getListId());
+
+        cardService.delete(release);
+        assertTrue(titles(boardId, "rel").isEmpty());
+        assertEquals(builds, builds(), "card changes must not rebuild the index");
+
+        boardListService.delete(todo);
+        assertTrue(titles(boardId, "pipe").isEmpty());
+        assertEquals(builds + 1, builds());
+    }
+
+    private List<String> titles(UUID boardId, String query) {
+        return typeaheadIndex.lookup(boardId, query, 10).stream().map(CardSearchHitDTO::getTitle).toList();
+    }
+
+    private double builds() {
+        return meterRegistry.counter("kanbee.typeahead.builds").count();
+    }
+}
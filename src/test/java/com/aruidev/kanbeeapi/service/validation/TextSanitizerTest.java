@@ -0,0 +1,70 @@
+package com.aruidev.kanbeeapi.service.validation;
+
+import com.aruidev.kanbeeapi.exception.BadRequestException;
+import net.jqwik.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Fija el comportamiento de TextSanitizer frente a la implementación anterior con regex
+class TextSanitizerTest {
+
+    // Implementación previa de los servicios (referencia)
+    private static String regexCollapse(String raw) {
+        return raw.trim().replaceAll("\\s+", " ");
+    }
+
+    @Property(tries = 5000)
+    void collapseMatchesRegex(@ForAll("whitespaceHeavy") String raw) {
+        assertEquals(regexCollapse(raw), TextSanitizer.collapseWhitespace(raw));
+    }
+
+    @Property
+    void collapseMatchesRegexOnArbitraryText(@ForAll String raw) {
+        assertEquals(regexCollapse(raw), TextSanitizer.collapseWhitespace(raw));
+    }
+
+    @Property
+    void cleanInputIsReturnedAsIs(@ForAll("whitespaceHeavy") String raw) {
+        String clean = regexCollapse(raw);
+        assertSame(clean, TextSanitizer.collapseWhitespace(clean));
+    }
+
+    @Property
+    void titleMatchesPreviousValidation(@ForAll("whitespaceHeavy") String raw) {
+        String expected = regexCollapse(raw);
+        if (expected.isEmpty()) {
+            assertEquals("Title cannot be blank",
+                    assertThrows(BadRequestException.class, () -> TextSanitizer.title(raw)).getMessage());
+        } else if (expected.length() > TextSanitizer.MAX_TITLE_LENGTH) {
+            assertThrows(BadRequestException.class, () -> TextSanitizer.title(raw));
+        } else {
+            assertEquals(expected, TextSanitizer.title(raw));
+        }
+    }
+
+    @Property
+    void descriptionIsTrimmedOnly(@ForAll("whitespaceHeavy") String raw) {
+        assertEquals(raw.trim(), TextSanitizer.description(raw));
+    }
+
+    @Example
+    void nullTitleIsRejectedAndNullDescriptionAllowed() {
+        assertThrows(BadRequestException.class, () -> TextSanitizer.title(null));
+        assertNull(TextSanitizer.description(null));
+    }
+
+    @Example
+    void titleLengthIsCheckedAfterCollapsing() {
+        String padded = "a" + " ".repeat(400) + "b";
+        assertEquals("a b", TextSanitizer.title(padded));
+        assertThrows(BadRequestException.class, () -> TextSanitizer.title("x".repeat(256)));
+    }
+
+    // Letras, \s, otros caracteres de control (<= ' ' pero no \s) y espacios Unicode que la regex no toca
+    @Provide
+    Arbitrary<String> whitespaceHeavy() {
+        return Arbitraries.strings()
+                .withChars("ab Z\t\n\u000B\f\r\u0000\u0001\u001F\u00A0\u2003é")
+                .ofMaxLength(300);
+    }
+}
@@ -0,0 +1,52 @@
+package com.aruidev.kanbeeapi.support;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Atribuye las sentencias de SqlStatementCounter a "MÉTODO /patrón" de cada petición (hilo del contenedor;
+// el cuerpo de las respuestas en streaming se escribe en otro hilo y no entra en la cuenta)
+public class SqlPerEndpointFilter extends OncePerRequestFilter {
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int before = SqlStatementCounter.threadCount();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String key = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+            Stats route = stats.computeIfAbsent(key, k -> new Stats());
+            route.requests.increment();
+            route.statements.add(SqlStatementCounter.threadCount() - before);
+        }
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    // Sentencias medias por petición, por ruta
+    public Map<String, Double> statementsPerRequest() {
+        Map<String, Double> averages = new TreeMap<>();
+        stats.forEach((route, s) -> averages.put(route, s.statements.sum() / (double) Math.max(1, s.requests.sum())));
+        return averages;
+    }
+
+    private static final class Stats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+    }
+}
@@ -0,0 +1,34 @@
+package com.aruidev.kanbeeapi.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cuenta cada sentencia que Hibernate prepara (consultas, inserts, updates, deletes y bulk).
+// Se registra con spring.jpa.properties.hibernate.session_factory.statement_inspector=<esta clase>.
+// count(): global, también ve las sentencias de hilos asíncronos (p. ej. respuestas en streaming).
+// threadCount(): solo las del hilo actual, para atribuirlas a una petición con carga concurrente
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final AtomicInteger COUNT = new AtomicInteger();
+    private static final ThreadLocal<int[]> THREAD_COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.incrementAndGet();
+        THREAD_COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.set(0);
+    }
+
+    public static int count() {
+        return COUNT.get();
+    }
+
+    public static int threadCount() {
+        return THREAD_COUNT.get()[0];
+    }
+}